@@ -1,11 +1,14 @@
 package com.cricinfo;
 
+import com.cricinfo.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class CricInfoApplication {
     public static void main(String[] args) {
         SpringApplication.run(CricInfoApplication.class, args);
@@ -0,0 +1,91 @@
+package com.cricinfo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Pool for request-scoped fan-out (search, home page). Bounded so a burst
+     * of slow sources cannot grow threads without limit. When saturated the
+     * task is rejected rather than run on the request thread, and callers
+     * report that source as timed out.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor fanOutExecutor(@Value("${cricinfo.fan-out.pool-size:16}") int poolSize,
+                                                 @Value("${cricinfo.fan-out.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("fan-out-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Workers for background jobs, kept apart from request and fan-out threads
+     * so maintenance load cannot starve requests. The queue orders by job
+     * priority, so tasks must be submitted with execute(), not submit(); its
+     * bound is enforced by JobService, which rejects rather than running a
+     * job on the caller.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor jobExecutor(@Value("${cricinfo.jobs.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            protected BlockingQueue<Runnable> createQueue(int queueCapacity) {
+                return new PriorityBlockingQueue<>();
+            }
+        };
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("job-");
+        executor.setThreadPriority(Thread.NORM_PRIORITY - 1);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Single thread that applies changes received from other nodes, in the
+     * order they arrived, and runs cache resyncs. Keeps database reads and
+     * rebuilds off the invalidation bus receiver, which must keep draining
+     * its socket.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor invalidationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("invalidation-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Threads that write streamed list responses once the request thread has
+     * returned. Each running stream holds a database connection until the
+     * client has read it all, so keep the pool smaller than the connection
+     * pool; further streams wait in the queue rather than taking connections.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor streamExecutor(@Value("${cricinfo.streaming.pool-size:8}") int poolSize,
+                                                 @Value("${cricinfo.streaming.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stream-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
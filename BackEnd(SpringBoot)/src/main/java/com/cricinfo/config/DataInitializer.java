@@ -2,13 +2,27 @@ package com.cricinfo.config;
 
 import com.cricinfo.entity.*;
 import com.cricinfo.repository.*;
+import com.cricinfo.service.StartupService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Seeds sample data into empty tables. The five tables are checked and filled
+ * in parallel, each with a single saveAll, so seeding costs roughly one table's
+ * round trips rather than five. Turn it off with cricinfo.startup.seed-data=false
+ * where the database is already populated and the checks are wasted queries.
+ */
 @Component
 public class DataInitializer implements CommandLineRunner {
 
@@ -27,23 +41,43 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private TournamentRepository tournamentRepository;
 
+    @Autowired
+    private StartupService startupService;
+
+    @Autowired
+    @Qualifier("fanOutExecutor")
+    private ThreadPoolTaskExecutor fanOutExecutor;
+
+    @Value("${cricinfo.startup.seed-data:true}")
+    private boolean seedData;
+
     @Override
     public void run(String... args) throws Exception {
-        // Only initialize if database is empty
-        if (matchRepository.count() == 0) {
-            initializeMatches();
-        }
-        if (newsRepository.count() == 0) {
-            initializeNews();
-        }
-        if (playerRepository.count() == 0) {
-            initializePlayers();
-        }
-        if (teamRepository.count() == 0) {
-            initializeTeams();
+        if (!seedData) {
+            return;
         }
-        if (tournamentRepository.count() == 0) {
-            initializeTournaments();
+        long started = System.nanoTime();
+        CompletableFuture.allOf(
+                seedIfEmpty(matchRepository, this::initializeMatches),
+                seedIfEmpty(newsRepository, this::initializeNews),
+                seedIfEmpty(playerRepository, this::initializePlayers),
+                seedIfEmpty(teamRepository, this::initializeTeams),
+                seedIfEmpty(tournamentRepository, this::initializeTournaments)
+        ).join();
+        startupService.record("seed", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private CompletableFuture<Void> seedIfEmpty(JpaRepository<?, ?> repository, Runnable seed) {
+        Runnable task = () -> {
+            if (repository.count() == 0) {
+                seed.run();
+            }
+        };
+        try {
+            return CompletableFuture.runAsync(task, fanOutExecutor);
+        } catch (TaskRejectedException e) {
+            // The fan-out pool aborts when full; seed this table on the startup thread instead.
+            return CompletableFuture.runAsync(task, Runnable::run);
         }
     }
 
@@ -67,7 +101,7 @@ public class DataInitializer implements CommandLineRunner {
         liveMatch.setCurrentBatsmen(Arrays.asList("Virat Kohli 89*", "KL Rahul 45*"));
         liveMatch.setCurrentBowler("Pat Cummins");
         liveMatch.setStartTime(LocalDateTime.now().minusHours(3));
-        matchRepository.save(liveMatch);
+        liveMatch.setMatchDateTime(liveMatch.getStartTime());
 
         // Completed match
         Match completedMatch = new Match();
@@ -85,8 +119,8 @@ public class DataInitializer implements CommandLineRunner {
         completedMatch.setSeries("Pakistan tour of England 2024");
         completedMatch.setPlayerOfMatch("Jos Buttler - 67* (45 balls, 6 fours, 2 sixes)");
         completedMatch.setStartTime(LocalDateTime.now().minusDays(1));
+        completedMatch.setMatchDateTime(completedMatch.getStartTime());
         completedMatch.setEndTime(LocalDateTime.now().minusDays(1).plusHours(4));
-        matchRepository.save(completedMatch);
 
         // Upcoming match
         Match upcomingMatch = new Match();
@@ -99,7 +133,9 @@ public class DataInitializer implements CommandLineRunner {
         upcomingMatch.setFormat("Test");
         upcomingMatch.setSeries("Afghanistan tour of Sri Lanka 2024");
         upcomingMatch.setStartTime(LocalDateTime.now().plusDays(2));
-        matchRepository.save(upcomingMatch);
+        upcomingMatch.setMatchDateTime(upcomingMatch.getStartTime());
+
+        matchRepository.saveAll(List.of(liveMatch, completedMatch, upcomingMatch));
     }
 
     private void initializeNews() {
@@ -115,7 +151,6 @@ public class DataInitializer implements CommandLineRunner {
         news1.setViews(12500);
         news1.setComments(89);
         news1.setFeatured(true);
-        newsRepository.save(news1);
 
         NewsArticle news2 = new NewsArticle();
         news2.setTitle("ICC announces new playing conditions for T20 World Cup 2024");
@@ -129,7 +164,6 @@ public class DataInitializer implements CommandLineRunner {
         news2.setViews(8200);
         news2.setComments(45);
         news2.setFeatured(true);
-        newsRepository.save(news2);
 
         NewsArticle news3 = new NewsArticle();
         news3.setTitle("Babar Azam steps down as Pakistan captain across all formats");
@@ -143,7 +177,8 @@ public class DataInitializer implements CommandLineRunner {
         news3.setViews(15700);
         news3.setComments(156);
         news3.setFeatured(true);
-        newsRepository.save(news3);
+
+        newsRepository.saveAll(List.of(news1, news2, news3));
     }
 
     private void initializePlayers() {
@@ -158,7 +193,6 @@ public class DataInitializer implements CommandLineRunner {
         player1.setPosition("Batsman");
         player1.setBattingStyle("Right-handed");
         player1.setBowlingStyle("Right-arm medium");
-        playerRepository.save(player1);
 
         Player player2 = new Player();
         player2.setName("Babar Azam");
@@ -171,7 +205,6 @@ public class DataInitializer implements CommandLineRunner {
         player2.setPosition("Batsman");
         player2.setBattingStyle("Right-handed");
         player2.setBowlingStyle("Right-arm medium");
-        playerRepository.save(player2);
 
         Player player3 = new Player();
         player3.setName("Joe Root");
@@ -184,7 +217,8 @@ public class DataInitializer implements CommandLineRunner {
         player3.setPosition("Batsman");
         player3.setBattingStyle("Right-handed");
         player3.setBowlingStyle("Right-arm off-break");
-        playerRepository.save(player3);
+
+        playerRepository.saveAll(List.of(player1, player2, player3));
     }
 
     private void initializeTeams() {
@@ -199,7 +233,6 @@ public class DataInitializer implements CommandLineRunner {
         team1.setMatchesWon(28);
         team1.setMatchesLost(12);
         team1.setMatchesDrawn(5);
-        teamRepository.save(team1);
 
         Team team2 = new Team();
         team2.setName("Australia");
@@ -211,7 +244,6 @@ public class DataInitializer implements CommandLineRunner {
         team2.setMatchesWon(26);
         team2.setMatchesLost(14);
         team2.setMatchesDrawn(2);
-        teamRepository.save(team2);
 
         Team team3 = new Team();
         team3.setName("England");
@@ -223,7 +255,8 @@ public class DataInitializer implements CommandLineRunner {
         team3.setMatchesWon(24);
         team3.setMatchesLost(18);
         team3.setMatchesDrawn(6);
-        teamRepository.save(team3);
+
+        teamRepository.saveAll(List.of(team1, team2, team3));
     }
 
     private void initializeTournaments() {
@@ -236,7 +269,6 @@ public class DataInitializer implements CommandLineRunner {
         tournament1.setTeams(20);
         tournament1.setDescription("The premier T20 international tournament featuring 20 teams competing for cricket's ultimate prize");
         tournament1.setPrizeMoney("$5.6 million");
-        tournamentRepository.save(tournament1);
 
         Tournament tournament2 = new Tournament();
         tournament2.setName("Indian Premier League 2024");
@@ -247,7 +279,6 @@ public class DataInitializer implements CommandLineRunner {
         tournament2.setTeams(10);
         tournament2.setDescription("The world's most popular T20 franchise league featuring the best players from around the globe");
         tournament2.setPrizeMoney("$15 million");
-        tournamentRepository.save(tournament2);
 
         Tournament tournament3 = new Tournament();
         tournament3.setName("The Ashes 2025");
@@ -258,6 +289,7 @@ public class DataInitializer implements CommandLineRunner {
         tournament3.setTeams(2);
         tournament3.setDescription("The historic Test series between England and Australia, one of cricket's oldest and most prestigious contests");
         tournament3.setPrizeMoney("$2 million");
-        tournamentRepository.save(tournament3);
+
+        tournamentRepository.saveAll(List.of(tournament1, tournament2, tournament3));
     }
 }
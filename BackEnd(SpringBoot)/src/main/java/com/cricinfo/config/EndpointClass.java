@@ -0,0 +1,37 @@
+package com.cricinfo.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.regex.Pattern;
+
+/**
+ * Cost classes used for rate limiting and load shedding. Live-score reads are
+ * cheap and time-critical, searches are expensive and can wait.
+ */
+public enum EndpointClass {
+    LIVE,
+    READ,
+    SEARCH,
+    WRITE;
+
+    private static final Pattern LIVE_PATHS =
+            Pattern.compile("^/api/matches/(live|\\d+(/scoreboard|/projection)?)$");
+
+    public static EndpointClass of(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (!"GET".equalsIgnoreCase(request.getMethod()) && !"HEAD".equalsIgnoreCase(request.getMethod())) {
+            return WRITE;
+        }
+        if (LIVE_PATHS.matcher(path).matches()) {
+            return LIVE;
+        }
+        if (path.startsWith("/api/search/suggest")) {
+            // Typeahead is answered from memory on every keystroke.
+            return READ;
+        }
+        if (path.contains("/search")) {
+            return SEARCH;
+        }
+        return READ;
+    }
+}
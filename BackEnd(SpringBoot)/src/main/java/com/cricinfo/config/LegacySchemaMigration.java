@@ -0,0 +1,280 @@
+package com.cricinfo.config;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Migration 1.1: brings a database created from the legacy
+ * {@code BackEnd(SQL)/SQL-CrickInfo.txt} script up to the V1 schema.
+ * <p>
+ * Such a database has tables but no Flyway history, so it is baselined at
+ * version 1 without running V1. This step then adds the V1 columns the legacy
+ * script lacks (copying from the legacy column where one holds the same data),
+ * converts the shared columns to their V1 types and nullability, and drops the
+ * legacy indexes that V2 replaces. Legacy-only columns are kept. On a database
+ * that V1 created, the schema already matches and nothing is changed; one that
+ * Hibernate's ddl-auto created only gains the V1 indexes.
+ */
+@Component
+public class LegacySchemaMigration implements JavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacySchemaMigration.class);
+
+    /**
+     * A V1 column. When added, it is copied from the legacy column {@code from}
+     * if that exists; {@code fill} replaces nulls before NOT NULL is applied.
+     */
+    private record Column(String name, String type, boolean notNull, String defaultValue, String from, String fill) {
+
+        static Column nullable(String name, String type) {
+            return new Column(name, type, false, null, null, null);
+        }
+
+        static Column nullable(String name, String type, String from) {
+            return new Column(name, type, false, null, from, null);
+        }
+
+        static Column required(String name, String type, String fill) {
+            return new Column(name, type, true, null, null, fill);
+        }
+
+        static Column required(String name, String type, String from, String fill) {
+            return new Column(name, type, true, null, from, fill);
+        }
+
+        static Column defaulted(String name, String type, String defaultValue) {
+            return new Column(name, type, true, defaultValue, null, defaultValue);
+        }
+
+        String definition() {
+            return type + (notNull ? " NOT NULL" : "") + (defaultValue != null ? " DEFAULT " + defaultValue : "");
+        }
+
+        // VARCHAR targets take the first characters, so a longer legacy value cannot fail the copy.
+        String copyExpression() {
+            return type.startsWith("VARCHAR(") ? "LEFT(" + from + ", " + type.replaceAll("\\D", "") + ")" : from;
+        }
+    }
+
+    private static final Map<String, List<Column>> V1 = new LinkedHashMap<>();
+
+    static {
+        V1.put("matches", List.of(
+                Column.required("team1_name", "VARCHAR(255)", "''"),
+                Column.required("team2_name", "VARCHAR(255)", "''"),
+                Column.nullable("team1_flag", "VARCHAR(255)"),
+                Column.nullable("team2_flag", "VARCHAR(255)"),
+                Column.nullable("team1_score", "VARCHAR(255)"),
+                Column.nullable("team2_score", "VARCHAR(255)"),
+                Column.nullable("team1_overs", "VARCHAR(255)"),
+                Column.nullable("team2_overs", "VARCHAR(255)"),
+                Column.required("status", "VARCHAR(255)", "''"),
+                Column.required("venue", "VARCHAR(255)", "''"),
+                Column.required("format", "VARCHAR(255)", "''"),
+                Column.required("series", "VARCHAR(255)", "''"),
+                // Recomputed by the derived-rates job (MaintenanceJobs) on first start.
+                Column.nullable("run_rate", "VARCHAR(255)"),
+                Column.nullable("required_rate", "VARCHAR(255)"),
+                Column.nullable("current_bowler", "VARCHAR(255)"),
+                Column.nullable("match_type", "VARCHAR(255)"),
+                Column.nullable("player_of_match", "VARCHAR(255)"),
+                Column.required("match_date_time", "DATETIME(6)", "CURRENT_TIMESTAMP"),
+                Column.nullable("start_time", "DATETIME(6)", "match_date_time"),
+                Column.nullable("end_time", "DATETIME(6)"),
+                Column.nullable("created_at", "DATETIME(6)"),
+                Column.nullable("updated_at", "DATETIME(6)")));
+        V1.put("match_current_batsmen", List.of(
+                Column.required("match_id", "BIGINT", null),
+                Column.nullable("batsman", "VARCHAR(255)")));
+        V1.put("news_articles", List.of(
+                Column.required("title", "VARCHAR(500)", "''"),
+                Column.required("summary", "VARCHAR(1000)", "''"),
+                Column.required("content", "TEXT", "''"),
+                Column.nullable("image_url", "VARCHAR(255)", "image"),
+                Column.required("category", "VARCHAR(255)", "''"),
+                Column.required("author", "VARCHAR(255)", "''"),
+                Column.required("published_at", "DATETIME(6)", "CURRENT_TIMESTAMP"),
+                Column.nullable("read_time", "VARCHAR(255)"),
+                Column.defaulted("views", "INT", "0"),
+                Column.defaulted("comments", "INT", "0"),
+                Column.defaulted("featured", "BOOLEAN", "FALSE"),
+                Column.nullable("created_at", "DATETIME(6)"),
+                Column.nullable("updated_at", "DATETIME(6)")));
+        V1.put("players", List.of(
+                Column.required("name", "VARCHAR(255)", "''"),
+                Column.required("country", "VARCHAR(255)", "''"),
+                Column.nullable("image_url", "VARCHAR(255)", "image"),
+                Column.required("runs", "VARCHAR(255)", "total_runs", "'0'"),
+                Column.required("average", "VARCHAR(255)", "batting_average", "'0'"),
+                Column.required("centuries", "VARCHAR(255)", "'0'"),
+                Column.nullable("recent_form", "VARCHAR(255)"),
+                Column.required("position", "VARCHAR(255)", "role", "''"),
+                Column.nullable("batting_style", "VARCHAR(255)"),
+                Column.nullable("bowling_style", "VARCHAR(255)"),
+                Column.nullable("date_of_birth", "DATETIME(6)"),
+                Column.nullable("debut_date", "DATETIME(6)"),
+                Column.defaulted("active", "BOOLEAN", "TRUE"),
+                Column.nullable("created_at", "DATETIME(6)"),
+                Column.nullable("updated_at", "DATETIME(6)")));
+        // Legacy teams hold all three formats in one row; they become the Test rows.
+        V1.put("teams", List.of(
+                Column.required("name", "VARCHAR(255)", "''"),
+                Column.required("flag", "VARCHAR(255)", "''"),
+                Column.required("ranking", "INT", "test_ranking", "0"),
+                Column.required("points", "INT", "test_points", "0"),
+                Column.required("format", "VARCHAR(255)", "'Test'"),
+                Column.nullable("matches_played", "INT"),
+                Column.nullable("matches_won", "INT"),
+                Column.nullable("matches_lost", "INT"),
+                Column.nullable("matches_drawn", "INT"),
+                Column.nullable("created_at", "DATETIME(6)"),
+                Column.nullable("updated_at", "DATETIME(6)")));
+        V1.put("tournaments", List.of(
+                Column.required("name", "VARCHAR(255)", "''"),
+                Column.required("status", "VARCHAR(255)", "''"),
+                Column.required("start_date", "DATETIME(6)", "CURRENT_TIMESTAMP"),
+                Column.nullable("end_date", "DATETIME(6)"),
+                Column.required("location", "VARCHAR(255)", "''"),
+                Column.required("teams", "INT", "0"),
+                Column.nullable("description", "TEXT"),
+                Column.nullable("prize_money", "VARCHAR(255)"),
+                Column.nullable("created_at", "DATETIME(6)"),
+                Column.nullable("updated_at", "DATETIME(6)")));
+    }
+
+    /** Created by the legacy script; V2 indexes the same queries, and idx_news_published would clash with it. */
+    private static final Map<String, String> LEGACY_INDEXES = Map.ofEntries(
+            Map.entry("idx_matches_status", "matches"),
+            Map.entry("idx_matches_date", "matches"),
+            Map.entry("idx_matches_format", "matches"),
+            Map.entry("idx_news_category", "news_articles"),
+            Map.entry("idx_news_published", "news_articles"),
+            Map.entry("idx_news_featured", "news_articles"),
+            Map.entry("idx_players_country", "players"),
+            Map.entry("idx_players_featured", "players"),
+            Map.entry("idx_teams_ranking", "teams"),
+            Map.entry("idx_tournaments_status", "tournaments"),
+            Map.entry("idx_tournaments_date", "tournaments"));
+
+    private static final Map<String, String> V1_INDEXES = Map.of(
+            "idx_matches_start_time", "matches (start_time)",
+            "idx_tournaments_start_date", "tournaments (start_date)");
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("1.1");
+    }
+
+    @Override
+    public String getDescription() {
+        return "legacy schema upgrade";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        DatabaseMetaData metaData = connection.getMetaData();
+        Map<String, Set<String>> columns = new LinkedHashMap<>();
+        for (String table : V1.keySet()) {
+            Set<String> names = columns(metaData, connection, table);
+            if (names.isEmpty()) {
+                throw new IllegalStateException("Table " + table + " is missing; the schema is neither V1 nor legacy");
+            }
+            columns.put(table, names);
+        }
+        boolean legacy = columns.get("matches").contains("match_status")
+                || V1.entrySet().stream().anyMatch(table -> table.getValue().stream()
+                        .anyMatch(column -> !columns.get(table.getKey()).contains(column.name())));
+
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> index : LEGACY_INDEXES.entrySet()) {
+                if (indexes(metaData, connection, index.getValue()).contains(index.getKey())) {
+                    statement.execute("DROP INDEX " + index.getKey() + " ON " + index.getValue());
+                }
+            }
+            if (legacy) {
+                log.info("Upgrading legacy schema to V1");
+                statement.execute("DELETE FROM match_current_batsmen WHERE match_id IS NULL");
+                for (Map.Entry<String, List<Column>> table : V1.entrySet()) {
+                    Set<String> existing = columns.get(table.getKey());
+                    for (Column column : table.getValue()) {
+                        upgrade(statement, table.getKey(), existing, column);
+                    }
+                }
+            }
+            // Also missing from schemas that Hibernate's ddl-auto created.
+            for (Map.Entry<String, String> index : V1_INDEXES.entrySet()) {
+                String table = index.getValue().substring(0, index.getValue().indexOf(' '));
+                if (!indexes(metaData, connection, table).contains(index.getKey())) {
+                    statement.execute("CREATE INDEX " + index.getKey() + " ON " + index.getValue());
+                }
+            }
+        }
+    }
+
+    private static void upgrade(Statement statement, String table, Set<String> existing, Column column)
+            throws SQLException {
+        if (!existing.contains(column.name())) {
+            statement.execute("ALTER TABLE " + table + " ADD COLUMN " + column.name() + " " + column.type());
+            if (column.from() != null && existing.contains(column.from())) {
+                statement.execute("UPDATE " + table + " SET " + column.name() + " = " + column.copyExpression());
+            }
+        }
+        if (column.notNull() && column.fill() != null) {
+            statement.execute("UPDATE " + table + " SET " + column.name() + " = " + column.fill()
+                    + " WHERE " + column.name() + " IS NULL");
+        }
+        statement.execute("ALTER TABLE " + table + " MODIFY COLUMN " + column.name() + " " + column.definition());
+    }
+
+    private static Set<String> columns(DatabaseMetaData metaData, Connection connection, String table)
+            throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (ResultSet rs = metaData.getColumns(connection.getCatalog(), connection.getSchema(), table, null)) {
+            while (rs.next()) {
+                names.add(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+            }
+        }
+        return names;
+    }
+
+    private static Set<String> indexes(DatabaseMetaData metaData, Connection connection, String table)
+            throws SQLException {
+        Set<String> names = new HashSet<>();
+        try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, false)) {
+            while (rs.next()) {
+                String name = rs.getString("INDEX_NAME");
+                if (name != null) {
+                    names.add(name.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
+}
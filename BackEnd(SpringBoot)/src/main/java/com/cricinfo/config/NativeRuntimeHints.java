@@ -0,0 +1,49 @@
+package com.cricinfo.config;
+
+import com.cricinfo.engine.MatchDimension;
+import com.cricinfo.engine.PlayerDimension;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reflection hints for the native image (see the native profile in pom.xml).
+ * Spring AOT already covers bean wiring, repositories and JPA metadata, but
+ * not everything Jackson touches: entities also go out inside maps, change
+ * feed payloads and the CBOR/Smile encoders, and DTOs are nested in other
+ * DTOs. Registering every entity and DTO for binding keeps the Lombok
+ * accessors and the {@code @JsonFormat}/{@code @JsonRawValue} annotations
+ * visible at runtime.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String[] BINDING_PACKAGES = {"com.cricinfo.entity", "com.cricinfo.dto"};
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                bindingTypes(classLoader).toArray(new Class<?>[0]));
+        // Analytics resolves dimension names through Enum.valueOf and getEnumConstants.
+        hints.reflection().registerType(MatchDimension.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(PlayerDimension.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+
+    private static List<Class<?>> bindingTypes(ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((reader, factory) -> true);
+        List<Class<?>> types = new ArrayList<>();
+        for (String basePackage : BINDING_PACKAGES) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                types.add(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+            }
+        }
+        return types;
+    }
+}
@@ -0,0 +1,141 @@
+package com.cricinfo.config;
+
+import com.cricinfo.service.CompressionService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Serves brotli, zstd or gzip, whichever the client's Accept-Encoding weighs
+ * highest, from {@link CompressionService}'s cache for GETs of frequently
+ * repeated responses. Only the configured paths are buffered here;
+ * everything else, notably the large lists, is left to the connector's
+ * streaming compression ({@code server.compression.*}), which sees the
+ * Content-Encoding set here and leaves these responses alone.
+ */
+@Component
+public class PrecompressedResponseFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    @Autowired
+    private CompressionService compressionService;
+
+    @Value("${cricinfo.compression.cached-paths:/api/home,/api/news/featured,/api/news/trending,/api/teams/**}")
+    private List<String> cachedPaths;
+
+    @Value("${server.compression.min-response-size:2KB}")
+    private DataSize minResponseSize;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod()) || encoding(request) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : cachedPaths) {
+            if (matcher.match(pattern, path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, wrapper);
+        byte[] body = wrapper.getContentAsByteArray();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || body.length < minResponseSize.toBytes()
+                || wrapper.getHeader(HttpHeaders.CONTENT_ENCODING) != null || !isCacheable(wrapper)) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        String etag = wrapper.getHeader(HttpHeaders.ETAG);
+        // The same ETag covers every representation of the resource, so the key names the one sent.
+        String key = etag == null ? null
+                : request.getRequestURI() + '?' + request.getQueryString() + '|' + wrapper.getContentType() + '|' + etag;
+        String encoding = encoding(request);
+        byte[] compressed = compressionService.compressCached(encoding, key, body);
+        wrapper.resetBuffer();
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setContentLength(compressed.length);
+        response.getOutputStream().write(compressed);
+    }
+
+    private static boolean isCacheable(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        if (contentType == null || contentType.startsWith("image/")) {
+            return false;
+        }
+        String cacheControl = response.getHeader(HttpHeaders.CACHE_CONTROL);
+        return cacheControl == null || !cacheControl.contains("no-store");
+    }
+
+    private String encoding(HttpServletRequest request) {
+        return negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING), compressionService.getEncodings());
+    }
+
+    /**
+     * The encoding in {@code offered} the client weighs highest, earlier
+     * entries winning ties, or null when it accepts none of them. A coding not
+     * named falls under {@code *}; q=0 refuses it. An entry with an unreadable
+     * q-value is ignored rather than failing the request.
+     */
+    static String negotiate(String acceptEncoding, List<String> offered) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        Map<String, Double> weights = new HashMap<>();
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] pieces = part.trim().split(";");
+            double q = 1;
+            for (int i = 1; i < pieces.length; i++) {
+                String parameter = pieces[i].trim();
+                if (parameter.startsWith("q=")) {
+                    q = quality(parameter.substring(2).trim());
+                }
+            }
+            if (!Double.isNaN(q)) {
+                weights.merge(pieces[0].trim(), q, Math::max);
+            }
+        }
+        String best = null;
+        double bestWeight = 0;
+        for (String encoding : offered) {
+            double weight = weights.getOrDefault(encoding, weights.getOrDefault("*", 0.0));
+            if (weight > bestWeight) {
+                best = encoding;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    // NaN for anything that is not a number from 0 to 1.
+    private static double quality(String value) {
+        try {
+            double q = Double.parseDouble(value);
+            return q >= 0 && q <= 1 ? q : Double.NaN;
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
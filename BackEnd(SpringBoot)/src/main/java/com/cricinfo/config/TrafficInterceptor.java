@@ -0,0 +1,161 @@
+package com.cricinfo.config;
+
+import com.cricinfo.engine.TokenBucket;
+import com.cricinfo.service.LoadMonitor;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies per-client, per-{@link EndpointClass} token buckets and sheds cheap-to-reject
+ * requests while {@link LoadMonitor} reports overload. Rate-limited requests
+ * get 429, shed requests get 503; both carry a Retry-After header.
+ *
+ * <p>Clients are keyed by remote address. Behind a proxy that address comes
+ * from X-Forwarded-For only when the proxy is listed in
+ * {@code server.tomcat.remoteip.internal-proxies}, so a client cannot pick its
+ * own key. Once {@code max-buckets} clients are tracked, new ones share one
+ * overflow bucket per endpoint class until idle buckets are swept.
+ */
+@Component
+public class TrafficInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = TrafficInterceptor.class.getName() + ".start";
+    private static final String OVERFLOW_CLIENT = "overflow";
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    @Autowired
+    private TrafficProperties properties;
+
+    @Autowired
+    private LoadMonitor loadMonitor;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder overflowed = new LongAdder();
+
+    private final Map<EndpointClass, LongAdder> rateLimited = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, LongAdder> shed = new EnumMap<>(EndpointClass.class);
+
+    public TrafficInterceptor() {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            rateLimited.put(endpointClass, new LongAdder());
+            shed.put(endpointClass, new LongAdder());
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // Redispatch of a long-poll that was already admitted; time only the result rendering.
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+            return true;
+        }
+        if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+            // CORS preflights are answered without touching a handler. Counting them against the write
+            // bucket would turn the browser's real request into a CORS failure on a 429 without CORS headers.
+            return true;
+        }
+        EndpointClass endpointClass = EndpointClass.of(request);
+
+        if (shouldShed(endpointClass)) {
+            shed.get(endpointClass).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return false;
+        }
+
+        TrafficProperties.Limit limit = properties.getLimits().get(endpointClass);
+        if (properties.isRateLimitEnabled() && limit != null) {
+            TokenBucket bucket = bucketFor(request.getRemoteAddr(), endpointClass, limit);
+            long waitNanos = bucket.tryAcquire();
+            if (waitNanos > 0) {
+                rateLimited.get(endpointClass).increment();
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+                return false;
+            }
+        }
+
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start instanceof Long startNanos) {
+            loadMonitor.recordLatency(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+
+    private boolean shouldShed(EndpointClass endpointClass) {
+        int level = loadMonitor.getSheddingLevel();
+        return switch (endpointClass) {
+            case SEARCH -> level >= 1;
+            case READ -> level >= 2;
+            default -> false;
+        };
+    }
+
+    private TokenBucket bucketFor(String client, EndpointClass endpointClass, TrafficProperties.Limit limit) {
+        String key = client + '|' + endpointClass;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getMaxBuckets()) {
+            long last = lastSweepNanos.get();
+            long now = System.nanoTime();
+            if (now - last > SWEEP_INTERVAL_NANOS && lastSweepNanos.compareAndSet(last, now)) {
+                evictIdleBuckets();
+            }
+            if (buckets.size() >= properties.getMaxBuckets()) {
+                overflowed.increment();
+                key = OVERFLOW_CLIENT + '|' + endpointClass;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(limit.getRatePerSecond(), limit.getBurst()));
+    }
+
+    public Map<EndpointClass, Long> getRateLimitedCounts() {
+        Map<EndpointClass, Long> counts = new EnumMap<>(EndpointClass.class);
+        rateLimited.forEach((endpointClass, count) -> counts.put(endpointClass, count.sum()));
+        return counts;
+    }
+
+    public Map<EndpointClass, Long> getShedCounts() {
+        Map<EndpointClass, Long> counts = new EnumMap<>(EndpointClass.class);
+        shed.forEach((endpointClass, count) -> counts.put(endpointClass, count.sum()));
+        return counts;
+    }
+
+    public int getActiveBuckets() {
+        return buckets.size();
+    }
+
+    // Requests that fell back to a shared bucket because the map was full.
+    public long getOverflowedCount() {
+        return overflowed.sum();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleBuckets() {
+        buckets.values().removeIf(TokenBucket::isIdle);
+    }
+}
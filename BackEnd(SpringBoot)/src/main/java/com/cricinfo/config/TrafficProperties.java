@@ -0,0 +1,42 @@
+package com.cricinfo.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "cricinfo.traffic")
+public class TrafficProperties {
+
+    private boolean rateLimitEnabled = true;
+
+    private Map<EndpointClass, Limit> limits = new EnumMap<>(Map.of(
+            EndpointClass.LIVE, new Limit(20, 40),
+            EndpointClass.READ, new Limit(10, 20),
+            EndpointClass.SEARCH, new Limit(2, 5),
+            EndpointClass.WRITE, new Limit(1, 5)));
+
+    // Clients tracked at once; beyond this new clients share an overflow bucket.
+    private int maxBuckets = 100_000;
+
+    private boolean sheddingEnabled = true;
+
+    // Above these, searches are shed; at twice these, plain reads are shed too.
+    private long p99ThresholdMillis = 500;
+
+    private int poolWaitThreshold = 5;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private double ratePerSecond;
+        private int burst;
+    }
+}
@@ -0,0 +1,36 @@
+package com.cricinfo.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private TrafficInterceptor trafficInterceptor;
+
+    @Autowired
+    @Qualifier("streamExecutor")
+    private ThreadPoolTaskExecutor streamExecutor;
+
+    @Value("${cricinfo.streaming.timeout-ms:120000}")
+    private long streamTimeoutMs;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(trafficInterceptor).addPathPatterns("/api/**");
+    }
+
+    // Streamed responses are written on these threads; the change feed sets its own timeouts.
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamExecutor);
+        configurer.setDefaultTimeout(streamTimeoutMs);
+    }
+}
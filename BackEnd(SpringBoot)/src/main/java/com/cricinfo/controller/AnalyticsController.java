@@ -0,0 +1,89 @@
+package com.cricinfo.controller;
+
+import com.cricinfo.dto.MatchAggregate;
+import com.cricinfo.dto.PlayerAggregate;
+import com.cricinfo.engine.MatchDimension;
+import com.cricinfo.engine.PlayerDimension;
+import com.cricinfo.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Group-by queries over the analytics tables. {@code groupBy} takes a comma
+ * separated list of dimensions; every other parameter named after a dimension
+ * (e.g. {@code format=ODI}, {@code batting_first=India}) is an equality filter.
+ * Match queries default to {@code stage=COMPLETED}; pass {@code stage=all} to
+ * include live and upcoming fixtures.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    private static final String GROUP_BY = "groupBy";
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @GetMapping("/matches")
+    public ResponseEntity<List<MatchAggregate>> aggregateMatches(@RequestParam Map<String, String> params) {
+        try {
+            List<MatchDimension> groupBy = parseGroupBy(MatchDimension.class, params.get(GROUP_BY));
+            Map<MatchDimension, String> filters = parseFilters(MatchDimension.class, params);
+            String stage = filters.get(MatchDimension.STAGE);
+            if (stage == null) {
+                filters.put(MatchDimension.STAGE, "COMPLETED");
+            } else if (stage.equalsIgnoreCase("all")) {
+                filters.remove(MatchDimension.STAGE);
+            }
+            return ResponseEntity.ok(analyticsService.aggregateMatches(groupBy, filters));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/players")
+    public ResponseEntity<List<PlayerAggregate>> aggregatePlayers(@RequestParam Map<String, String> params) {
+        try {
+            List<PlayerDimension> groupBy = parseGroupBy(PlayerDimension.class, params.get(GROUP_BY));
+            Map<PlayerDimension, String> filters = parseFilters(PlayerDimension.class, params);
+            return ResponseEntity.ok(analyticsService.aggregatePlayers(groupBy, filters));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static <D extends Enum<D>> List<D> parseGroupBy(Class<D> type, String value) {
+        List<D> groupBy = new ArrayList<>();
+        if (value != null && !value.isBlank()) {
+            for (String name : value.split(",")) {
+                D dimension = dimension(type, name);
+                if (!groupBy.contains(dimension)) {
+                    groupBy.add(dimension);
+                }
+            }
+        }
+        return groupBy;
+    }
+
+    private static <D extends Enum<D>> Map<D, String> parseFilters(Class<D> type, Map<String, String> params) {
+        Map<D, String> filters = new EnumMap<>(type);
+        params.forEach((name, value) -> {
+            if (!GROUP_BY.equals(name)) {
+                filters.put(dimension(type, name), value);
+            }
+        });
+        return filters;
+    }
+
+    private static <D extends Enum<D>> D dimension(Class<D> type, String name) {
+        return Enum.valueOf(type, name.trim().replaceAll("([a-z])([A-Z])", "$1_$2").replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+}
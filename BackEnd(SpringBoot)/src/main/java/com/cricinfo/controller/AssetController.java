@@ -0,0 +1,94 @@
+package com.cricinfo.controller;
+
+import com.cricinfo.dto.AssetInfo;
+import com.cricinfo.service.AssetService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/assets")
+@CrossOrigin(origins = "*")
+public class AssetController {
+
+    // Tomcat's NIO connector sends the file with FileChannel.transferTo straight to the socket.
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    @Autowired
+    private AssetService assetService;
+
+    @PostMapping
+    public ResponseEntity<AssetInfo> uploadAsset(@RequestParam("file") MultipartFile file) throws IOException {
+        try {
+            AssetInfo asset = assetService.store(file.getBytes());
+            return ResponseEntity.created(URI.create(asset.getUrl())).body(asset);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build();
+        }
+    }
+
+    @GetMapping("/{name}")
+    public void getAsset(@PathVariable String name,
+                         @RequestParam(required = false) Integer w,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        if (w != null && w <= 0) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        Optional<AssetService.Asset> found = assetService.open(name, w);
+        if (found.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        AssetService.Asset asset = found.get();
+        response.setHeader(HttpHeaders.ETAG, asset.getEtag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(asset.getEtag()) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        response.setContentType(asset.getContentType());
+        response.setContentLengthLong(asset.getSize());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (asset.getContentType().equals("image/svg+xml")) {
+            // Uploaded SVG may carry script; it must never run in our origin.
+            response.setHeader("Content-Security-Policy", "default-src 'none'; style-src 'unsafe-inline'");
+        }
+        if ("HEAD".equalsIgnoreCase(request.getMethod())) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, asset.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, asset.getSize());
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(asset.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < asset.getSize()) {
+                position += channel.transferTo(position, asset.getSize() - position, out);
+            }
+        }
+    }
+}
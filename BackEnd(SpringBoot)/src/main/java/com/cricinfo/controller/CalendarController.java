@@ -0,0 +1,54 @@
+package com.cricinfo.controller;
+
+import com.cricinfo.dto.CalendarDay;
+import com.cricinfo.service.CalendarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/calendar")
+@CrossOrigin(origins = "*")
+public class CalendarController {
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @GetMapping("/today")
+    public ResponseEntity<CalendarDay> getToday() {
+        return ResponseEntity.ok(calendarService.getToday());
+    }
+
+    @GetMapping("/day/{date}")
+    public ResponseEntity<CalendarDay> getDay(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(calendarService.getDay(date));
+    }
+
+    @GetMapping("/week")
+    public ResponseEntity<List<CalendarDay>> getWeek(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            List<CalendarDay> week = calendarService.getWeek(date != null ? date : LocalDate.now());
+            return ResponseEntity.ok(week);
+        } catch (DateTimeException e) {
+            // The week around LocalDate.MAX runs past the supported range.
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/month")
+    public ResponseEntity<List<CalendarDay>> getMonth(@RequestParam int year, @RequestParam int month) {
+        if (year < Year.MIN_VALUE || year > Year.MAX_VALUE || month < 1 || month > 12) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<CalendarDay> days = calendarService.getMonth(YearMonth.of(year, month));
+        return ResponseEntity.ok(days);
+    }
+}
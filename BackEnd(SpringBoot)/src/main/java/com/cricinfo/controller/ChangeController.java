@@ -0,0 +1,64 @@
+package com.cricinfo.controller;
+
+import com.cricinfo.dto.ChangeBatch;
+import com.cricinfo.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+
+/**
+ * Incremental change feed. Consumers start at {@code since=0} and pass back
+ * {@code nextCursor}; when nothing is new the request is held open for up to
+ * {@code waitMs} and answered as soon as a change is relayed. A cursor whose
+ * changes have been purged gets 410 Gone: the consumer should reload its data
+ * and continue from the {@code nextCursor} of that response.
+ */
+@RestController
+@RequestMapping("/api/changes")
+@CrossOrigin(origins = "*")
+public class ChangeController {
+
+    private static final int MAX_LIMIT = 500;
+    private static final long MAX_WAIT_MS = 30_000;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @GetMapping
+    public DeferredResult<ResponseEntity<ChangeBatch>> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                                  @RequestParam(defaultValue = "100") int limit,
+                                                                  @RequestParam(defaultValue = "25000") long waitMs) {
+        long wait = Math.min(Math.max(waitMs, 0), MAX_WAIT_MS);
+        DeferredResult<ResponseEntity<ChangeBatch>> result = new DeferredResult<>(wait > 0 ? wait : null,
+                () -> ResponseEntity.ok(new ChangeBatch(List.of(), since, false)));
+        if (since < 0 || limit < 1) {
+            result.setResult(ResponseEntity.badRequest().build());
+            return result;
+        }
+        if (changeFeedService.isExpired(since)) {
+            result.setResult(ResponseEntity.status(HttpStatus.GONE)
+                    .body(new ChangeBatch(List.of(), changeFeedService.getCursor(), false)));
+            return result;
+        }
+        int size = Math.min(limit, MAX_LIMIT);
+        ChangeBatch batch = changeFeedService.read(since, size);
+        if (!batch.getChanges().isEmpty() || wait == 0) {
+            result.setResult(ResponseEntity.ok(batch));
+            return result;
+        }
+        Runnable cancel = changeFeedService.await(since, size, next -> result.setResult(ResponseEntity.ok(next)));
+        if (cancel == null) {
+            result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .<ChangeBatch>build());
+            return result;
+        }
+        result.onCompletion(cancel);
+        return result;
+    }
+}
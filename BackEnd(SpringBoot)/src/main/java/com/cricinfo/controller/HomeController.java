@@ -0,0 +1,41 @@
+package com.cricinfo.controller;
+
+import com.cricinfo.dto.HomePage;
+import com.cricinfo.service.HomeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/home")
+@CrossOrigin(origins = "*")
+public class HomeController {
+
+    @Autowired
+    private HomeService homeService;
+
+    @Value("${cricinfo.home.ttl-ms:5000}")
+    private long ttlMillis;
+
+    @GetMapping
+    public ResponseEntity<HomePage> getHomePage(WebRequest request) {
+        HomePage page = homeService.getHomePage();
+        if (page.isDegraded()) {
+            // Missing sections should be retried, not cached by clients or revalidated against.
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(page);
+        }
+        String etag = "\"home-" + page.getEtag() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(ttlMillis, TimeUnit.MILLISECONDS).cachePublic())
+                .eTag(etag)
+                .body(page);
+    }
+}
@@ -0,0 +1,79 @@
+package com.cricinfo.controller;
+
+import com.cricinfo.dto.JobRequest;
+import com.cricinfo.entity.JobRecord;
+import com.cricinfo.service.JobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Background jobs. Submitting answers 202 with the job's URL at once; poll it
+ * for status and progress.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*")
+public class JobController {
+
+    private static final int MAX_LIMIT = 200;
+
+    @Autowired
+    private JobService jobService;
+
+    @PostMapping
+    public ResponseEntity<?> submitJob(@RequestBody JobRequest request) {
+        try {
+            JobRecord job = jobService.submit(request.getType(), request.getPriority(), request.getParams());
+            return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getId())).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (JobService.QueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<JobRecord>> getJobs(@RequestParam(required = false) String status,
+                                                   @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(jobService.getJobs(status, limit));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<JobRecord> getJob(@PathVariable Long id) {
+        return jobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /** 409 when the job had already finished. */
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<JobRecord> cancelJob(@PathVariable Long id) {
+        Optional<JobRecord> job = jobService.cancel(id);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String status = job.get().getStatus();
+        if (JobService.SUCCEEDED.equals(status) || JobService.FAILED.equals(status)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job.get());
+        }
+        return ResponseEntity.ok(job.get());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(jobService.getStats());
+    }
+}
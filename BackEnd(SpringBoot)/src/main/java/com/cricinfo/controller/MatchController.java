@@ -1,13 +1,23 @@
 package com.cricinfo.controller;
 
+import com.cricinfo.dto.MatchProjection;
+import com.cricinfo.dto.ScoreboardDelta;
 import com.cricinfo.entity.Match;
+import com.cricinfo.entity.ScorecardEntry;
+import com.cricinfo.service.ListStreamer;
 import com.cricinfo.service.MatchService;
+import com.cricinfo.service.ScorecardService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -19,10 +29,22 @@ public class MatchController {
     @Autowired
     private MatchService matchService;
 
+    @Autowired
+    private ScorecardService scorecardService;
+
+    @Autowired
+    private ListStreamer listStreamer;
+
     @GetMapping
-    public ResponseEntity<List<Match>> getAllMatches() {
-        List<Match> matches = matchService.getAllMatches();
-        return ResponseEntity.ok(matches);
+    public ResponseEntity<StreamingResponseBody> getAllMatches(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType mediaType = listStreamer.negotiate(accept);
+        if (mediaType == null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(listStreamer.stream(mediaType, Match.class, matchService::streamAllMatches));
     }
 // tick
     @GetMapping("/{id}")
@@ -31,6 +53,42 @@ public class MatchController {
         return match.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @GetMapping("/{id}/projection")
+    public ResponseEntity<MatchProjection> getMatchProjection(@PathVariable Long id) {
+        Optional<MatchProjection> projection = matchService.getMatchProjection(id);
+        return projection.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/scoreboard")
+    public ResponseEntity<ScoreboardDelta> getScoreboard(@PathVariable Long id,
+                                                         @RequestParam(required = false) Long since) {
+        Optional<ScoreboardDelta> scoreboard = matchService.getScoreboard(id, since);
+        return scoreboard.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/scorecard")
+    public ResponseEntity<List<ScorecardEntry>> getScorecard(@PathVariable Long id) {
+        return ResponseEntity.ok(scorecardService.getScorecard(id));
+    }
+
+    @PutMapping("/{id}/scorecard")
+    public ResponseEntity<?> replaceScorecard(@PathVariable Long id, @RequestBody List<ScorecardEntry> entries) {
+        for (ScorecardEntry entry : entries) {
+            if (entry.getPlayerId() == null || entry.getTeam() == null) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        try {
+            Optional<List<ScorecardEntry>> saved = scorecardService.replaceScorecard(id, entries);
+            return saved.<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 // not giving any answer but running
     @GetMapping("/live")
     public ResponseEntity<List<Match>> getLiveMatches() {
@@ -51,8 +109,25 @@ public class MatchController {
     }
 // tick
     @GetMapping("/team/{teamName}")
-    public ResponseEntity<List<Match>> getMatchesByTeam(@PathVariable String teamName) {
-        List<Match> matches = matchService.getMatchesByTeam(teamName);
+    public ResponseEntity<List<Match>> getMatchesByTeam(@PathVariable String teamName,
+                                                        @RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Match> matches = matchService.getMatchesByTeam(teamName, page, Math.min(size, 200));
+        return ResponseEntity.ok(matches);
+    }
+
+    @GetMapping("/head-to-head")
+    public ResponseEntity<List<Match>> getHeadToHead(@RequestParam String team1,
+                                                     @RequestParam String team2,
+                                                     @RequestParam(defaultValue = "0") int page,
+                                                     @RequestParam(defaultValue = "50") int size) {
+        if (page < 0 || size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Match> matches = matchService.getHeadToHead(team1, team2, page, Math.min(size, 200));
         return ResponseEntity.ok(matches);
     }
 // tick
@@ -1,12 +1,21 @@
 package com.cricinfo.controller;
 
+import com.cricinfo.dto.RelatedContent;
+import com.cricinfo.dto.TrendingArticle;
 import com.cricinfo.entity.NewsArticle;
+import com.cricinfo.service.ListStreamer;
 import com.cricinfo.service.NewsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -18,10 +27,26 @@ public class NewsController {
     @Autowired
     private NewsService newsService;
 
+    @Autowired
+    private ListStreamer listStreamer;
+
+    // Each category keeps only this many ranked articles.
+    @Value("${cricinfo.trending.top-k:50}")
+    private int trendingTopK;
+
+    @Value("${cricinfo.related.max-limit:20}")
+    private int relatedMaxLimit;
+
     @GetMapping
-    public ResponseEntity<List<NewsArticle>> getAllNews() {
-        List<NewsArticle> news = newsService.getAllNews();
-        return ResponseEntity.ok(news);
+    public ResponseEntity<StreamingResponseBody> getAllNews(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType mediaType = listStreamer.negotiate(accept);
+        if (mediaType == null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(listStreamer.stream(mediaType, NewsArticle.class, newsService::streamAllNews));
     }
 // tick
     @GetMapping("/{id}")
@@ -30,12 +55,32 @@ public class NewsController {
         return news.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @GetMapping("/{id}/related")
+    public ResponseEntity<RelatedContent> getRelatedContent(@PathVariable Long id,
+                                                            @RequestParam(defaultValue = "5") int limit) {
+        if (limit < 1 || limit > relatedMaxLimit) {
+            return ResponseEntity.badRequest().build();
+        }
+        return newsService.getRelatedContent(id, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 // tick
     @GetMapping("/featured")
     public ResponseEntity<List<NewsArticle>> getFeaturedNews() {
         List<NewsArticle> featuredNews = newsService.getFeaturedNews();
         return ResponseEntity.ok(featuredNews);
     }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingArticle>> getTrendingNews(@RequestParam(required = false) String category,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > trendingTopK) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(newsService.getTrendingNews(category, limit));
+    }
     // tick
     @GetMapping("/category/{category}")
     public ResponseEntity<List<NewsArticle>> getNewsByCategory(@PathVariable String category) {
@@ -87,9 +132,9 @@ public class NewsController {
     }
 // tick
     @PutMapping("/{id}/views")
-    public ResponseEntity<NewsArticle> incrementViews(@PathVariable Long id) {
-        Optional<NewsArticle> updatedNews = newsService.incrementViews(id);
-        return updatedNews.map(ResponseEntity::ok)
+    public ResponseEntity<Map<String, Long>> incrementViews(@PathVariable Long id) {
+        Optional<Long> views = newsService.incrementViews(id);
+        return views.map(count -> ResponseEntity.ok(Map.of("id", id, "views", count)))
                 .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -1,10 +1,17 @@
 package com.cricinfo.controller;
 
+import com.cricinfo.dto.PlayerCareerStats;
 import com.cricinfo.entity.Player;
+import com.cricinfo.service.ListStreamer;
 import com.cricinfo.service.PlayerService;
+import com.cricinfo.service.PlayerStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,11 +24,23 @@ public class PlayerController {
 
     @Autowired
     private PlayerService playerService;
+
+    @Autowired
+    private ListStreamer listStreamer;
+
+    @Autowired
+    private PlayerStatsService playerStatsService;
     // tick
     @GetMapping
-    public ResponseEntity<List<Player>> getAllPlayers() {
-        List<Player> players = playerService.getAllPlayers();
-        return ResponseEntity.ok(players);
+    public ResponseEntity<StreamingResponseBody> getAllPlayers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType mediaType = listStreamer.negotiate(accept);
+        if (mediaType == null) {
+            return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(listStreamer.stream(mediaType, Player.class, playerService::streamAllPlayers));
     }
 // tick
     @GetMapping("/{id}")
@@ -30,6 +49,15 @@ public class PlayerController {
         return player.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<List<PlayerCareerStats>> getPlayerStats(@PathVariable Long id,
+                                                                  @RequestParam(required = false) String format,
+                                                                  @RequestParam(required = false) String opponent,
+                                                                  @RequestParam(required = false) String venue,
+                                                                  @RequestParam(required = false) Integer year) {
+        return ResponseEntity.ok(playerStatsService.getStats(id, format, opponent, venue, year));
+    }
 // tick
     @GetMapping("/spotlight")
     public ResponseEntity<List<Player>> getSpotlightPlayers() {
@@ -0,0 +1,43 @@
+package com.cricinfo.controller;
+
+import com.cricinfo.dto.SearchResponse;
+import com.cricinfo.dto.Suggestion;
+import com.cricinfo.service.SearchService;
+import com.cricinfo.service.TypeaheadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    @Autowired
+    private TypeaheadService typeaheadService;
+
+    @Autowired
+    private SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<SearchResponse> search(@RequestParam String q,
+                                                 @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank() || limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        SearchResponse response = searchService.search(q, Math.min(limit, 100));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(@RequestParam String q,
+                                                    @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Suggestion> suggestions = typeaheadService.suggest(q, Math.min(limit, 50));
+        return ResponseEntity.ok(suggestions);
+    }
+}
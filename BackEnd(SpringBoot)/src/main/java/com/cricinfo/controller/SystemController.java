@@ -0,0 +1,124 @@
+package com.cricinfo.controller;
+
+import com.cricinfo.config.TrafficInterceptor;
+import com.cricinfo.dto.SingleFlightStats;
+import com.cricinfo.dto.TrafficStats;
+import com.cricinfo.entity.JobRecord;
+import com.cricinfo.service.ClusterInvalidationService;
+import com.cricinfo.service.CompressionService;
+import com.cricinfo.service.JobService;
+import com.cricinfo.service.LoadMonitor;
+import com.cricinfo.service.MaintenanceJobs;
+import com.cricinfo.service.NewsArchiveService;
+import com.cricinfo.service.SingleFlight;
+import com.cricinfo.service.StartupService;
+import com.cricinfo.service.StatusScheduler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/system")
+@CrossOrigin(origins = "*")
+public class SystemController {
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private TrafficInterceptor trafficInterceptor;
+
+    @Autowired
+    private LoadMonitor loadMonitor;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private NewsArchiveService newsArchiveService;
+
+    @Autowired
+    private CompressionService compressionService;
+
+    @Autowired
+    private StatusScheduler statusScheduler;
+
+    @Autowired
+    private ClusterInvalidationService clusterInvalidationService;
+
+    @Autowired
+    private StartupService startupService;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @GetMapping("/single-flight")
+    public ResponseEntity<SingleFlightStats> getSingleFlightStats() {
+        return ResponseEntity.ok(singleFlight.getStats());
+    }
+
+    @GetMapping("/traffic")
+    public ResponseEntity<TrafficStats> getTrafficStats() {
+        TrafficStats stats = new TrafficStats(loadMonitor.getSheddingLevel(), loadMonitor.getP99Millis(),
+                loadMonitor.getPoolWaiters(), trafficInterceptor.getActiveBuckets(), trafficInterceptor.getOverflowedCount(),
+                trafficInterceptor.getRateLimitedCounts(), trafficInterceptor.getShedCounts());
+        return ResponseEntity.ok(stats);
+    }
+
+    /** Runs as a background job; poll the returned job for the outcome. */
+    @PostMapping("/player-stats/recompute")
+    public ResponseEntity<JobRecord> recomputePlayerStats() {
+        try {
+            JobRecord job = jobService.submit(MaintenanceJobs.PLAYER_STATS, "HIGH", Map.of());
+            return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getId())).body(job);
+        } catch (JobService.QueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+    }
+
+    @GetMapping("/status-scheduler")
+    public ResponseEntity<Map<String, Long>> getStatusSchedulerStats() {
+        return ResponseEntity.ok(Map.of("pending", (long) statusScheduler.getPendingCount(),
+                "applied", statusScheduler.getAppliedCount()));
+    }
+
+    @GetMapping("/invalidation")
+    public ResponseEntity<Map<String, Object>> getInvalidationStats() {
+        return ResponseEntity.ok(clusterInvalidationService.getStats());
+    }
+
+    @GetMapping("/archive")
+    public ResponseEntity<Map<String, Object>> getArchiveStats() {
+        return ResponseEntity.ok(newsArchiveService.getStats());
+    }
+
+    @GetMapping("/compression")
+    public ResponseEntity<Map<String, Object>> getCompressionStats() {
+        return ResponseEntity.ok(compressionService.getStats());
+    }
+
+    @GetMapping("/startup")
+    public ResponseEntity<Map<String, Object>> getStartupStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("readiness", applicationAvailability.getReadinessState());
+        stats.put("readyAtMillis", startupService.getReadyAtMillis());
+        stats.put("phases", startupService.getPhases());
+        return ResponseEntity.ok(stats);
+    }
+
+    /** Readiness probe: 503 until the startup warm-up has finished. */
+    @GetMapping("/readiness")
+    public ResponseEntity<ReadinessState> getReadiness() {
+        ReadinessState state = applicationAvailability.getReadinessState();
+        HttpStatus status = state == ReadinessState.ACCEPTING_TRAFFIC ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(state);
+    }
+}
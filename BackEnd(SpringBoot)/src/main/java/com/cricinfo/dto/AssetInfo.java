@@ -0,0 +1,20 @@
+package com.cricinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetInfo {
+    // SHA-256 of the original bytes, hex encoded.
+    private String hash;
+    // Use as imageUrl / flag; append ?w= for a resized variant.
+    private String url;
+    private String contentType;
+    private Long bytes;
+    // Null for SVG.
+    private Integer width;
+    private Integer height;
+}
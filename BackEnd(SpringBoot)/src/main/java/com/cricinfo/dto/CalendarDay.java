@@ -0,0 +1,21 @@
+package com.cricinfo.dto;
+
+import com.cricinfo.entity.Match;
+import com.cricinfo.entity.Tournament;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarDay {
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate date;
+    private List<Match> matches;
+    private List<Tournament> tournaments;
+}
@@ -0,0 +1,19 @@
+package com.cricinfo.dto;
+
+import com.cricinfo.entity.ChangeRecord;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeBatch {
+    private List<ChangeRecord> changes;
+    // Pass as ?since= on the next call.
+    private Long nextCursor;
+    // More changes are already available beyond this batch.
+    private Boolean hasMore;
+}
@@ -0,0 +1,42 @@
+package com.cricinfo.dto;
+
+import com.cricinfo.entity.Match;
+import com.cricinfo.entity.NewsArticle;
+import com.cricinfo.entity.Player;
+import com.cricinfo.entity.Team;
+import com.cricinfo.entity.Tournament;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class HomePage {
+    @JsonIgnore
+    private long version;
+
+    /** Hash of the sections, identical on every node that holds the same data. */
+    @JsonIgnore
+    private String etag;
+
+    /** True when a section timed out or failed and was left empty. */
+    @JsonIgnore
+    private boolean degraded;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime generatedAt;
+
+    private List<Match> liveMatches;
+    private List<Match> recentMatches;
+    private List<Match> upcomingMatches;
+    private List<NewsArticle> featuredNews;
+    private List<Player> spotlightPlayers;
+    private Map<String, List<Team>> rankings;
+    private List<Tournament> liveTournaments;
+    private List<Tournament> upcomingTournaments;
+}
@@ -0,0 +1,17 @@
+package com.cricinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobRequest {
+    private String type;
+    // HIGH, NORMAL (default) or LOW
+    private String priority;
+    private Map<String, String> params;
+}
@@ -0,0 +1,20 @@
+package com.cricinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchAggregate {
+    private Map<String, String> group;
+    private Long matches;
+    private Double averageFirstInnings;
+    private Double averageSecondInnings;
+    private Long battingFirstWins;
+    private Long chasingWins;
+    private Double battingFirstWinRate;
+}
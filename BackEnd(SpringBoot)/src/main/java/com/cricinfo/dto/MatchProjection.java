@@ -0,0 +1,20 @@
+package com.cricinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchProjection {
+    private Long matchId;
+    private String format;
+    private String battingTeam;
+    private Integer target;
+    private Integer ballsRemaining;
+    private Double currentRunRate;
+    private Double requiredRunRate;
+    private Integer projectedScore;
+    private Double team1WinProbability;
+}
@@ -0,0 +1,19 @@
+package com.cricinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerAggregate {
+    private Map<String, String> group;
+    private Long players;
+    private Long totalRuns;
+    private Double averageRuns;
+    private Double averageBattingAverage;
+    private Long totalCenturies;
+}
@@ -0,0 +1,33 @@
+package com.cricinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlayerCareerStats {
+    private Long playerId;
+    private String format;
+    private Integer matches;
+
+    private Integer innings;
+    private Integer notOuts;
+    private Integer runs;
+    private String highScore;
+    private Double average;
+    private Double strikeRate;
+    private Integer hundreds;
+    private Integer fifties;
+    private Integer fours;
+    private Integer sixes;
+
+    private String overs;
+    private Integer runsConceded;
+    private Integer wickets;
+    private String bestBowling;
+    private Double bowlingAverage;
+    private Double economy;
+    private Integer fiveWicketHauls;
+}
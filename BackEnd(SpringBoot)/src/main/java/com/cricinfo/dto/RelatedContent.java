@@ -0,0 +1,19 @@
+package com.cricinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedContent {
+    private Long articleId;
+    // Most similar first; score is 0..1.
+    private List<SearchHit> articles;
+    // Named in the article or in its related articles.
+    private List<SearchHit> players;
+    private List<SearchHit> teams;
+}
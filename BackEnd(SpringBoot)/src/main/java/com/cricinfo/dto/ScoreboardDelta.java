@@ -0,0 +1,17 @@
+package com.cricinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreboardDelta {
+    private Long matchId;
+    private long version;
+    private boolean full;
+    private Map<String, Object> fields;
+}
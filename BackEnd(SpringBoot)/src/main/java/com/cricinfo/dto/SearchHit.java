@@ -0,0 +1,16 @@
+package com.cricinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    private String type;
+    private Long id;
+    private String title;
+    private String subtitle;
+    private double score;
+}
@@ -0,0 +1,17 @@
+package com.cricinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResponse {
+    private String query;
+    private long tookMillis;
+    private List<SearchHit> results;
+    private List<String> incompleteSources;
+}
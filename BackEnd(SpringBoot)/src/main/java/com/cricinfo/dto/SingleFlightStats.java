@@ -0,0 +1,17 @@
+package com.cricinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SingleFlightStats {
+    private long calls;
+    private long executions;
+    private long collapsed;
+    private long timeouts;
+    private double collapseRatio;
+    private int inFlight;
+}
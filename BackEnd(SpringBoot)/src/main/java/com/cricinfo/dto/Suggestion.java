@@ -0,0 +1,15 @@
+package com.cricinfo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestion {
+    private String text;
+    private String type;
+    private int weight;
+    private boolean fuzzy;
+}
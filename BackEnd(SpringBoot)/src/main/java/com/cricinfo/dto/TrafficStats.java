@@ -0,0 +1,21 @@
+package com.cricinfo.dto;
+
+import com.cricinfo.config.EndpointClass;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrafficStats {
+    private int sheddingLevel;
+    private long p99Millis;
+    private int poolWaiters;
+    private int activeBuckets;
+    private long overflowed;
+    private Map<EndpointClass, Long> rateLimited;
+    private Map<EndpointClass, Long> shed;
+}
@@ -0,0 +1,28 @@
+package com.cricinfo.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingArticle {
+    private Long id;
+    private String title;
+    private String summary;
+    private String imageUrl;
+    private String category;
+    private String author;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime publishedAt;
+    private String readTime;
+    // Includes views not yet written to the database.
+    private Long views;
+    private Integer comments;
+    // Views decayed by age; halves every cricinfo.trending.half-life-minutes.
+    private Double score;
+}
@@ -0,0 +1,289 @@
+package com.cricinfo.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable file of archived records keyed by id, written once and then read
+ * through a memory mapping. Records are stored in id order, packed into
+ * blocks of a few dozen and each block deflated on its own. The index holds
+ * one entry per block (its first id and position), so it stays small enough
+ * to keep in memory however many records the file has; a lookup
+ * binary-searches it and inflates a single block.
+ *
+ * <pre>
+ * block*  deflate([long id][int length][length bytes]...)
+ * index   per block: [long firstId][long offset][int compressedLength][int rawLength]
+ * footer  [long indexOffset][int blocks][int records][long minId][long maxId][int version][int magic]
+ * </pre>
+ */
+public final class ArchiveSegment {
+
+    private static final int MAGIC = 0x434E4152; // "CNAR"
+    private static final int VERSION = 1;
+    private static final int FOOTER_BYTES = 40;
+    private static final int INDEX_ENTRY_BYTES = 24;
+
+    public static final class Record {
+        private final long id;
+        private final byte[] data;
+
+        public Record(long id, byte[] data) {
+            this.id = id;
+            this.data = data;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+    }
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long[] firstIds;
+    private final long[] offsets;
+    private final int[] compressedLengths;
+    private final int[] rawLengths;
+    private final int records;
+    private final long minId;
+    private final long maxId;
+
+    private ArchiveSegment(Path path, MappedByteBuffer buffer, long[] firstIds, long[] offsets,
+                           int[] compressedLengths, int[] rawLengths, int records, long minId, long maxId) {
+        this.path = path;
+        this.buffer = buffer;
+        this.firstIds = firstIds;
+        this.offsets = offsets;
+        this.compressedLengths = compressedLengths;
+        this.rawLengths = rawLengths;
+        this.records = records;
+        this.minId = minId;
+        this.maxId = maxId;
+    }
+
+    /**
+     * Writes {@code records}, which must be sorted by id with no repeats, to
+     * {@code target}. The file appears under its final name only once it is
+     * complete and synced, so readers never see a partial segment.
+     */
+    public static void write(Path target, List<Record> records, int blockRecords) throws IOException {
+        if (records.isEmpty()) {
+            throw new IllegalArgumentException("A segment needs at least one record");
+        }
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                OutputStream out = Channels.newOutputStream(channel);
+                ByteArrayOutputStream index = new ByteArrayOutputStream();
+                DataOutputStream indexOut = new DataOutputStream(index);
+                Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+                long offset = 0;
+                long previous = Long.MIN_VALUE;
+                try {
+                    for (int from = 0; from < records.size(); from += blockRecords) {
+                        List<Record> block = records.subList(from, Math.min(records.size(), from + blockRecords));
+                        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                        DataOutputStream rawOut = new DataOutputStream(raw);
+                        for (Record record : block) {
+                            if (record.id <= previous) {
+                                throw new IllegalArgumentException("Records must be sorted by id without repeats");
+                            }
+                            previous = record.id;
+                            rawOut.writeLong(record.id);
+                            rawOut.writeInt(record.data.length);
+                            rawOut.write(record.data);
+                        }
+                        byte[] compressed = deflate(deflater, raw.toByteArray());
+                        out.write(compressed);
+                        indexOut.writeLong(block.get(0).id);
+                        indexOut.writeLong(offset);
+                        indexOut.writeInt(compressed.length);
+                        indexOut.writeInt(raw.size());
+                        offset += compressed.length;
+                    }
+                } finally {
+                    deflater.end();
+                }
+                out.write(index.toByteArray());
+                ByteBuffer footer = ByteBuffer.allocate(FOOTER_BYTES);
+                footer.putLong(offset)
+                        .putInt(index.size() / INDEX_ENTRY_BYTES)
+                        .putInt(records.size())
+                        .putLong(records.get(0).id)
+                        .putLong(records.get(records.size() - 1).id)
+                        .putInt(VERSION)
+                        .putInt(MAGIC);
+                out.write(footer.array());
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public static ArchiveSegment open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < FOOTER_BYTES || buffer.getInt(buffer.capacity() - 4) != MAGIC) {
+            throw new IOException(path.getFileName() + " is not an archive segment");
+        }
+        ByteBuffer footer = buffer.slice(buffer.capacity() - FOOTER_BYTES, FOOTER_BYTES);
+        long indexOffset = footer.getLong();
+        int blocks = footer.getInt();
+        int records = footer.getInt();
+        long minId = footer.getLong();
+        long maxId = footer.getLong();
+        int version = footer.getInt();
+        if (version != VERSION) {
+            throw new IOException(path.getFileName() + " has unsupported version " + version);
+        }
+        long[] firstIds = new long[blocks];
+        long[] offsets = new long[blocks];
+        int[] compressedLengths = new int[blocks];
+        int[] rawLengths = new int[blocks];
+        ByteBuffer index = buffer.slice((int) indexOffset, blocks * INDEX_ENTRY_BYTES);
+        for (int i = 0; i < blocks; i++) {
+            firstIds[i] = index.getLong();
+            offsets[i] = index.getLong();
+            compressedLengths[i] = index.getInt();
+            rawLengths[i] = index.getInt();
+        }
+        return new ArchiveSegment(path, buffer, firstIds, offsets, compressedLengths, rawLengths, records, minId, maxId);
+    }
+
+    /** The record's data, or null when this segment does not hold the id. */
+    public byte[] find(long id) throws IOException {
+        if (id < minId || id > maxId) {
+            return null;
+        }
+        int block = blockFor(id);
+        if (block < 0) {
+            return null;
+        }
+        ByteBuffer raw = ByteBuffer.wrap(inflate(block));
+        while (raw.hasRemaining()) {
+            long recordId = raw.getLong();
+            int length = raw.getInt();
+            if (recordId == id) {
+                byte[] data = new byte[length];
+                raw.get(data);
+                return data;
+            }
+            if (recordId > id) {
+                return null;
+            }
+            raw.position(raw.position() + length);
+        }
+        return null;
+    }
+
+    /** Every record in id order, inflating one block at a time. */
+    public void forEach(Consumer<Record> action) throws IOException {
+        for (int block = 0; block < firstIds.length; block++) {
+            ByteBuffer raw = ByteBuffer.wrap(inflate(block));
+            while (raw.hasRemaining()) {
+                long id = raw.getLong();
+                byte[] data = new byte[raw.getInt()];
+                raw.get(data);
+                action.accept(new Record(id, data));
+            }
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getRecords() {
+        return records;
+    }
+
+    public int getBlocks() {
+        return firstIds.length;
+    }
+
+    public long getMinId() {
+        return minId;
+    }
+
+    public long getMaxId() {
+        return maxId;
+    }
+
+    // Last block whose first id is not after id.
+    private int blockFor(long id) {
+        int low = 0;
+        int high = firstIds.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (firstIds[mid] <= id) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private byte[] inflate(int block) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice((int) offsets[block], compressedLengths[block]));
+            byte[] raw = new byte[rawLengths[block]];
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, raw.length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != raw.length) {
+                throw new IOException("Corrupt block " + block + " in " + path.getFileName());
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block " + block + " in " + path.getFileName(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            out.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,444 @@
+package com.cricinfo.engine;
+
+import com.cricinfo.entity.ScorecardEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-innings scorecard rows held as parallel primitive arrays, one column per
+ * figure. Team, venue and format are dictionary-encoded and every player keeps
+ * the list of its row numbers, so a career line or a split (vs a team, at a
+ * venue, in a year) is a scan over that player's rows only.
+ *
+ * <p>A full {@link #build} fills the columns with a fork-join pass. Afterwards
+ * matches are added or replaced one at a time. A replacement with the same
+ * players in the same order overwrites the match's rows in place; any other
+ * replacement marks the old rows dead and appends, and once dead rows make up
+ * a quarter of the store the columns are compacted.
+ */
+public final class CareerStatsStore {
+
+    private static final int FORK_THRESHOLD = 2048;
+    private static final int ANY = -2;
+    private static final int COMPACT_MIN_DEAD = 1024;
+
+    private static final byte ALIVE = 1;
+    private static final byte BATTED = 2;
+    private static final byte NOT_OUT = 4;
+
+    /** Match-level columns shared by every scorecard row of that match. */
+    public static final class MatchContext {
+        final long matchId;
+        final String team1;
+        final String team2;
+        final String venue;
+        final String format;
+        final int year;
+
+        public MatchContext(long matchId, String team1, String team2, String venue, String format, int year) {
+            this.matchId = matchId;
+            this.team1 = team1;
+            this.team2 = team2;
+            this.venue = venue;
+            this.format = format;
+            this.year = year;
+        }
+
+        public long getMatchId() {
+            return matchId;
+        }
+
+        String opponentOf(String team) {
+            return team != null && team.equalsIgnoreCase(team1) ? team2 : team1;
+        }
+    }
+
+    private final Dictionary<Long> players = new Dictionary<>();
+    private final Dictionary<String> teams = new Dictionary<>();
+    private final Dictionary<String> venues = new Dictionary<>();
+    private final Dictionary<String> formats = new Dictionary<>();
+    private final Map<Integer, String> formatLabels = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private int dead;
+    private long[] matchIds;
+    private int[] player;
+    private int[] format;
+    private int[] opponent;
+    private int[] venue;
+    private short[] year;
+    private int[] runs;
+    private int[] balls;
+    private int[] fours;
+    private int[] sixes;
+    private int[] ballsBowled;
+    private int[] runsConceded;
+    private int[] wickets;
+    private byte[] flags;
+
+    private int[][] playerRows = new int[16][];
+    private int[] playerRowCounts = new int[16];
+    private final Map<Long, int[]> matchRows = new HashMap<>();
+
+    private CareerStatsStore(int capacity) {
+        allocate(Math.max(capacity, 64));
+    }
+
+    public static CareerStatsStore empty() {
+        return new CareerStatsStore(0);
+    }
+
+    /**
+     * Builds a store from parallel arrays of entries and their match contexts.
+     * Entries of one match must be adjacent, which the ordered backfill query guarantees.
+     */
+    public static CareerStatsStore build(ScorecardEntry[] entries, MatchContext[] contexts, ForkJoinPool pool) {
+        CareerStatsStore store = new CareerStatsStore(entries.length);
+        store.size = entries.length;
+        pool.invoke(store.new FillTask(entries, contexts, 0, entries.length));
+        for (int row = 0; row < store.size; row++) {
+            store.indexRow(row);
+        }
+        int start = 0;
+        for (int row = 1; row <= store.size; row++) {
+            if (row == store.size || store.matchIds[row] != store.matchIds[start]) {
+                int[] rows = new int[row - start];
+                for (int i = 0; i < rows.length; i++) {
+                    rows[i] = start + i;
+                }
+                store.matchRows.put(store.matchIds[start], rows);
+                start = row;
+            }
+        }
+        return store;
+    }
+
+    private final class FillTask extends RecursiveAction {
+        private final ScorecardEntry[] entries;
+        private final MatchContext[] contexts;
+        private final int from;
+        private final int to;
+
+        FillTask(ScorecardEntry[] entries, MatchContext[] contexts, int from, int to) {
+            this.entries = entries;
+            this.contexts = contexts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FORK_THRESHOLD) {
+                for (int row = from; row < to; row++) {
+                    fill(row, entries[row], contexts[row]);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new FillTask(entries, contexts, from, mid), new FillTask(entries, contexts, mid, to));
+        }
+    }
+
+    /**
+     * Replaces all rows of the match with the given entries; an empty list just
+     * removes the match. Returns false when the rows already held exactly these
+     * figures and nothing was written.
+     */
+    public boolean putMatch(MatchContext context, List<ScorecardEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            int[] existing = matchRows.get(context.matchId);
+            if (existing != null && samePlayers(existing, entries)) {
+                boolean changed = false;
+                for (int i = 0; i < existing.length; i++) {
+                    if (!sameFigures(existing[i], entries.get(i), context)) {
+                        fill(existing[i], entries.get(i), context);
+                        changed = true;
+                    }
+                }
+                return changed;
+            }
+            removeMatchLocked(context.matchId);
+            if (entries.isEmpty()) {
+                return existing != null;
+            }
+            ensureCapacity(size + entries.size());
+            int[] rows = new int[entries.size()];
+            for (int i = 0; i < rows.length; i++) {
+                int row = size++;
+                fill(row, entries.get(i), context);
+                indexRow(row);
+                rows[i] = row;
+            }
+            matchRows.put(context.matchId, rows);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeMatch(long matchId) {
+        lock.writeLock().lock();
+        try {
+            removeMatchLocked(matchId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Career totals of the player per format, restricted by any non-null filter.
+     * Filters match case-insensitively; an unknown value yields no rows.
+     */
+    public List<CareerTotals> aggregate(long playerId, String formatFilter, String opponentFilter,
+                                        String venueFilter, Integer yearFilter) {
+        lock.readLock().lock();
+        try {
+            int p = players.lookup(playerId);
+            int f = code(formats, formatFilter);
+            int o = code(teams, opponentFilter);
+            int v = code(venues, venueFilter);
+            if (p == Dictionary.MISSING || f == Dictionary.MISSING || o == Dictionary.MISSING || v == Dictionary.MISSING) {
+                return List.of();
+            }
+            CareerTotals[] byFormat = new CareerTotals[formats.size()];
+            int[] rows = playerRows[p];
+            for (int i = 0, n = playerRowCounts[p]; i < n; i++) {
+                int row = rows[i];
+                if ((flags[row] & ALIVE) == 0
+                        || (f != ANY && format[row] != f)
+                        || (o != ANY && opponent[row] != o)
+                        || (v != ANY && venue[row] != v)
+                        || (yearFilter != null && year[row] != yearFilter)
+                        || format[row] < 0) {
+                    continue;
+                }
+                CareerTotals totals = byFormat[format[row]];
+                if (totals == null) {
+                    totals = byFormat[format[row]] = new CareerTotals(formatLabels.get(format[row]));
+                }
+                byte flag = flags[row];
+                totals.add(matchIds[row], (flag & BATTED) != 0, (flag & NOT_OUT) != 0, runs[row], balls[row],
+                        fours[row], sixes[row], ballsBowled[row], runsConceded[row], wickets[row]);
+            }
+            List<CareerTotals> result = new ArrayList<>();
+            for (CareerTotals totals : byFormat) {
+                if (totals != null) {
+                    result.add(totals);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getRowCount() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getMatchCount() {
+        lock.readLock().lock();
+        try {
+            return matchRows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void fill(int row, ScorecardEntry entry, MatchContext context) {
+        matchIds[row] = context.matchId;
+        player[row] = players.encode(entry.getPlayerId());
+        format[row] = formats.encode(normalize(context.format));
+        if (format[row] >= 0) {
+            formatLabels.putIfAbsent(format[row], context.format.trim());
+        }
+        opponent[row] = teams.encode(normalize(context.opponentOf(entry.getTeam())));
+        venue[row] = venues.encode(normalize(context.venue));
+        year[row] = (short) context.year;
+        runs[row] = value(entry.getRuns());
+        balls[row] = value(entry.getBallsFaced());
+        fours[row] = value(entry.getFours());
+        sixes[row] = value(entry.getSixes());
+        ballsBowled[row] = value(entry.getBallsBowled());
+        runsConceded[row] = value(entry.getRunsConceded());
+        wickets[row] = value(entry.getWickets());
+        byte flag = ALIVE;
+        if (!Boolean.FALSE.equals(entry.getBatted())) {
+            flag |= BATTED;
+        }
+        if (Boolean.TRUE.equals(entry.getNotOut())) {
+            flag |= NOT_OUT;
+        }
+        flags[row] = flag;
+    }
+
+    private boolean samePlayers(int[] rows, List<ScorecardEntry> entries) {
+        if (rows.length != entries.size()) {
+            return false;
+        }
+        for (int i = 0; i < rows.length; i++) {
+            if (player[rows[i]] != players.lookup(entries.get(i).getPlayerId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same comparison fill() would make, without writing.
+    private boolean sameFigures(int row, ScorecardEntry entry, MatchContext context) {
+        byte flag = ALIVE;
+        if (!Boolean.FALSE.equals(entry.getBatted())) {
+            flag |= BATTED;
+        }
+        if (Boolean.TRUE.equals(entry.getNotOut())) {
+            flag |= NOT_OUT;
+        }
+        return flags[row] == flag
+                && format[row] == formats.encode(normalize(context.format))
+                && opponent[row] == teams.encode(normalize(context.opponentOf(entry.getTeam())))
+                && venue[row] == venues.encode(normalize(context.venue))
+                && year[row] == (short) context.year
+                && runs[row] == value(entry.getRuns())
+                && balls[row] == value(entry.getBallsFaced())
+                && fours[row] == value(entry.getFours())
+                && sixes[row] == value(entry.getSixes())
+                && ballsBowled[row] == value(entry.getBallsBowled())
+                && runsConceded[row] == value(entry.getRunsConceded())
+                && wickets[row] == value(entry.getWickets());
+    }
+
+    private void indexRow(int row) {
+        int p = player[row];
+        if (p >= playerRows.length) {
+            int grown = Math.max(p + 1, playerRows.length * 2);
+            playerRows = Arrays.copyOf(playerRows, grown);
+            playerRowCounts = Arrays.copyOf(playerRowCounts, grown);
+        }
+        int[] rows = playerRows[p];
+        int count = playerRowCounts[p];
+        if (rows == null) {
+            rows = playerRows[p] = new int[8];
+        } else if (count == rows.length) {
+            rows = playerRows[p] = Arrays.copyOf(rows, count * 2);
+        }
+        rows[count] = row;
+        playerRowCounts[p] = count + 1;
+    }
+
+    private void removeMatchLocked(long matchId) {
+        int[] rows = matchRows.remove(matchId);
+        if (rows != null) {
+            for (int row : rows) {
+                flags[row] &= ~ALIVE;
+            }
+            dead += rows.length;
+            if (dead >= COMPACT_MIN_DEAD && dead * 4 >= size) {
+                compactLocked();
+            }
+        }
+    }
+
+    // Slides live rows down over dead ones, then rebuilds the per-player and per-match row lists.
+    private void compactLocked() {
+        int[] moved = new int[size];
+        int live = 0;
+        for (int row = 0; row < size; row++) {
+            if ((flags[row] & ALIVE) == 0) {
+                continue;
+            }
+            if (live != row) {
+                matchIds[live] = matchIds[row];
+                player[live] = player[row];
+                format[live] = format[row];
+                opponent[live] = opponent[row];
+                venue[live] = venue[row];
+                year[live] = year[row];
+                runs[live] = runs[row];
+                balls[live] = balls[row];
+                fours[live] = fours[row];
+                sixes[live] = sixes[row];
+                ballsBowled[live] = ballsBowled[row];
+                runsConceded[live] = runsConceded[row];
+                wickets[live] = wickets[row];
+                flags[live] = flags[row];
+            }
+            moved[row] = live++;
+        }
+        size = live;
+        dead = 0;
+        Arrays.fill(playerRowCounts, 0);
+        for (int row = 0; row < size; row++) {
+            indexRow(row);
+        }
+        for (int[] rows : matchRows.values()) {
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = moved[rows[i]];
+            }
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed > matchIds.length) {
+            int capacity = Math.max(needed, matchIds.length * 2);
+            matchIds = Arrays.copyOf(matchIds, capacity);
+            player = Arrays.copyOf(player, capacity);
+            format = Arrays.copyOf(format, capacity);
+            opponent = Arrays.copyOf(opponent, capacity);
+            venue = Arrays.copyOf(venue, capacity);
+            year = Arrays.copyOf(year, capacity);
+            runs = Arrays.copyOf(runs, capacity);
+            balls = Arrays.copyOf(balls, capacity);
+            fours = Arrays.copyOf(fours, capacity);
+            sixes = Arrays.copyOf(sixes, capacity);
+            ballsBowled = Arrays.copyOf(ballsBowled, capacity);
+            runsConceded = Arrays.copyOf(runsConceded, capacity);
+            wickets = Arrays.copyOf(wickets, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+    }
+
+    private void allocate(int capacity) {
+        matchIds = new long[capacity];
+        player = new int[capacity];
+        format = new int[capacity];
+        opponent = new int[capacity];
+        venue = new int[capacity];
+        year = new short[capacity];
+        runs = new int[capacity];
+        balls = new int[capacity];
+        fours = new int[capacity];
+        sixes = new int[capacity];
+        ballsBowled = new int[capacity];
+        runsConceded = new int[capacity];
+        wickets = new int[capacity];
+        flags = new byte[capacity];
+    }
+
+    private static int code(Dictionary<String> dictionary, String filter) {
+        return filter == null || filter.isBlank() ? ANY : dictionary.lookup(normalize(filter));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static int value(Integer boxed) {
+        return boxed != null ? boxed : 0;
+    }
+}
@@ -0,0 +1,151 @@
+package com.cricinfo.engine;
+
+/**
+ * Running batting and bowling totals for one player in one format, filled by
+ * {@link CareerStatsStore#aggregate}.
+ */
+public final class CareerTotals {
+
+    final String format;
+    long lastMatch = Long.MIN_VALUE;
+
+    int matches;
+    int innings;
+    int notOuts;
+    int runs;
+    int ballsFaced;
+    int highScore = -1;
+    boolean highScoreNotOut;
+    int fifties;
+    int hundreds;
+    int fours;
+    int sixes;
+
+    int bowlingInnings;
+    int ballsBowled;
+    int runsConceded;
+    int wickets;
+    int bestWickets = -1;
+    int bestRuns;
+    int fiveWicketHauls;
+
+    CareerTotals(String format) {
+        this.format = format;
+    }
+
+    void add(long matchId, boolean batted, boolean notOut, int runs, int balls, int fours, int sixes,
+             int ballsBowled, int runsConceded, int wickets) {
+        if (matchId != lastMatch) {
+            matches++;
+            lastMatch = matchId;
+        }
+        if (batted) {
+            innings++;
+            if (notOut) {
+                notOuts++;
+            }
+            this.runs += runs;
+            this.ballsFaced += balls;
+            this.fours += fours;
+            this.sixes += sixes;
+            if (runs > highScore || (runs == highScore && notOut)) {
+                highScore = runs;
+                highScoreNotOut = notOut;
+            }
+            if (runs >= 100) {
+                hundreds++;
+            } else if (runs >= 50) {
+                fifties++;
+            }
+        }
+        if (ballsBowled > 0) {
+            bowlingInnings++;
+            this.ballsBowled += ballsBowled;
+            this.runsConceded += runsConceded;
+            this.wickets += wickets;
+            if (wickets > bestWickets || (wickets == bestWickets && runsConceded < bestRuns)) {
+                bestWickets = wickets;
+                bestRuns = runsConceded;
+            }
+            if (wickets >= 5) {
+                fiveWicketHauls++;
+            }
+        }
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public int getMatches() {
+        return matches;
+    }
+
+    public int getInnings() {
+        return innings;
+    }
+
+    public int getNotOuts() {
+        return notOuts;
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public int getBallsFaced() {
+        return ballsFaced;
+    }
+
+    public int getHighScore() {
+        return highScore;
+    }
+
+    public boolean isHighScoreNotOut() {
+        return highScoreNotOut;
+    }
+
+    public int getFifties() {
+        return fifties;
+    }
+
+    public int getHundreds() {
+        return hundreds;
+    }
+
+    public int getFours() {
+        return fours;
+    }
+
+    public int getSixes() {
+        return sixes;
+    }
+
+    public int getBowlingInnings() {
+        return bowlingInnings;
+    }
+
+    public int getBallsBowled() {
+        return ballsBowled;
+    }
+
+    public int getRunsConceded() {
+        return runsConceded;
+    }
+
+    public int getWickets() {
+        return wickets;
+    }
+
+    public int getBestWickets() {
+        return bestWickets;
+    }
+
+    public int getBestRuns() {
+        return bestRuns;
+    }
+
+    public int getFiveWicketHauls() {
+        return fiveWicketHauls;
+    }
+}
@@ -0,0 +1,304 @@
+package com.cricinfo.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory column store keyed by entity id. Every dimension is a dictionary-
+ * encoded {@code int[]} column and every metric a {@code long[]} column, so a
+ * group-by is a branch-light loop over primitive arrays. Scans are split into
+ * fork-join chunks that each fill private per-group accumulators, merged once
+ * at the end.
+ *
+ * <p>Rows are upserted in place by id; deleted rows are tombstoned and their
+ * slots are reclaimed by the next full rebuild.
+ */
+public class ColumnarTable<D extends Enum<D>> {
+
+    /** One group of an aggregation: its dimension values and summed metrics. */
+    public static final class Group<D extends Enum<D>> {
+        private final Map<D, String> keys;
+        private final long[] metrics;
+
+        Group(Map<D, String> keys, long[] metrics) {
+            this.keys = keys;
+            this.metrics = metrics;
+        }
+
+        public Map<D, String> getKeys() {
+            return keys;
+        }
+
+        public long metric(int index) {
+            return metrics[index];
+        }
+    }
+
+    private static final int CHUNK_ROWS = 1 << 16;
+    private static final int MAX_GROUPS = 1 << 16;
+
+    private final Class<D> dimensionType;
+    private final D[] dimensions;
+    private final Dictionary<String>[] dictionaries;
+    private final int metricCount;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private long[] ids;
+    private boolean[] alive;
+    private int[][] dimensionColumns;
+    private long[][] metricColumns;
+    private final Map<Long, Integer> rowOf = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public ColumnarTable(Class<D> dimensionType, int metricCount, int capacity) {
+        this.dimensionType = dimensionType;
+        this.dimensions = dimensionType.getEnumConstants();
+        this.metricCount = metricCount;
+        this.dictionaries = new Dictionary[dimensions.length];
+        for (int d = 0; d < dimensions.length; d++) {
+            dictionaries[d] = new Dictionary<>();
+        }
+        int initial = Math.max(capacity, 64);
+        ids = new long[initial];
+        alive = new boolean[initial];
+        dimensionColumns = new int[dimensions.length][initial];
+        metricColumns = new long[metricCount][initial];
+    }
+
+    /**
+     * Inserts or overwrites the row of the given id. {@code values} is indexed by
+     * dimension ordinal and {@code metrics} by metric index; null values are
+     * stored as missing.
+     */
+    public void upsert(long id, String[] values, long[] metrics) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = rowOf.get(id);
+            int row;
+            if (existing != null) {
+                row = existing;
+            } else {
+                ensureCapacity(size + 1);
+                row = size++;
+                rowOf.put(id, row);
+            }
+            ids[row] = id;
+            alive[row] = true;
+            for (int d = 0; d < dimensions.length; d++) {
+                dimensionColumns[d][row] = dictionaries[d].encode(trim(values[d]));
+            }
+            for (int m = 0; m < metricCount; m++) {
+                metricColumns[m][row] = metrics[m];
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowOf.remove(id);
+            if (row != null) {
+                alive[row] = false;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int getRowCount() {
+        lock.readLock().lock();
+        try {
+            return rowOf.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sums every metric per distinct combination of the {@code groupBy}
+     * dimensions over live rows matching all {@code filters} (case-insensitive).
+     * Each group carries one extra trailing metric: its row count.
+     *
+     * @throws IllegalArgumentException if the grouping would exceed the group limit
+     */
+    public List<Group<D>> aggregate(List<D> groupBy, Map<D, String> filters, ForkJoinPool pool) {
+        lock.readLock().lock();
+        try {
+            int[] groupDims = new int[groupBy.size()];
+            int[] radix = new int[groupBy.size()];
+            long groups = 1;
+            for (int i = 0; i < groupDims.length; i++) {
+                groupDims[i] = groupBy.get(i).ordinal();
+                // Code + 1 so that missing values (-1) get their own group.
+                radix[i] = dictionaries[groupDims[i]].size() + 1;
+                groups *= radix[i];
+            }
+            if (groups > MAX_GROUPS) {
+                throw new IllegalArgumentException("Too many groups: " + groups);
+            }
+            int[] filterDims = new int[filters.size()];
+            int[] filterCodes = new int[filters.size()];
+            int f = 0;
+            for (Map.Entry<D, String> filter : filters.entrySet()) {
+                filterDims[f] = filter.getKey().ordinal();
+                filterCodes[f] = lookupIgnoreCase(dictionaries[filterDims[f]], trim(filter.getValue()));
+                if (filterCodes[f] == Dictionary.MISSING) {
+                    return List.of();
+                }
+                f++;
+            }
+
+            long[][] totals = pool.invoke(new ScanTask(0, size, (int) groups, groupDims, radix, filterDims, filterCodes));
+            long[] rows = totals[metricCount];
+
+            List<Group<D>> result = new ArrayList<>();
+            for (int g = 0; g < groups; g++) {
+                if (rows[g] == 0) {
+                    continue;
+                }
+                Map<D, String> keys = new EnumMap<>(dimensionType);
+                int rest = g;
+                for (int i = groupDims.length - 1; i >= 0; i--) {
+                    int code = rest % radix[i] - 1;
+                    rest /= radix[i];
+                    keys.put(dimensions[groupDims[i]], dictionaries[groupDims[i]].decode(code));
+                }
+                long[] metrics = new long[metricCount + 1];
+                for (int m = 0; m <= metricCount; m++) {
+                    metrics[m] = totals[m][g];
+                }
+                result.add(new Group<>(keys, metrics));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sums metrics per group over [from, to). The extra last accumulator counts
+     * matching rows per group.
+     */
+    private final class ScanTask extends RecursiveTask<long[][]> {
+        private final int from;
+        private final int to;
+        private final int groups;
+        private final int[] groupDims;
+        private final int[] radix;
+        private final int[] filterDims;
+        private final int[] filterCodes;
+
+        ScanTask(int from, int to, int groups, int[] groupDims, int[] radix, int[] filterDims, int[] filterCodes) {
+            this.from = from;
+            this.to = to;
+            this.groups = groups;
+            this.groupDims = groupDims;
+            this.radix = radix;
+            this.filterDims = filterDims;
+            this.filterCodes = filterCodes;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (to - from > CHUNK_ROWS) {
+                int mid = (from + to) >>> 1;
+                ScanTask left = new ScanTask(from, mid, groups, groupDims, radix, filterDims, filterCodes);
+                left.fork();
+                long[][] right = new ScanTask(mid, to, groups, groupDims, radix, filterDims, filterCodes).compute();
+                long[][] merged = left.join();
+                for (int m = 0; m < merged.length; m++) {
+                    long[] into = merged[m];
+                    long[] other = right[m];
+                    for (int g = 0; g < into.length; g++) {
+                        into[g] += other[g];
+                    }
+                }
+                return merged;
+            }
+
+            long[][] acc = new long[metricCount + 1][groups];
+            int[] group = new int[to - from];
+            boolean[] keep = new boolean[to - from];
+            // Column-at-a-time: mark surviving rows, build group ids, then add each metric column.
+            for (int row = from; row < to; row++) {
+                keep[row - from] = alive[row];
+            }
+            for (int f = 0; f < filterDims.length; f++) {
+                int[] column = dimensionColumns[filterDims[f]];
+                int code = filterCodes[f];
+                for (int row = from; row < to; row++) {
+                    keep[row - from] &= column[row] == code;
+                }
+            }
+            for (int i = 0; i < groupDims.length; i++) {
+                int[] column = dimensionColumns[groupDims[i]];
+                int base = radix[i];
+                for (int row = from; row < to; row++) {
+                    group[row - from] = group[row - from] * base + column[row] + 1;
+                }
+            }
+            long[] counts = acc[metricCount];
+            for (int row = from; row < to; row++) {
+                if (keep[row - from]) {
+                    counts[group[row - from]]++;
+                }
+            }
+            for (int m = 0; m < metricCount; m++) {
+                long[] column = metricColumns[m];
+                long[] sums = acc[m];
+                for (int row = from; row < to; row++) {
+                    if (keep[row - from]) {
+                        sums[group[row - from]] += column[row];
+                    }
+                }
+            }
+            return acc;
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(needed, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        for (int d = 0; d < dimensionColumns.length; d++) {
+            dimensionColumns[d] = Arrays.copyOf(dimensionColumns[d], capacity);
+        }
+        for (int m = 0; m < metricColumns.length; m++) {
+            metricColumns[m] = Arrays.copyOf(metricColumns[m], capacity);
+        }
+    }
+
+    private static int lookupIgnoreCase(Dictionary<String> dictionary, String value) {
+        int code = dictionary.lookup(value);
+        if (code != Dictionary.MISSING || value == null) {
+            return code;
+        }
+        for (int c = 0, n = dictionary.size(); c < n; c++) {
+            if (value.equalsIgnoreCase(dictionary.decode(c))) {
+                return c;
+            }
+        }
+        return Dictionary.MISSING;
+    }
+
+    private static String trim(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,58 @@
+package com.cricinfo.engine;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns dense int codes to values so columnar stores can keep an {@code int[]}
+ * instead of object references. Codes are handed out in first-seen order and
+ * never reused. Safe for concurrent encoding; lookups do not lock.
+ */
+public final class Dictionary<T> {
+
+    public static final int MISSING = -1;
+
+    private final Map<T, Integer> codes = new ConcurrentHashMap<>();
+    private volatile Object[] values = new Object[16];
+    private int size;
+
+    public int encode(T value) {
+        if (value == null) {
+            return MISSING;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            codes.put(value, size);
+            return size++;
+        }
+    }
+
+    public int lookup(T value) {
+        if (value == null) {
+            return MISSING;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : MISSING;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T decode(int code) {
+        return code < 0 ? null : (T) values[code];
+    }
+
+    public int size() {
+        return codes.size();
+    }
+}
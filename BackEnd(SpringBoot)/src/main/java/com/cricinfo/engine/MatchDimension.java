@@ -0,0 +1,15 @@
+package com.cricinfo.engine;
+
+/** Group-by and filter columns of the match analytics table. */
+public enum MatchDimension {
+    VENUE,
+    SERIES,
+    FORMAT,
+    YEAR,
+    /** Side that batted first (team1). */
+    BATTING_FIRST,
+    /** Side that batted second (team2). */
+    CHASING,
+    /** LIVE, UPCOMING or COMPLETED. */
+    STAGE
+}
@@ -0,0 +1,113 @@
+package com.cricinfo.engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds known names (players, teams) in free text. Names are matched as whole
+ * token sequences of the {@link TypeaheadIndex#normalize normalized} text,
+ * longest first, so "Virat Kohli" is one mention rather than a mention of
+ * "Virat Kohli" and of "Kohli". A player's surname on its own also counts
+ * when no other name uses it. Immutable; build a new one when names change.
+ */
+public class MentionMatcher {
+
+    // Shorter surnames ("Ali", "Rau") are too likely to be ordinary words or someone else.
+    private static final int MIN_ALIAS_LENGTH = 4;
+
+    private static final class Phrase {
+        final String[] tokens;
+        final String key;
+
+        Phrase(String[] tokens, String key) {
+            this.tokens = tokens;
+            this.key = key;
+        }
+    }
+
+    // First token -> phrases starting with it, longest first.
+    private final Map<String, List<Phrase>> phrases = new HashMap<>();
+
+    /**
+     * @param names key (e.g. "TEAM:3") -> display name
+     * @param aliasSurnames keys whose last name token may also be matched alone
+     */
+    public MentionMatcher(Map<String, String> names, Set<String> aliasSurnames) {
+        Map<String, String> aliases = new HashMap<>();
+        Map<String, Integer> aliasUse = new HashMap<>();
+        names.forEach((key, name) -> {
+            String[] tokens = tokens(name);
+            if (tokens.length == 0) {
+                return;
+            }
+            add(tokens, key);
+            for (String token : tokens) {
+                aliasUse.merge(token, 1, Integer::sum);
+            }
+            String last = tokens[tokens.length - 1];
+            if (tokens.length > 1 && aliasSurnames.contains(key) && last.length() >= MIN_ALIAS_LENGTH) {
+                aliases.put(key, last);
+            }
+        });
+        aliases.forEach((key, surname) -> {
+            if (aliasUse.get(surname) == 1) {
+                add(new String[]{surname}, key);
+            }
+        });
+        for (List<Phrase> list : phrases.values()) {
+            list.sort(Comparator.comparingInt((Phrase p) -> -p.tokens.length));
+        }
+    }
+
+    /** Mention counts per key, in order of first appearance. */
+    public Map<String, Integer> find(String text) {
+        Map<String, Integer> found = new LinkedHashMap<>();
+        String[] tokens = tokens(text);
+        int i = 0;
+        while (i < tokens.length) {
+            Phrase match = null;
+            List<Phrase> candidates = phrases.get(tokens[i]);
+            if (candidates != null) {
+                for (Phrase phrase : candidates) {
+                    if (matchesAt(tokens, i, phrase.tokens)) {
+                        match = phrase;
+                        break;
+                    }
+                }
+            }
+            if (match == null) {
+                i++;
+            } else {
+                found.merge(match.key, 1, Integer::sum);
+                i += match.tokens.length;
+            }
+        }
+        return found;
+    }
+
+    private void add(String[] tokens, String key) {
+        phrases.computeIfAbsent(tokens[0], t -> new ArrayList<>()).add(new Phrase(tokens, key));
+    }
+
+    private static boolean matchesAt(String[] tokens, int at, String[] phrase) {
+        if (at + phrase.length > tokens.length) {
+            return false;
+        }
+        for (int j = 0; j < phrase.length; j++) {
+            if (!tokens[at + j].equals(phrase[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String[] tokens(String text) {
+        String normalized = TypeaheadIndex.normalize(text);
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+}
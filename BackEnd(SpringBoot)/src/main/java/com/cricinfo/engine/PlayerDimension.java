@@ -0,0 +1,10 @@
+package com.cricinfo.engine;
+
+/** Group-by and filter columns of the player analytics table. */
+public enum PlayerDimension {
+    COUNTRY,
+    POSITION,
+    BATTING_STYLE,
+    BOWLING_STYLE,
+    ACTIVE
+}
@@ -0,0 +1,269 @@
+package com.cricinfo.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Article-to-article similarity from MinHash sketches. Each article is reduced
+ * to {@value #HASHES} minimum hashes over its word and word-pair shingles, so
+ * the fraction of equal positions estimates the Jaccard similarity of the
+ * texts. Sketches are banded for locality-sensitive hashing (two rows per
+ * band, catching pairs from about 0.15 similarity up), and the newest
+ * {@value #MENTION_CANDIDATES} articles naming each of the same players or
+ * teams are candidates too; only candidates are scored, so a lookup never
+ * scans the whole corpus, however often a name comes up.
+ *
+ * <p>{@link #sketch} is pure and may run on any thread; the index itself
+ * synchronizes on this object. Sketches are immutable, so {@link #related}
+ * holds the monitor only to collect candidates and scores them after.
+ */
+public class RelatedIndex {
+
+    public static final int HASHES = 128;
+    private static final int ROWS = 2;
+    private static final int BANDS = HASHES / ROWS;
+
+    // How much of the score comes from shared mentions rather than shared words.
+    private static final double MENTION_WEIGHT = 0.3;
+
+    // Per mention, so a much-covered player does not pull in every article about them.
+    private static final int MENTION_CANDIDATES = 100;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "been", "but", "by", "for", "from", "had", "has", "have",
+            "he", "her", "his", "in", "into", "is", "it", "its", "of", "on", "or", "s", "she", "that", "the",
+            "their", "they", "this", "to", "was", "were", "which", "who", "will", "with");
+
+    private static final long[] SEEDS = new long[HASHES];
+
+    static {
+        long state = 0x5DEECE66DL;
+        for (int i = 0; i < HASHES; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            SEEDS[i] = mix(state);
+        }
+    }
+
+    public static final class Sketch {
+        private final int[] minHashes;
+        private final Map<String, Integer> mentions;
+
+        Sketch(int[] minHashes, Map<String, Integer> mentions) {
+            this.minHashes = minHashes;
+            this.mentions = mentions;
+        }
+
+        /** Mention counts per key, as given to {@link #sketch}. */
+        public Map<String, Integer> getMentions() {
+            return mentions;
+        }
+    }
+
+    public static final class Related {
+        private final long id;
+        private final double score;
+
+        Related(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    private final Map<Long, Sketch> sketches = new HashMap<>();
+    private final Map<Long, Set<Long>> buckets = new HashMap<>();
+    private final Map<String, NavigableSet<Long>> mentionedIn = new HashMap<>();
+
+    /** Builds the sketch of {@code text}; {@code mentions} is kept with it for candidate lookup and scoring. */
+    public static Sketch sketch(String text, Map<String, Integer> mentions) {
+        int[] minHashes = new int[HASHES];
+        Arrays.fill(minHashes, Integer.MAX_VALUE);
+        String previous = null;
+        for (String token : MentionMatcher.tokens(text)) {
+            if (STOP_WORDS.contains(token)) {
+                previous = null;
+                continue;
+            }
+            apply(minHashes, hash(token));
+            if (previous != null) {
+                apply(minHashes, hash(previous + ' ' + token));
+            }
+            previous = token;
+        }
+        return new Sketch(minHashes, Map.copyOf(mentions));
+    }
+
+    /** Adds or replaces the article's sketch. */
+    public synchronized void put(long id, Sketch sketch) {
+        remove(id);
+        sketches.put(id, sketch);
+        for (long key : bandKeys(sketch)) {
+            buckets.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+        }
+        for (String mention : sketch.mentions.keySet()) {
+            mentionedIn.computeIfAbsent(mention, k -> new TreeSet<>()).add(id);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        Sketch old = sketches.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (long key : bandKeys(old)) {
+            Set<Long> bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(id) && bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+        for (String mention : old.mentions.keySet()) {
+            Set<Long> ids = mentionedIn.get(mention);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                mentionedIn.remove(mention);
+            }
+        }
+    }
+
+    public synchronized boolean contains(long id) {
+        return sketches.containsKey(id);
+    }
+
+    /** The article's mentions, or an empty map when it is not indexed. */
+    public synchronized Map<String, Integer> mentions(long id) {
+        Sketch sketch = sketches.get(id);
+        return sketch == null ? Map.of() : sketch.mentions;
+    }
+
+    /** Most similar other articles first; empty when the article is not indexed. */
+    public List<Related> related(long id, int limit) {
+        Sketch sketch;
+        Map<Long, Sketch> candidates = new LinkedHashMap<>();
+        synchronized (this) {
+            sketch = sketches.get(id);
+            if (sketch == null) {
+                return List.of();
+            }
+            for (long key : bandKeys(sketch)) {
+                for (Long candidate : buckets.getOrDefault(key, Collections.emptySet())) {
+                    candidates.put(candidate, sketches.get(candidate));
+                }
+            }
+            for (String mention : sketch.mentions.keySet()) {
+                NavigableSet<Long> ids = mentionedIn.get(mention);
+                if (ids == null) {
+                    continue;
+                }
+                Iterator<Long> newestFirst = ids.descendingIterator();
+                for (int taken = 0; taken < MENTION_CANDIDATES && newestFirst.hasNext(); taken++) {
+                    Long candidate = newestFirst.next();
+                    candidates.put(candidate, sketches.get(candidate));
+                }
+            }
+        }
+        candidates.remove(id);
+        List<Related> related = new ArrayList<>(candidates.size());
+        for (Map.Entry<Long, Sketch> candidate : candidates.entrySet()) {
+            double score = score(sketch, candidate.getValue());
+            if (score > 0) {
+                related.add(new Related(candidate.getKey(), score));
+            }
+        }
+        // Ties go to the newer (higher id) article.
+        related.sort(Comparator.comparingDouble(Related::getScore).reversed()
+                .thenComparing(Comparator.comparingLong(Related::getId).reversed()));
+        return related.size() > limit ? related.subList(0, limit) : related;
+    }
+
+    public synchronized int size() {
+        return sketches.size();
+    }
+
+    private static double score(Sketch a, Sketch b) {
+        int equal = 0;
+        int empty = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a.minHashes[i] == b.minHashes[i]) {
+                if (a.minHashes[i] == Integer.MAX_VALUE) {
+                    empty++;
+                } else {
+                    equal++;
+                }
+            }
+        }
+        double text = empty == HASHES ? 0 : (double) equal / HASHES;
+        Set<String> union = new HashSet<>(a.mentions.keySet());
+        union.addAll(b.mentions.keySet());
+        int shared = 0;
+        for (String mention : a.mentions.keySet()) {
+            if (b.mentions.containsKey(mention)) {
+                shared++;
+            }
+        }
+        double mentions = union.isEmpty() ? 0 : (double) shared / union.size();
+        return (1 - MENTION_WEIGHT) * text + MENTION_WEIGHT * mentions;
+    }
+
+    private static long[] bandKeys(Sketch sketch) {
+        long[] keys = new long[BANDS];
+        int used = 0;
+        for (int band = 0; band < BANDS; band++) {
+            int from = band * ROWS;
+            boolean empty = true;
+            long h = band;
+            for (int row = 0; row < ROWS; row++) {
+                int value = sketch.minHashes[from + row];
+                empty &= value == Integer.MAX_VALUE;
+                h = h * 0x100000001B3L ^ value;
+            }
+            // An empty text would otherwise share every band with every other empty text.
+            if (!empty) {
+                keys[used++] = mix(h);
+            }
+        }
+        return used == BANDS ? keys : Arrays.copyOf(keys, used);
+    }
+
+    private static void apply(int[] minHashes, long shingle) {
+        for (int i = 0; i < HASHES; i++) {
+            int h = (int) (mix(shingle ^ SEEDS[i]) >>> 32);
+            if (h < minHashes[i]) {
+                minHashes[i] = h;
+            }
+        }
+    }
+
+    // 64-bit FNV-1a.
+    private static long hash(String shingle) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < shingle.length(); i++) {
+            h ^= shingle.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return h;
+    }
+
+    // SplitMix64 finalizer; turns one shingle hash into HASHES independent-looking ones.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
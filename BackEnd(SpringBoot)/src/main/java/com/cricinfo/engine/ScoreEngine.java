@@ -0,0 +1,316 @@
+package com.cricinfo.engine;
+
+import com.cricinfo.entity.Match;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives run rates, projected totals and a win-probability estimate from the
+ * free-form score and overs strings on {@link Match}. Parsing walks the strings
+ * character by character and all results are written into a reused
+ * {@link ScoreState}, so {@link #compute} does not allocate.
+ */
+@Component
+public class ScoreEngine {
+
+    // Share of batting resources left with n wickets down (simplified DLS curve).
+    private static final double[] WICKET_RESOURCE =
+            {1.0, 0.97, 0.93, 0.87, 0.80, 0.71, 0.60, 0.47, 0.33, 0.18, 0.0};
+
+    private static final double LOGISTIC_SCALE = 1.7;
+
+    private final ThreadLocal<ScoreState> scratch = ThreadLocal.withInitial(ScoreState::new);
+
+    /**
+     * Returns this thread's scratch state filled in for the given match. The
+     * instance is reused by the next call on the same thread.
+     */
+    public ScoreState compute(Match match) {
+        ScoreState state = scratch.get();
+        compute(match.getFormat(), match.getTeam1Score(), match.getTeam1Overs(),
+                match.getTeam2Score(), match.getTeam2Overs(), state);
+        return state;
+    }
+
+    public void compute(String format, String team1Score, String team1Overs,
+                        String team2Score, String team2Overs, ScoreState state) {
+        state.reset();
+        state.maxBalls = maxOvers(format) * 6;
+
+        state.team1Runs = parseRuns(team1Score);
+        state.team1Wickets = parseWickets(team1Score);
+        state.team1Balls = parseBalls(team1Overs);
+        state.team2Runs = parseRuns(team2Score);
+        state.team2Wickets = parseWickets(team2Score);
+        state.team2Balls = parseBalls(team2Overs);
+
+        boolean team1Started = state.team1Runs > 0 || state.team1Balls > 0;
+        boolean team2Started = state.team2Runs > 0 || state.team2Balls > 0;
+        if (!team1Started && !team2Started) {
+            return;
+        }
+
+        if (!team1Started || !team2Started) {
+            state.battingSide = team1Started ? 1 : 2;
+        } else if (state.maxBalls > 0) {
+            // Whoever has finished their innings batted first; when that does not settle it, team1 did.
+            boolean team1Done = inningsOver(team1Score, state.team1Wickets, state.team1Balls, state.maxBalls);
+            boolean team2Done = inningsOver(team2Score, state.team2Wickets, state.team2Balls, state.maxBalls);
+            state.battingSide = team2Done && !team1Done ? 1 : 2;
+            state.target = (state.battingSide == 2 ? state.team1Runs : state.team2Runs) + 1;
+        } else {
+            multiInningsBattingSide(team1Score, team2Score, state);
+        }
+        boolean team1Batting = state.battingSide == 1;
+        int runs = team1Batting ? state.team1Runs : state.team2Runs;
+        int wickets = team1Batting ? state.team1Wickets : state.team2Wickets;
+        int balls = team1Batting ? state.team1Balls : state.team2Balls;
+
+        state.currentRunRate = balls > 0 ? runs * 6.0 / balls : 0.0;
+
+        if (state.maxBalls > 0) {
+            computeLimitedOvers(format, runs, wickets, balls, state);
+        } else {
+            computeUnlimited(runs, wickets, state);
+        }
+    }
+
+    private void computeLimitedOvers(String format, int runs, int wickets, int balls, ScoreState state) {
+        int remaining = Math.max(0, state.maxBalls - balls);
+        state.ballsRemaining = remaining;
+
+        double par = parRate(format);
+        double rate = balls < 12 ? par : state.currentRunRate;
+        double resource = WICKET_RESOURCE[Math.min(wickets, 10)];
+        state.projectedScore = runs + rate * remaining / 6.0 * resource;
+
+        if (state.target > 0) {
+            int need = state.target - runs;
+            state.requiredRunRate = need <= 0 ? 0.0 : (remaining > 0 ? need * 6.0 / remaining : Double.NaN);
+
+            double chaseWin;
+            if (need <= 0) {
+                chaseWin = 1.0;
+            } else if (wickets >= 10 || remaining == 0) {
+                chaseWin = 0.0;
+            } else {
+                double blended = balls < 12 ? par : 0.5 * par + 0.5 * state.currentRunRate;
+                double expected = blended * remaining / 6.0 * resource;
+                double sigma = 0.25 * expected + 6.0;
+                chaseWin = logistic((expected - need) / sigma);
+            }
+            // winProbability is team1's.
+            state.winProbability = state.battingSide == 1 ? chaseWin : 1.0 - chaseWin;
+        } else {
+            double parTotal = par * state.maxBalls / 6.0;
+            double battingFirstWin = logistic((state.projectedScore - parTotal) / (0.15 * parTotal));
+            state.winProbability = state.battingSide == 1 ? battingFirstWin : 1.0 - battingFirstWin;
+        }
+    }
+
+    /*
+     * Tests and first-class games: the side with more innings is batting, or on
+     * equal innings the one whose last innings is still open. Only the fourth
+     * innings is a chase, of the other side's two innings less the batting
+     * side's first.
+     */
+    private static void multiInningsBattingSide(String team1Score, String team2Score, ScoreState state) {
+        int team1Innings = inningsCount(team1Score);
+        int team2Innings = inningsCount(team2Score);
+        boolean team1Open = !inningsOver(team1Score, state.team1Wickets, 0, 0);
+        boolean team2Open = !inningsOver(team2Score, state.team2Wickets, 0, 0);
+        if (team1Innings != team2Innings) {
+            state.battingSide = team1Innings > team2Innings ? 1 : 2;
+        } else if (team1Open != team2Open) {
+            state.battingSide = team1Open ? 1 : 2;
+        } else {
+            state.battingSide = 2;
+        }
+        if (team1Innings + team2Innings == 4) {
+            String own = state.battingSide == 1 ? team1Score : team2Score;
+            String other = state.battingSide == 1 ? team2Score : team1Score;
+            state.target = totalRuns(other) - (totalRuns(own) - parseRuns(own)) + 1;
+        }
+    }
+
+    private void computeUnlimited(int runs, int wickets, ScoreState state) {
+        // No over limit: extrapolate the current average stand over the wickets left,
+        // discounted for the tail. Draws are possible, so no win estimate is given.
+        int lost = Math.min(wickets, 10);
+        double perWicket = lost > 0 ? (double) runs / lost : Math.max(runs, 30);
+        state.projectedScore = runs + perWicket * (10 - lost) * 0.8;
+    }
+
+    private static double logistic(double x) {
+        return 1.0 / (1.0 + Math.exp(-LOGISTIC_SCALE * x));
+    }
+
+    static int maxOvers(String format) {
+        if (format == null) {
+            return 0;
+        }
+        if (format.regionMatches(true, 0, "T20", 0, 3)) {
+            return 20;
+        }
+        if (format.regionMatches(true, 0, "T10", 0, 3)) {
+            return 10;
+        }
+        if (format.regionMatches(true, 0, "ODI", 0, 3) || format.regionMatches(true, 0, "List A", 0, 6)) {
+            return 50;
+        }
+        return 0;
+    }
+
+    static double parRate(String format) {
+        switch (maxOvers(format)) {
+            case 10:
+                return 10.5;
+            case 20:
+                return 8.0;
+            case 50:
+                return 5.4;
+            default:
+                return 3.2;
+        }
+    }
+
+    // "287/4", "287-4" or "310 & 156/3" (last innings counts); missing wickets read as 0.
+    static int parseRuns(String score) {
+        return score == null ? 0 : runsFrom(score, inningsStart(score));
+    }
+
+    // Runs over every innings of "310 & 156/3".
+    static int totalRuns(String score) {
+        if (score == null) {
+            return 0;
+        }
+        int total = 0;
+        int from = 0;
+        while (true) {
+            total += runsFrom(score, from);
+            int amp = score.indexOf('&', from);
+            if (amp < 0) {
+                return total;
+            }
+            from = amp + 1;
+        }
+    }
+
+    static int inningsCount(String score) {
+        if (score == null) {
+            return 0;
+        }
+        int count = 1;
+        for (int i = 0; i < score.length(); i++) {
+            if (score.charAt(i) == '&') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // All out, overs used up, or declared ("420/7d") in the last innings.
+    static boolean inningsOver(String score, int wickets, int balls, int maxBalls) {
+        if (wickets >= 10 || (maxBalls > 0 && balls >= maxBalls)) {
+            return true;
+        }
+        if (score == null) {
+            return false;
+        }
+        for (int i = inningsStart(score); i < score.length(); i++) {
+            char c = score.charAt(i);
+            if (c == 'd' || c == 'D') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int runsFrom(String score, int from) {
+        int i = from;
+        int n = score.length();
+        while (i < n && !isDigit(score.charAt(i)) && score.charAt(i) != '&') {
+            i++;
+        }
+        int runs = 0;
+        while (i < n && isDigit(score.charAt(i))) {
+            runs = runs * 10 + (score.charAt(i) - '0');
+            i++;
+        }
+        return runs;
+    }
+
+    static int parseWickets(String score) {
+        if (score == null) {
+            return 0;
+        }
+        int i = inningsStart(score);
+        int n = score.length();
+        while (i < n && !isDigit(score.charAt(i))) {
+            i++;
+        }
+        while (i < n && isDigit(score.charAt(i))) {
+            i++;
+        }
+        if (i >= n || (score.charAt(i) != '/' && score.charAt(i) != '-')) {
+            return 0;
+        }
+        i++;
+        int wickets = 0;
+        while (i < n && isDigit(score.charAt(i))) {
+            wickets = wickets * 10 + (score.charAt(i) - '0');
+            i++;
+        }
+        return Math.min(wickets, 10);
+    }
+
+    // "45.2" -> 45 overs and 2 balls.
+    static int parseBalls(String overs) {
+        if (overs == null) {
+            return 0;
+        }
+        int i = 0;
+        int n = overs.length();
+        while (i < n && !isDigit(overs.charAt(i))) {
+            i++;
+        }
+        int whole = 0;
+        while (i < n && isDigit(overs.charAt(i))) {
+            whole = whole * 10 + (overs.charAt(i) - '0');
+            i++;
+        }
+        int part = 0;
+        if (i + 1 < n && overs.charAt(i) == '.' && isDigit(overs.charAt(i + 1))) {
+            part = Math.min(overs.charAt(i + 1) - '0', 5);
+        }
+        return whole * 6 + part;
+    }
+
+    private static int inningsStart(String score) {
+        int amp = score.lastIndexOf('&');
+        return amp < 0 ? 0 : amp + 1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    static String formatRate(double rate) {
+        long hundredths = Math.round(Math.max(rate, 0.0) * 100);
+        long fraction = hundredths % 100;
+        return (hundredths / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    /**
+     * Overwrites {@code runRate} and {@code requiredRate} on the match with the
+     * values derived from its scores; {@code requiredRate} is cleared when no
+     * chase is on. A match with no score yet is left as sent.
+     */
+    public void applyDerivedRates(Match match) {
+        ScoreState state = compute(match);
+        if (state.battingSide == 0) {
+            return;
+        }
+        match.setRunRate(formatRate(state.currentRunRate));
+        match.setRequiredRate(Double.isNaN(state.requiredRunRate) ? null : formatRate(state.requiredRunRate));
+    }
+}
@@ -0,0 +1,75 @@
+package com.cricinfo.engine;
+
+/**
+ * Mutable, primitive-only view of a match scoreboard. {@link ScoreEngine} keeps
+ * one per thread as scratch space and overwrites it on every computation, so
+ * recomputation never allocates; copy out what you need before the next call.
+ */
+public final class ScoreState {
+
+    int team1Runs;
+    int team1Wickets;
+    int team1Balls;
+    int team2Runs;
+    int team2Wickets;
+    int team2Balls;
+
+    int maxBalls;
+    int battingSide;
+    int target;
+    int ballsRemaining;
+
+    double currentRunRate;
+    double requiredRunRate;
+    double projectedScore;
+    double winProbability;
+
+    void reset() {
+        team1Runs = team1Wickets = team1Balls = 0;
+        team2Runs = team2Wickets = team2Balls = 0;
+        maxBalls = 0;
+        battingSide = 0;
+        target = -1;
+        ballsRemaining = -1;
+        currentRunRate = 0;
+        requiredRunRate = Double.NaN;
+        projectedScore = Double.NaN;
+        winProbability = Double.NaN;
+    }
+
+    public int getBattingSide() {
+        return battingSide;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public int getBallsRemaining() {
+        return ballsRemaining;
+    }
+
+    public double getCurrentRunRate() {
+        return currentRunRate;
+    }
+
+    public double getRequiredRunRate() {
+        return requiredRunRate;
+    }
+
+    public double getProjectedScore() {
+        return projectedScore;
+    }
+
+    public double getWinProbability() {
+        return winProbability;
+    }
+
+    public boolean isChasing() {
+        return target > 0;
+    }
+
+    public boolean isLimitedOvers() {
+        return maxBalls > 0;
+    }
+}
@@ -0,0 +1,81 @@
+package com.cricinfo.engine;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Fixed-size ring buffer of the most recent scoreboard snapshots of one match.
+ * Versions are supplied by the caller from the stored match row rather than
+ * counted here, so every node names the same scoreboard state with the same
+ * version and a client may send a version it got from another node. The ring
+ * holds a few dozen entries, so lookups simply scan it.
+ */
+public class ScoreboardHistory {
+
+    private final long[] versions;
+    private final Map<String, Object>[] snapshots;
+    private int size;
+    private int latest = -1;
+
+    @SuppressWarnings("unchecked")
+    public ScoreboardHistory(int capacity) {
+        this.versions = new long[capacity];
+        this.snapshots = new Map[capacity];
+    }
+
+    /**
+     * Stores the snapshot under {@code version} if it is newer than the latest
+     * one. Events can arrive out of order across nodes, and an older snapshot
+     * must not become the base that clients are told to diff from. Returns the
+     * latest version either way.
+     */
+    public synchronized long record(long version, Map<String, Object> snapshot) {
+        if (latest < 0 || version > versions[latest]) {
+            latest = (latest + 1) % versions.length;
+            versions[latest] = version;
+            snapshots[latest] = Collections.unmodifiableMap(new LinkedHashMap<>(snapshot));
+            size = Math.min(size + 1, versions.length);
+        }
+        return versions[latest];
+    }
+
+    /** 0 until something is recorded. */
+    public synchronized long latestVersion() {
+        return latest < 0 ? 0 : versions[latest];
+    }
+
+    public synchronized Map<String, Object> latestSnapshot() {
+        return latest < 0 ? null : snapshots[latest];
+    }
+
+    /**
+     * Fields that changed between {@code since} and the latest version, or
+     * {@code null} when {@code since} is no longer (or never was) retained.
+     */
+    public synchronized Map<String, Object> changesSince(long since) {
+        int index = indexOf(since);
+        if (index < 0) {
+            return null;
+        }
+        Map<String, Object> before = snapshots[index];
+        Map<String, Object> after = snapshots[latest];
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : after.entrySet()) {
+            if (!Objects.equals(before.get(entry.getKey()), entry.getValue())) {
+                changes.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return changes;
+    }
+
+    private int indexOf(long version) {
+        for (int i = 0; i < size; i++) {
+            if (versions[i] == version) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,45 @@
+package com.cricinfo.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket expressed as a generic cell rate algorithm: the only
+ * state is the theoretical arrival time of the next request, advanced with a
+ * CAS. A full bucket of {@code burst} tokens refills at {@code ratePerSecond}.
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = intervalNanos * Math.max(burst - 1, 0);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Takes one token. Returns 0 when granted, otherwise the nanoseconds to
+     * wait before a token becomes available.
+     */
+    public long tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = Math.max(tat, now);
+            long waitNanos = start - now - toleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    // A bucket that has fully refilled carries no state worth keeping.
+    public boolean isIdle() {
+        return theoreticalArrival.get() - System.nanoTime() <= 0;
+    }
+}
@@ -0,0 +1,320 @@
+package com.cricinfo.engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Exponentially time-decayed popularity with a top-K per category. Uses
+ * forward decay: a view at time t adds {@code 2^((t - landmark) / halfLife)}
+ * to a score that is never decayed in place, so every score shrinks by the
+ * same factor as time passes and the ranking only changes when views arrive.
+ * Between full rebuilds scores only grow, which is what lets each top-K be a
+ * plain min-heap: an article can only enter by overtaking the current minimum.
+ *
+ * <p>Scores are split into a base (the last value loaded from the store) and
+ * a delta of local views not yet persisted. Values going in and out are
+ * "decayed to time t", independent of the landmark, which moves forward now
+ * and then to keep the weights within double range. All methods synchronize
+ * on the index.
+ */
+public class TrendingIndex {
+
+    // Move the landmark before weights reach 2^64.
+    private static final double MAX_HALF_LIVES = 64;
+
+    public static final class Ranked {
+        private final long id;
+        private final double score;
+
+        Ranked(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    public static final class Drained {
+        private final long views;
+        private final double value;
+
+        Drained(long views, double value) {
+            this.views = views;
+            this.value = value;
+        }
+
+        public long getViews() {
+            return views;
+        }
+
+        /** The drained views' score decayed to the drain time. */
+        public double getValue() {
+            return value;
+        }
+    }
+
+    private static final class Entry {
+        final long id;
+        String category;
+        double base;
+        double delta;
+        long pendingViews;
+        boolean inCategoryTop;
+        boolean inOverallTop;
+
+        Entry(long id, String category) {
+            this.id = id;
+            this.category = category;
+        }
+
+        double score() {
+            return base + delta;
+        }
+    }
+
+    private static final Comparator<Entry> BY_SCORE = Comparator.comparingDouble(Entry::score);
+
+    private final double halfLifeMillis;
+    private final int capacity;
+    private long landmark;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, PriorityQueue<Entry>> categoryTops = new HashMap<>();
+    private final PriorityQueue<Entry> overallTop = new PriorityQueue<>(BY_SCORE);
+
+    public TrendingIndex(long halfLifeMillis, int capacity, long nowMillis) {
+        this.halfLifeMillis = halfLifeMillis;
+        this.capacity = capacity;
+        this.landmark = nowMillis;
+    }
+
+    /** Adds the article, or moves it to another category keeping its score. */
+    public synchronized void put(long id, String category) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            entry = new Entry(id, category);
+            entries.put(id, entry);
+            offer(entry);
+        } else if (!category.equals(entry.category)) {
+            String old = entry.category;
+            boolean wasTop = entry.inCategoryTop;
+            if (wasTop) {
+                categoryTops.get(old).remove(entry);
+                entry.inCategoryTop = false;
+            }
+            entry.category = category;
+            if (wasTop) {
+                rebuildCategory(old);
+            }
+            offerCategory(entry);
+        }
+    }
+
+    public synchronized boolean contains(long id) {
+        return entries.containsKey(id);
+    }
+
+    public synchronized void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        if (entry.inCategoryTop) {
+            categoryTops.get(entry.category).remove(entry);
+            rebuildCategory(entry.category);
+        }
+        if (entry.inOverallTop) {
+            overallTop.remove(entry);
+            rebuildOverall();
+        }
+    }
+
+    /**
+     * Replaces the stored part of the score with {@code value} decayed to
+     * {@code atMillis}. Scores may go down here, so call {@link #rebuildTops()}
+     * after a batch of these.
+     */
+    public synchronized void setBase(long id, double value, long atMillis) {
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            entry.base = value * weight(atMillis);
+        }
+    }
+
+    /** The stored part of the score decayed to {@code nowMillis}, or 0 for an unknown article. */
+    public synchronized double baseValue(long id, long nowMillis) {
+        Entry entry = entries.get(id);
+        return entry == null ? 0 : entry.base / weight(nowMillis);
+    }
+
+    /** Counts one view; false if the article is unknown. */
+    public synchronized boolean view(long id, long nowMillis) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return false;
+        }
+        double weight = weight(nowMillis);
+        if (weight > Math.pow(2, MAX_HALF_LIVES)) {
+            moveLandmark(nowMillis);
+            weight = 1;
+        }
+        PriorityQueue<Entry> categoryTop = categoryTops.get(entry.category);
+        if (entry.inCategoryTop) {
+            categoryTop.remove(entry);
+        }
+        if (entry.inOverallTop) {
+            overallTop.remove(entry);
+        }
+        entry.delta += weight;
+        entry.pendingViews++;
+        if (entry.inCategoryTop) {
+            categoryTop.add(entry);
+        } else {
+            offerCategory(entry);
+        }
+        if (entry.inOverallTop) {
+            overallTop.add(entry);
+        } else {
+            offerOverall(entry);
+        }
+        return true;
+    }
+
+    public synchronized long pendingViews(long id) {
+        Entry entry = entries.get(id);
+        return entry == null ? 0 : entry.pendingViews;
+    }
+
+    /** Highest-scoring articles first; a null category ranks across all of them. */
+    public synchronized List<Ranked> top(String category, int limit, long nowMillis) {
+        PriorityQueue<Entry> heap = category == null ? overallTop : categoryTops.get(category);
+        if (heap == null) {
+            return List.of();
+        }
+        List<Entry> sorted = new ArrayList<>(heap);
+        sorted.sort(BY_SCORE.reversed());
+        double weight = weight(nowMillis);
+        List<Ranked> ranked = new ArrayList<>(Math.min(limit, sorted.size()));
+        for (Entry entry : sorted) {
+            if (ranked.size() == limit) {
+                break;
+            }
+            ranked.add(new Ranked(entry.id, entry.score() / weight));
+        }
+        return ranked;
+    }
+
+    /**
+     * Takes the views counted since the last drain. Their score moves into the
+     * base, so rankings are unchanged until the caller loads the persisted
+     * values back with {@link #setBase}.
+     */
+    public synchronized Map<Long, Drained> drain(long nowMillis) {
+        Map<Long, Drained> drained = new HashMap<>();
+        double weight = weight(nowMillis);
+        for (Entry entry : entries.values()) {
+            if (entry.pendingViews > 0) {
+                drained.put(entry.id, new Drained(entry.pendingViews, entry.delta / weight));
+                entry.base += entry.delta;
+                entry.delta = 0;
+                entry.pendingViews = 0;
+            }
+        }
+        return drained;
+    }
+
+    public synchronized void rebuildTops() {
+        List<String> categories = new ArrayList<>(categoryTops.keySet());
+        for (String category : categories) {
+            rebuildCategory(category);
+        }
+        rebuildOverall();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** {@code value} as of {@code fromMillis}, decayed to {@code toMillis}. */
+    public double decay(double value, long fromMillis, long toMillis) {
+        return value * Math.pow(2, (fromMillis - toMillis) / halfLifeMillis);
+    }
+
+    private double weight(long millis) {
+        return Math.pow(2, (millis - landmark) / halfLifeMillis);
+    }
+
+    // Rescaling every score by the same factor keeps all heaps valid.
+    private void moveLandmark(long nowMillis) {
+        double factor = weight(nowMillis);
+        for (Entry entry : entries.values()) {
+            entry.base /= factor;
+            entry.delta /= factor;
+        }
+        landmark = nowMillis;
+    }
+
+    private void offer(Entry entry) {
+        offerCategory(entry);
+        offerOverall(entry);
+    }
+
+    private void offerCategory(Entry entry) {
+        PriorityQueue<Entry> heap = categoryTops.computeIfAbsent(entry.category, c -> new PriorityQueue<>(BY_SCORE));
+        if (heap.size() < capacity) {
+            heap.add(entry);
+            entry.inCategoryTop = true;
+        } else if (entry.score() > heap.peek().score()) {
+            heap.poll().inCategoryTop = false;
+            heap.add(entry);
+            entry.inCategoryTop = true;
+        }
+    }
+
+    private void offerOverall(Entry entry) {
+        if (overallTop.size() < capacity) {
+            overallTop.add(entry);
+            entry.inOverallTop = true;
+        } else if (entry.score() > overallTop.peek().score()) {
+            overallTop.poll().inOverallTop = false;
+            overallTop.add(entry);
+            entry.inOverallTop = true;
+        }
+    }
+
+    private void rebuildCategory(String category) {
+        PriorityQueue<Entry> heap = categoryTops.get(category);
+        for (Entry entry : heap) {
+            entry.inCategoryTop = false;
+        }
+        heap.clear();
+        for (Entry entry : entries.values()) {
+            if (entry.category.equals(category)) {
+                offerCategory(entry);
+            }
+        }
+        if (heap.isEmpty()) {
+            categoryTops.remove(category);
+        }
+    }
+
+    private void rebuildOverall() {
+        for (Entry entry : overallTop) {
+            entry.inOverallTop = false;
+        }
+        overallTop.clear();
+        for (Entry entry : entries.values()) {
+            offerOverall(entry);
+        }
+    }
+}
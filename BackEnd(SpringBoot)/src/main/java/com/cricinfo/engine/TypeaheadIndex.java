@@ -0,0 +1,361 @@
+package com.cricinfo.engine;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Weighted prefix index over display strings. Every string is stored under its
+ * accent-folded full form and under each suffix that starts a word, so "koh",
+ * "virat k" and "cricket gr" all find their targets. Each trie node caches its top entries,
+ * which writes clear along the affected paths. Queries of four or more
+ * characters fall back to edit-distance matching when exact prefixes are scarce.
+ *
+ * <p>Entries are reference-counted per source (e.g. "MATCH:12"), so the weight
+ * of a venue or team is the number of records that mention it.
+ */
+public class TypeaheadIndex {
+
+    public static final class Entry {
+        private final String type;
+        private final String text;
+        private final String normalized;
+        private int weight;
+
+        Entry(String type, String text, String normalized) {
+            this.type = type;
+            this.text = text;
+            this.normalized = normalized;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+    }
+
+    public static final class Match {
+        private final Entry entry;
+        private final boolean fuzzy;
+
+        Match(Entry entry, boolean fuzzy) {
+            this.entry = entry;
+            this.fuzzy = fuzzy;
+        }
+
+        public Entry getEntry() {
+            return entry;
+        }
+
+        public boolean isFuzzy() {
+            return fuzzy;
+        }
+    }
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern APOSTROPHES = Pattern.compile("['\u2019]");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Entry> BY_RANK = Comparator
+            .comparingInt((Entry e) -> -e.weight)
+            .thenComparingInt(e -> e.text.length())
+            .thenComparing(e -> e.text);
+
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        List<Entry> entries;
+        volatile Entry[] top;
+
+        Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char c) {
+            Node existing = child(c);
+            if (existing != null) {
+                return existing;
+            }
+            Node created = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = c;
+            children[children.length - 1] = created;
+            return created;
+        }
+    }
+
+    private final int cachedTop;
+    private final Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, List<Entry>> sources = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TypeaheadIndex(int cachedTop) {
+        this.cachedTop = cachedTop;
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        folded = APOSTROPHES.matcher(folded).replaceAll("");
+        return NON_ALNUM.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Replaces everything previously contributed by {@code source} with the given
+     * (type, text) pairs. Passing no terms removes the source.
+     */
+    public void put(String source, List<String[]> terms) {
+        lock.writeLock().lock();
+        try {
+            List<Entry> previous = sources.remove(source);
+            if (previous != null) {
+                for (Entry entry : previous) {
+                    release(entry);
+                }
+            }
+            List<Entry> current = new ArrayList<>();
+            for (String[] term : terms) {
+                Entry entry = acquire(term[0], term[1]);
+                if (entry != null) {
+                    current.add(entry);
+                }
+            }
+            if (!current.isEmpty()) {
+                sources.put(source, current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            sources.clear();
+            root.keys = new char[0];
+            root.children = new Node[0];
+            root.entries = null;
+            root.top = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Match> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Entry> exact = new LinkedHashSet<>();
+            Node node = find(prefix);
+            if (node != null) {
+                Entry[] top = topOf(node);
+                for (int i = 0; i < top.length && exact.size() < limit; i++) {
+                    exact.add(top[i]);
+                }
+                if (exact.size() < limit && top.length == cachedTop) {
+                    exact.addAll(collectSorted(node, limit));
+                }
+            }
+
+            List<Match> results = new ArrayList<>();
+            for (Entry entry : exact) {
+                if (results.size() == limit) {
+                    break;
+                }
+                results.add(new Match(entry, false));
+            }
+
+            int maxDistance = prefix.length() >= 8 ? 2 : prefix.length() >= 4 ? 1 : 0;
+            if (results.size() < limit && maxDistance > 0) {
+                List<Entry> fuzzy = new ArrayList<>();
+                int[] firstRow = new int[prefix.length() + 1];
+                for (int i = 0; i < firstRow.length; i++) {
+                    firstRow[i] = i;
+                }
+                for (int i = 0; i < root.keys.length; i++) {
+                    fuzzyWalk(root.children[i], root.keys[i], prefix, firstRow, maxDistance, fuzzy);
+                }
+                fuzzy.sort(BY_RANK);
+                for (Entry entry : fuzzy) {
+                    if (results.size() == limit) {
+                        break;
+                    }
+                    if (!exact.contains(entry)) {
+                        exact.add(entry);
+                        results.add(new Match(entry, true));
+                    }
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Entry acquire(String type, String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String key = type + '|' + text.trim();
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(type, text.trim(), normalize(text));
+            if (entry.normalized.isEmpty()) {
+                return null;
+            }
+            entries.put(key, entry);
+            for (String term : termsOf(entry)) {
+                Node node = root;
+                node.top = null;
+                for (int i = 0; i < term.length(); i++) {
+                    node = node.childOrCreate(term.charAt(i));
+                    node.top = null;
+                }
+                if (node.entries == null) {
+                    node.entries = new ArrayList<>(1);
+                }
+                node.entries.add(entry);
+            }
+        } else {
+            invalidatePaths(entry);
+        }
+        entry.weight++;
+        return entry;
+    }
+
+    private void release(Entry entry) {
+        entry.weight--;
+        invalidatePaths(entry);
+        if (entry.weight > 0) {
+            return;
+        }
+        entries.remove(entry.type + '|' + entry.text);
+        for (String term : termsOf(entry)) {
+            Node node = find(term);
+            if (node != null && node.entries != null) {
+                node.entries.remove(entry);
+            }
+        }
+    }
+
+    private void invalidatePaths(Entry entry) {
+        for (String term : termsOf(entry)) {
+            Node node = root;
+            node.top = null;
+            for (int i = 0; i < term.length() && node != null; i++) {
+                node = node.child(term.charAt(i));
+                if (node != null) {
+                    node.top = null;
+                }
+            }
+        }
+    }
+
+    // The full string plus every suffix starting at a word boundary.
+    private static Set<String> termsOf(Entry entry) {
+        Set<String> terms = new LinkedHashSet<>();
+        String text = entry.normalized;
+        terms.add(text);
+        for (int i = text.indexOf(' '); i >= 0; i = text.indexOf(' ', i + 1)) {
+            terms.add(text.substring(i + 1));
+        }
+        return terms;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private Entry[] topOf(Node node) {
+        Entry[] top = node.top;
+        if (top == null) {
+            top = collectSorted(node, cachedTop).toArray(new Entry[0]);
+            node.top = top;
+        }
+        return top;
+    }
+
+    private List<Entry> collectSorted(Node node, int limit) {
+        Set<Entry> all = new LinkedHashSet<>();
+        collect(node, all);
+        List<Entry> sorted = new ArrayList<>(all);
+        sorted.sort(BY_RANK);
+        return sorted.size() > limit ? sorted.subList(0, limit) : sorted;
+    }
+
+    private static void collect(Node node, Set<Entry> into) {
+        if (node.entries != null) {
+            into.addAll(node.entries);
+        }
+        for (Node child : node.children) {
+            collect(child, into);
+        }
+    }
+
+    // Levenshtein rows carried down the trie; a node matches when the whole query
+    // is within maxDistance of the path so far, and its subtree is collected.
+    private static void fuzzyWalk(Node node, char c, String query, int[] previous, int maxDistance, List<Entry> into) {
+        int[] row = new int[previous.length];
+        row[0] = previous[0] + 1;
+        int best = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int cost = query.charAt(i - 1) == c ? 0 : 1;
+            row[i] = Math.min(Math.min(row[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+            best = Math.min(best, row[i]);
+        }
+        if (row[row.length - 1] <= maxDistance) {
+            Set<Entry> found = new LinkedHashSet<>();
+            collect(node, found);
+            into.addAll(found);
+            return;
+        }
+        if (best > maxDistance) {
+            return;
+        }
+        for (int i = 0; i < node.keys.length; i++) {
+            fuzzyWalk(node.children[i], node.keys[i], query, row, maxDistance, into);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.cricinfo.entity;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row written in the same transaction as the entity change it records.
+ * The id doubles as the change-feed cursor.
+ */
+@Entity
+@Table(name = "change_outbox", indexes = @Index(name = "idx_change_outbox_created", columnList = "created_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private String entityType;
+
+    @Column(name = "change_type", nullable = false, length = 20)
+    private String changeType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    // Entity as JSON after the change; null for deletes.
+    @Column(columnDefinition = "TEXT")
+    @JsonRawValue
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
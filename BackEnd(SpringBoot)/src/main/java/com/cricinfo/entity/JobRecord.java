@@ -0,0 +1,80 @@
+package com.cricinfo.entity;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted state of a background job. Status moves QUEUED -> RUNNING ->
+ * SUCCEEDED / FAILED / CANCELLED; updatedAt doubles as the owning node's
+ * heartbeat.
+ */
+@Entity
+@Table(name = "jobs", indexes = @Index(name = "idx_jobs_status_updated", columnList = "status, updated_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    // HIGH, NORMAL or LOW
+    @Column(nullable = false, length = 10)
+    private String priority;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    // Job parameters as a JSON object of strings.
+    @Column(columnDefinition = "TEXT")
+    @JsonRawValue
+    private String params;
+
+    // Percent complete, 0..100.
+    @Column(nullable = false)
+    private Integer progress = 0;
+
+    // Current step while running, outcome or error once finished.
+    @Column(length = 1000)
+    private String message;
+
+    @Column(name = "cancel_requested", nullable = false)
+    private Boolean cancelRequested = false;
+
+    // Node whose queue holds the job.
+    @JsonIgnore
+    @Column(length = 36)
+    private String node;
+
+    @Column(name = "created_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "updated_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+}
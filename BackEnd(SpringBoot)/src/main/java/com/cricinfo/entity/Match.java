@@ -2,15 +2,19 @@ package com.cricinfo.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @Entity
-@Table(name = "matches")
+@Table(name = "matches", indexes = {
+        @Index(name = "idx_matches_start_time", columnList = "start_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -62,7 +66,10 @@ public class Match {
     @Column(name = "required_rate")
     private String requiredRate;
 
+    // Lazy, so list queries do not issue a select per match. The repository fetches it with the
+    // queries whose results outlive their session; elsewhere it loads in batches on first access.
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "match_current_batsmen", joinColumns = @JoinColumn(name = "match_id"))
     @Column(name = "batsman")
     private List<String> currentBatsmen;
@@ -96,14 +103,15 @@ public class Match {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime updatedAt;
 
+    // Truncated to the column's precision so the in-memory value matches what is stored; it versions the scoreboard.
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        updatedAt = createdAt.truncatedTo(ChronoUnit.MICROS);
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
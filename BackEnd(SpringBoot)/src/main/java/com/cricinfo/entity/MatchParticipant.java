@@ -0,0 +1,46 @@
+package com.cricinfo.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per side of a {@link Match}, so "matches of team X" and head-to-head
+ * lookups are single index range scans instead of an OR over two columns.
+ * Maintained by MatchService on every match write.
+ */
+@Entity
+@Table(name = "match_participants",
+        uniqueConstraints = @UniqueConstraint(name = "uk_match_participants_match_slot", columnNames = {"match_id", "slot"}),
+        indexes = {
+                @Index(name = "idx_match_participants_team_start", columnList = "team_name, start_time"),
+                @Index(name = "idx_match_participants_team_opponent_start", columnList = "team_name, opponent_name, start_time")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchParticipant {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "match_id", nullable = false)
+    private Match match;
+
+    @Column(nullable = false)
+    private Integer slot;
+
+    @Column(name = "team_name", nullable = false)
+    private String teamName;
+
+    @Column(name = "opponent_name", nullable = false)
+    private String opponentName;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+}
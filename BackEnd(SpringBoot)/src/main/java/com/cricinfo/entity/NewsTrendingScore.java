@@ -0,0 +1,30 @@
+package com.cricinfo.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted trending score of a news article: the time-decayed view score as
+ * of {@code scoredAt}. Nodes merge their local views into it, so it reflects
+ * views seen by the whole cluster.
+ */
+@Entity
+@Table(name = "news_trending")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewsTrendingScore {
+    @Id
+    @Column(name = "article_id")
+    private Long articleId;
+
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(name = "scored_at", nullable = false)
+    private LocalDateTime scoredAt;
+}
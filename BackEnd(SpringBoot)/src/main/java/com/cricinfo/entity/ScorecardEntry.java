@@ -0,0 +1,64 @@
+package com.cricinfo.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * One player's batting and bowling figures for one innings of a match. A player
+ * who only bowled has zero balls faced and {@code batted = false}.
+ */
+@Entity
+@Table(name = "scorecard_entries",
+        indexes = {
+                @Index(name = "idx_scorecard_entries_match", columnList = "match_id, innings"),
+                @Index(name = "idx_scorecard_entries_player", columnList = "player_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScorecardEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "match_id", nullable = false)
+    private Long matchId;
+
+    @Column(name = "player_id", nullable = false)
+    private Long playerId;
+
+    @Column(name = "team_name", nullable = false)
+    private String team;
+
+    @Column(nullable = false)
+    private Integer innings = 1;
+
+    @Column(nullable = false)
+    private Boolean batted = true;
+
+    @Column(name = "not_out", nullable = false)
+    private Boolean notOut = false;
+
+    @Column(nullable = false)
+    private Integer runs = 0;
+
+    @Column(name = "balls_faced", nullable = false)
+    private Integer ballsFaced = 0;
+
+    @Column(nullable = false)
+    private Integer fours = 0;
+
+    @Column(nullable = false)
+    private Integer sixes = 0;
+
+    @Column(name = "balls_bowled", nullable = false)
+    private Integer ballsBowled = 0;
+
+    @Column(name = "runs_conceded", nullable = false)
+    private Integer runsConceded = 0;
+
+    @Column(nullable = false)
+    private Integer wickets = 0;
+}
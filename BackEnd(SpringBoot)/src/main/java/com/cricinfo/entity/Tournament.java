@@ -9,7 +9,9 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tournaments")
+@Table(name = "tournaments", indexes = {
+        @Index(name = "idx_tournaments_start_date", columnList = "start_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
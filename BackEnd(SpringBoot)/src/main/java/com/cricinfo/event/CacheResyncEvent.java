@@ -0,0 +1,14 @@
+package com.cricinfo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Asks every in-memory index and cache to rebuild from the database, e.g. after
+ * this node missed invalidation messages from a peer.
+ */
+@Data
+@AllArgsConstructor
+public class CacheResyncEvent {
+    private String reason;
+}
@@ -0,0 +1,50 @@
+package com.cricinfo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published by the service layer after every create, update and delete so
+ * in-memory indexes and caches can follow writes without polling. For deletes
+ * {@code entity} is the instance as it was before removal. {@code ARCHIVED}
+ * means the row moved to the cold tier: it left the table, but lists and
+ * indexes keep showing it from the archive, so it is not recorded in the
+ * change feed.
+ *
+ * <p>Events replayed from a peer node are marked {@code remote}; for those,
+ * {@code entity} is freshly reloaded for creates and updates and null for deletes.
+ */
+@Data
+@AllArgsConstructor
+public class EntityChangeEvent {
+
+    public enum EntityType {
+        MATCH,
+        NEWS,
+        PLAYER,
+        TEAM,
+        TOURNAMENT
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        ARCHIVED
+    }
+
+    private EntityType entityType;
+    private ChangeType changeType;
+    private Long entityId;
+    private Object entity;
+    private boolean remote;
+
+    public EntityChangeEvent(EntityType entityType, ChangeType changeType, Long entityId, Object entity) {
+        this(entityType, changeType, entityId, entity, false);
+    }
+
+    /** True when the entity left the hot tables, by delete or by archiving. */
+    public boolean isRemoval() {
+        return changeType == ChangeType.DELETED || changeType == ChangeType.ARCHIVED;
+    }
+}
@@ -0,0 +1,16 @@
+package com.cricinfo.event;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport for {@link InvalidationMessage}s between backend nodes. Selected with
+ * {@code cricinfo.invalidation.transport}; delivery is best-effort, and gaps are
+ * detected by the receiver from sequence numbers.
+ */
+public interface InvalidationBus {
+
+    void send(InvalidationMessage message);
+
+    /** Registers the single handler for messages from other nodes. */
+    void onMessage(Consumer<InvalidationMessage> handler);
+}
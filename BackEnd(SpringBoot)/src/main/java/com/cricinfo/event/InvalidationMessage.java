@@ -0,0 +1,75 @@
+package com.cricinfo.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * One entity change as sent between nodes. {@code sequence} increases by one per
+ * message from a node, so receivers can spot gaps. Heartbeats carry the
+ * sender's latest sequence and no entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvalidationMessage {
+
+    private static final int MAGIC = 0x43494e56;
+    private static final byte VERSION = 1;
+
+    private UUID nodeId;
+    private long sequence;
+    private boolean heartbeat;
+    private EntityChangeEvent.EntityType entityType;
+    private EntityChangeEvent.ChangeType changeType;
+    private Long entityId;
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(nodeId.getMostSignificantBits());
+            out.writeLong(nodeId.getLeastSignificantBits());
+            out.writeLong(sequence);
+            out.writeBoolean(heartbeat);
+            if (!heartbeat) {
+                out.writeByte(entityType.ordinal());
+                out.writeByte(changeType.ordinal());
+                out.writeLong(entityId);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Returns null for datagrams that are not ours or from another protocol version. */
+    public static InvalidationMessage decode(byte[] data, int offset, int length) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, length))) {
+            if (length < 5 || in.readInt() != MAGIC || in.readByte() != VERSION) {
+                return null;
+            }
+            InvalidationMessage message = new InvalidationMessage();
+            message.nodeId = new UUID(in.readLong(), in.readLong());
+            message.sequence = in.readLong();
+            message.heartbeat = in.readBoolean();
+            if (!message.heartbeat) {
+                message.entityType = EntityChangeEvent.EntityType.values()[in.readByte()];
+                message.changeType = EntityChangeEvent.ChangeType.values()[in.readByte()];
+                message.entityId = in.readLong();
+            }
+            return message;
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.cricinfo.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Single-node transport: there are no peers, so messages go nowhere.
+ */
+@Component
+@ConditionalOnProperty(name = "cricinfo.invalidation.transport", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationBus implements InvalidationBus {
+
+    @Override
+    public void send(InvalidationMessage message) {
+    }
+
+    @Override
+    public void onMessage(Consumer<InvalidationMessage> handler) {
+    }
+}
@@ -0,0 +1,112 @@
+package com.cricinfo.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.StandardSocketOptions;
+import java.util.function.Consumer;
+
+/**
+ * UDP multicast transport. Every node joins the same group and port; loopback
+ * is enabled so several JVMs on one machine see each other, which is enough to
+ * try the bus locally. Keep the TTL at 1 unless routers are set up for multicast.
+ */
+@Component
+@ConditionalOnProperty(name = "cricinfo.invalidation.transport", havingValue = "multicast")
+public class MulticastInvalidationBus implements InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(MulticastInvalidationBus.class);
+
+    private static final int MAX_DATAGRAM = 512;
+
+    @Value("${cricinfo.invalidation.multicast.group:239.255.42.99}")
+    private String group;
+
+    @Value("${cricinfo.invalidation.multicast.port:4446}")
+    private int port;
+
+    @Value("${cricinfo.invalidation.multicast.ttl:1}")
+    private int ttl;
+
+    @Value("${cricinfo.invalidation.multicast.interface:}")
+    private String interfaceName;
+
+    private volatile Consumer<InvalidationMessage> handler = message -> { };
+    private MulticastSocket socket;
+    private InetSocketAddress groupAddress;
+    private Thread receiver;
+
+    @PostConstruct
+    public void open() throws IOException {
+        groupAddress = new InetSocketAddress(InetAddress.getByName(group), port);
+        NetworkInterface networkInterface = interfaceName.isBlank() ? null : NetworkInterface.getByName(interfaceName);
+        socket = new MulticastSocket(port);
+        socket.setTimeToLive(ttl);
+        socket.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+        if (networkInterface != null) {
+            socket.setNetworkInterface(networkInterface);
+        }
+        socket.joinGroup(groupAddress, networkInterface);
+        receiver = new Thread(this::receive, "invalidation-bus");
+        receiver.setDaemon(true);
+        receiver.start();
+        log.info("Invalidation bus joined {}:{}", group, port);
+    }
+
+    @PreDestroy
+    public void close() {
+        Thread thread = receiver;
+        receiver = null;
+        socket.close();
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public void send(InvalidationMessage message) {
+        byte[] data = message.encode();
+        try {
+            socket.send(new DatagramPacket(data, data.length, groupAddress));
+        } catch (IOException e) {
+            // Peers notice the skipped sequence number and resync.
+            log.warn("Dropped invalidation message {}: {}", message.getSequence(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Consumer<InvalidationMessage> handler) {
+        this.handler = handler;
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[MAX_DATAGRAM];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (receiver != null) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                InvalidationMessage message = InvalidationMessage.decode(packet.getData(), packet.getOffset(), packet.getLength());
+                if (message != null) {
+                    handler.accept(message);
+                }
+            } catch (SocketException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to handle invalidation message: {}", e.getMessage());
+            }
+        }
+    }
+}
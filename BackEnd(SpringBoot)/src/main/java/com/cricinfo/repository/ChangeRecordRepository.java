@@ -0,0 +1,30 @@
+package com.cricinfo.repository;
+
+import com.cricinfo.entity.ChangeRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ChangeRecordRepository extends JpaRepository<ChangeRecord, Long> {
+
+    @Query("SELECT c FROM ChangeRecord c WHERE c.id > ?1 ORDER BY c.id ASC")
+    List<ChangeRecord> findAfter(Long id, Pageable pageable);
+
+    @Query("SELECT MAX(c.id) FROM ChangeRecord c")
+    Long findMaxId();
+
+    @Query("SELECT MIN(c.id) FROM ChangeRecord c")
+    Long findMinId();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ChangeRecord c WHERE c.createdAt < ?1")
+    int deleteOlderThan(LocalDateTime cutoff);
+}
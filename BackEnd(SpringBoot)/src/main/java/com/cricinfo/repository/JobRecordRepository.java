@@ -0,0 +1,79 @@
+package com.cricinfo.repository;
+
+import com.cricinfo.entity.JobRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * State changes are single-row conditional updates rather than saves of a
+ * loaded entity, so a cancel request and a worker's progress write never
+ * overwrite each other.
+ */
+@Repository
+public interface JobRecordRepository extends JpaRepository<JobRecord, Long> {
+
+    @Query("SELECT j FROM JobRecord j ORDER BY j.id DESC")
+    List<JobRecord> findRecent(Pageable pageable);
+
+    @Query("SELECT j FROM JobRecord j WHERE j.status = ?1 ORDER BY j.id DESC")
+    List<JobRecord> findRecentByStatus(String status, Pageable pageable);
+
+    @Query("SELECT j FROM JobRecord j WHERE j.status = ?1 AND j.updatedAt < ?2")
+    List<JobRecord> findStale(String status, LocalDateTime cutoff);
+
+    @Query("SELECT COUNT(j) > 0 FROM JobRecord j WHERE j.type = ?1 AND j.status IN ('QUEUED', 'RUNNING')")
+    boolean existsActive(String type);
+
+    boolean existsByTypeAndStatus(String type, String status);
+
+    @Query("SELECT j.cancelRequested FROM JobRecord j WHERE j.id = ?1")
+    Boolean isCancelRequested(Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobRecord j SET j.status = 'RUNNING', j.startedAt = ?2, j.updatedAt = ?2 " +
+           "WHERE j.id = ?1 AND j.status = 'QUEUED' AND j.cancelRequested = false")
+    int markRunning(Long id, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobRecord j SET j.progress = ?2, j.message = ?3, j.updatedAt = ?4 WHERE j.id = ?1")
+    int updateProgress(Long id, int progress, String message, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobRecord j SET j.status = ?2, j.progress = ?3, j.message = ?4, j.finishedAt = ?5, " +
+           "j.updatedAt = ?5 WHERE j.id = ?1 AND j.status IN ('QUEUED', 'RUNNING')")
+    int finish(Long id, String status, int progress, String message, LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobRecord j SET j.cancelRequested = true WHERE j.id = ?1 AND j.status IN ('QUEUED', 'RUNNING')")
+    int requestCancel(Long id);
+
+    // Heartbeat for jobs this node holds.
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobRecord j SET j.updatedAt = ?2 WHERE j.id IN ?1 AND j.status IN ('QUEUED', 'RUNNING')")
+    int touch(Collection<Long> ids, LocalDateTime now);
+
+    // Takes over a queued job whose node stopped sending heartbeats; 0 if another node got it first.
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobRecord j SET j.node = ?2, j.updatedAt = ?3 " +
+           "WHERE j.id = ?1 AND j.status = 'QUEUED' AND j.updatedAt < ?4")
+    int claim(Long id, String node, LocalDateTime now, LocalDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM JobRecord j WHERE j.finishedAt < ?1")
+    int deleteFinishedBefore(LocalDateTime cutoff);
+}
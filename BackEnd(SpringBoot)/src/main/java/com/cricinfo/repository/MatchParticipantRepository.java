@@ -0,0 +1,31 @@
+package com.cricinfo.repository;
+
+import com.cricinfo.entity.Match;
+import com.cricinfo.entity.MatchParticipant;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MatchParticipantRepository extends JpaRepository<MatchParticipant, Long> {
+
+    @Query("SELECT p.match FROM MatchParticipant p WHERE p.teamName = ?1 ORDER BY p.startTime DESC")
+    List<Match> findMatchesByTeam(String team, Pageable pageable);
+
+    @Query("SELECT p.match FROM MatchParticipant p WHERE p.teamName = ?1 AND p.opponentName = ?2 ORDER BY p.startTime DESC")
+    List<Match> findHeadToHead(String team, String opponent, Pageable pageable);
+
+    @Query("SELECT p FROM MatchParticipant p WHERE p.match.id = ?1")
+    List<MatchParticipant> findByMatchId(Long matchId);
+
+    @Modifying
+    @Query("DELETE FROM MatchParticipant p WHERE p.match.id = ?1")
+    void deleteByMatchId(Long matchId);
+
+    @Query("SELECT m FROM Match m WHERE NOT EXISTS (SELECT p FROM MatchParticipant p WHERE p.match = m)")
+    List<Match> findMatchesWithoutParticipants();
+}
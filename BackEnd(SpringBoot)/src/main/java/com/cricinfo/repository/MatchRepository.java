@@ -1,34 +1,85 @@
 package com.cricinfo.repository;
 
 import com.cricinfo.entity.Match;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MatchRepository extends JpaRepository<Match, Long> {
 
+    // Results of these are shared across threads (single-flight, cached pages, replays) and used
+    // after their session closes, so the batsmen come with the match rather than lazily.
+    @Override
+    @EntityGraph(attributePaths = "currentBatsmen")
+    Optional<Match> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "currentBatsmen")
+    List<Match> findAll();
+
+    // Read in fetch-size chunks for streaming responses; call inside a transaction and close the stream.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @EntityGraph(attributePaths = "currentBatsmen")
+    @Query("SELECT m FROM Match m ORDER BY m.id")
+    Stream<Match> streamAll();
+
+    @Query("SELECT m.id FROM Match m WHERE m.id > ?1 ORDER BY m.id")
+    List<Long> findIdsAfter(Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "currentBatsmen")
     @Query("SELECT m FROM Match m WHERE m.status = 'LIVE' ORDER BY m.startTime DESC")
     List<Match> findLiveMatches();
 
+    @EntityGraph(attributePaths = "currentBatsmen")
     @Query("SELECT m FROM Match m WHERE m.status NOT IN ('LIVE', 'Upcoming') ORDER BY m.startTime DESC")
     List<Match> findRecentMatches();
 
+    @EntityGraph(attributePaths = "currentBatsmen")
     @Query("SELECT m FROM Match m WHERE m.status = 'Upcoming' ORDER BY m.startTime ASC")
     List<Match> findUpcomingMatches();
 
+    @EntityGraph(attributePaths = "currentBatsmen")
     @Query("SELECT m FROM Match m WHERE m.startTime BETWEEN ?1 AND ?2 ORDER BY m.startTime ASC")
     List<Match> findMatchesByDateRange(LocalDateTime startDate, LocalDateTime endDate);
 
-    @Query("SELECT m FROM Match m WHERE m.team1 = ?1 OR m.team2 = ?1 ORDER BY m.startTime DESC")
-    List<Match> findMatchesByTeam(String team);
-
+    @EntityGraph(attributePaths = "currentBatsmen")
     @Query("SELECT m FROM Match m WHERE m.series = ?1 ORDER BY m.startTime ASC")
     List<Match> findMatchesBySeries(String series);
 
+    @EntityGraph(attributePaths = "currentBatsmen")
     @Query("SELECT m FROM Match m WHERE m.format = ?1 ORDER BY m.startTime DESC")
     List<Match> findMatchesByFormat(String format);
+
+    @Query("SELECT m FROM Match m WHERE LOWER(m.team1) LIKE LOWER(CONCAT('%', ?1, '%')) " +
+            "OR LOWER(m.team2) LIKE LOWER(CONCAT('%', ?1, '%')) " +
+            "OR LOWER(m.series) LIKE LOWER(CONCAT('%', ?1, '%')) " +
+            "OR LOWER(m.venue) LIKE LOWER(CONCAT('%', ?1, '%')) " +
+            "ORDER BY m.startTime DESC")
+    List<Match> searchMatches(String query, Pageable pageable);
+
+    // Only the columns the analytics store keeps, without loading entities.
+    @Query("SELECT m.id, m.team1, m.team2, m.team1Score, m.team2Score, m.status, m.venue, m.series, " +
+            "m.format, m.startTime, m.matchDateTime FROM Match m")
+    List<Object[]> findAnalyticsColumns();
+
+    // Fixtures with a status transition still ahead of them (index: status, start_time).
+    @Query("SELECT m.id, m.status, m.startTime, m.endTime FROM Match m WHERE m.status IN ('Upcoming', 'LIVE')")
+    List<Object[]> findPendingTransitions();
+
+    // Compare-and-set for scheduled transitions: when several nodes fire the same one, only one matches.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Match m SET m.status = ?3, m.updatedAt = ?4 WHERE m.id = ?1 AND LOWER(m.status) = LOWER(?2)")
+    int updateStatusIfCurrent(Long id, String expected, String next, LocalDateTime now);
 }
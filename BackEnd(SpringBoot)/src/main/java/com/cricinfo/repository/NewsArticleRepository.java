@@ -1,12 +1,22 @@
 package com.cricinfo.repository;
 
 import com.cricinfo.entity.NewsArticle;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface NewsArticleRepository extends JpaRepository<NewsArticle, Long> {
@@ -17,6 +27,11 @@ public interface NewsArticleRepository extends JpaRepository<NewsArticle, Long>
     @Query("SELECT n FROM NewsArticle n ORDER BY n.publishedAt DESC")
     List<NewsArticle> findAllOrderByPublishedAtDesc();
 
+    // Read in fetch-size chunks for streaming responses; call inside a transaction and close the stream.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT n FROM NewsArticle n ORDER BY n.publishedAt DESC")
+    Stream<NewsArticle> streamAllOrderByPublishedAtDesc();
+
     @Query("SELECT n FROM NewsArticle n WHERE n.category = ?1 ORDER BY n.publishedAt DESC")
     List<NewsArticle> findByCategory(String category);
 
@@ -29,9 +44,36 @@ public interface NewsArticleRepository extends JpaRepository<NewsArticle, Long>
             "ORDER BY n.publishedAt DESC")
     List<NewsArticle> searchNews(@Param("query") String query);
 
+    // Unified search: only the columns a hit shows, never the article body.
+    @Query("SELECT n.id, n.title, n.summary, n.category, n.author, n.publishedAt FROM NewsArticle n " +
+            "WHERE LOWER(n.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "OR LOWER(n.summary) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "OR LOWER(n.content) LIKE LOWER(CONCAT('%', :query, '%')) " +
+            "ORDER BY n.publishedAt DESC")
+    List<Object[]> searchNewsHeadlines(@Param("query") String query, Pageable pageable);
+
     @Query("SELECT DISTINCT n.category FROM NewsArticle n ORDER BY n.category")
     List<String> findAllCategories();
 
     @Query("SELECT DISTINCT n.author FROM NewsArticle n ORDER BY n.author")
     List<String> findAllAuthors();
+
+    // Everything the trending list shows, without the article body.
+    @Query("SELECT n.id, n.title, n.summary, n.imageUrl, n.category, n.author, n.publishedAt, n.readTime, " +
+            "n.views, n.comments FROM NewsArticle n")
+    List<Object[]> findTrendingColumns();
+
+    @Modifying
+    @Query(value = "UPDATE news_articles SET views = views + ?2 WHERE id = ?1", nativeQuery = true)
+    int addViews(Long id, int count);
+
+    @Query("SELECT n.id FROM NewsArticle n WHERE n.publishedAt < ?1 AND n.featured = false ORDER BY n.publishedAt ASC")
+    List<Long> findUnfeaturedIdsPublishedBefore(LocalDateTime cutoff);
+
+    @Query("SELECT n.id FROM NewsArticle n WHERE n.id BETWEEN ?1 AND ?2")
+    List<Long> findIdsBetween(Long from, Long to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM NewsArticle n WHERE n.id IN ?1 ORDER BY n.id ASC")
+    List<NewsArticle> findAllForUpdate(Collection<Long> ids);
 }
@@ -0,0 +1,20 @@
+package com.cricinfo.repository;
+
+import com.cricinfo.entity.NewsTrendingScore;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NewsTrendingScoreRepository extends JpaRepository<NewsTrendingScore, Long> {
+
+    // Row locks so nodes flushing at the same time merge instead of overwriting each other.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM NewsTrendingScore s WHERE s.articleId IN ?1")
+    List<NewsTrendingScore> findAllForUpdate(Collection<Long> articleIds);
+}
@@ -1,15 +1,25 @@
 package com.cricinfo.repository;
 
 import com.cricinfo.entity.Player;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PlayerRepository extends JpaRepository<Player, Long> {
 
+    // Read in fetch-size chunks for streaming responses; call inside a transaction and close the stream.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT p FROM Player p ORDER BY p.id")
+    Stream<Player> streamAll();
+
     @Query("SELECT p FROM Player p WHERE p.active = true ORDER BY CAST(p.runs AS int) DESC")
     List<Player> findTopPlayersByRuns();
 
@@ -25,9 +35,15 @@ public interface PlayerRepository extends JpaRepository<Player, Long> {
     @Query("SELECT p FROM Player p WHERE p.position = ?1 AND p.active = true ORDER BY CAST(p.runs AS int) DESC")
     List<Player> findPlayersByPosition(String position);
 
-    @Query("SELECT p FROM Player p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', ?1, '%')) AND p.active = true")
-    List<Player> searchPlayersByName(String name);
+    @Query("SELECT p FROM Player p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', ?1, '%')) AND p.active = true " +
+            "ORDER BY CAST(p.runs AS int) DESC")
+    List<Player> searchPlayersByName(String name, Pageable pageable);
 
     @Query("SELECT p FROM Player p WHERE p.active = true ORDER BY CAST(p.runs AS int) DESC LIMIT 10")
     List<Player> findSpotlightPlayers();
+
+    // Only the columns the analytics store keeps, without loading entities.
+    @Query("SELECT p.id, p.country, p.position, p.battingStyle, p.bowlingStyle, p.active, " +
+            "p.runs, p.average, p.centuries FROM Player p")
+    List<Object[]> findAnalyticsColumns();
 }
@@ -0,0 +1,26 @@
+package com.cricinfo.repository;
+
+import com.cricinfo.entity.ScorecardEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ScorecardEntryRepository extends JpaRepository<ScorecardEntry, Long> {
+
+    @Query("SELECT e FROM ScorecardEntry e WHERE e.matchId = ?1 ORDER BY e.innings ASC, e.id ASC")
+    List<ScorecardEntry> findByMatchId(Long matchId);
+
+    @Modifying
+    @Query("DELETE FROM ScorecardEntry e WHERE e.matchId = ?1")
+    void deleteByMatchId(Long matchId);
+
+    // Entry plus the match columns the stats engine splits on, for completed matches only.
+    @Query("SELECT e, m.team1, m.team2, m.venue, m.format, m.startTime, m.matchDateTime " +
+           "FROM ScorecardEntry e, Match m WHERE m.id = e.matchId AND m.status NOT IN ('LIVE', 'Upcoming') " +
+           "ORDER BY e.matchId ASC, e.innings ASC")
+    List<Object[]> findCompletedEntriesWithMatch();
+}
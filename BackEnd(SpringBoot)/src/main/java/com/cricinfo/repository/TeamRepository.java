@@ -1,6 +1,7 @@
 package com.cricinfo.repository;
 
 import com.cricinfo.entity.Team;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -19,6 +20,9 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     @Query("SELECT t FROM Team t WHERE t.name = ?1")
     Team findByName(String name);
 
+    @Query("SELECT t FROM Team t WHERE LOWER(t.name) LIKE LOWER(CONCAT('%', ?1, '%')) ORDER BY t.ranking ASC")
+    List<Team> searchTeamsByName(String name, Pageable pageable);
+
     @Query("SELECT DISTINCT t.format FROM Team t ORDER BY t.format")
     List<String> findAllFormats();
 }
@@ -1,7 +1,9 @@
 package com.cricinfo.repository;
 
 import com.cricinfo.entity.Tournament;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -26,6 +28,19 @@ public interface TournamentRepository extends JpaRepository<Tournament, Long> {
     @Query("SELECT t FROM Tournament t WHERE LOWER(t.location) LIKE LOWER(CONCAT('%', ?1, '%'))")
     List<Tournament> findTournamentsByLocation(String location);
 
+    @Query("SELECT t FROM Tournament t WHERE LOWER(t.name) LIKE LOWER(CONCAT('%', ?1, '%')) " +
+            "OR LOWER(t.location) LIKE LOWER(CONCAT('%', ?1, '%')) ORDER BY t.startDate DESC")
+    List<Tournament> searchTournaments(String query, Pageable pageable);
+
     @Query("SELECT t FROM Tournament t ORDER BY t.startDate DESC")
     List<Tournament> findAllOrderByStartDateDesc();
+
+    // Tournaments with a status transition still ahead of them.
+    @Query("SELECT t.id, t.status, t.startDate, t.endDate FROM Tournament t WHERE t.status IN ('Upcoming', 'Live')")
+    List<Object[]> findPendingTransitions();
+
+    // Compare-and-set for scheduled transitions: when several nodes fire the same one, only one matches.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Tournament t SET t.status = ?3, t.updatedAt = ?4 WHERE t.id = ?1 AND LOWER(t.status) = LOWER(?2)")
+    int updateStatusIfCurrent(Long id, String expected, String next, LocalDateTime now);
 }
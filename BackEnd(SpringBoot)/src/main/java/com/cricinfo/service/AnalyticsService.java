@@ -0,0 +1,299 @@
+package com.cricinfo.service;
+
+import com.cricinfo.dto.MatchAggregate;
+import com.cricinfo.dto.PlayerAggregate;
+import com.cricinfo.engine.ColumnarTable;
+import com.cricinfo.engine.MatchDimension;
+import com.cricinfo.engine.PlayerDimension;
+import com.cricinfo.entity.Match;
+import com.cricinfo.entity.Player;
+import com.cricinfo.event.CacheResyncEvent;
+import com.cricinfo.event.EntityChangeEvent;
+import com.cricinfo.repository.MatchRepository;
+import com.cricinfo.repository.PlayerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Ad-hoc group-bys over matches and players served from in-memory column
+ * tables instead of JPQL aggregates, so analyst queries never hold a pooled
+ * connection. Both tables are loaded once from projection queries at startup
+ * and then follow entity writes through {@link EntityChangeEvent}.
+ */
+@Service
+public class AnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsService.class);
+
+    // Match metric columns.
+    private static final int FIRST_RUNS = 0;
+    private static final int FIRST_BATTED = 1;
+    private static final int SECOND_RUNS = 2;
+    private static final int SECOND_BATTED = 3;
+    private static final int BATTING_FIRST_WON = 4;
+    private static final int CHASING_WON = 5;
+    private static final int DECIDED = 6;
+    private static final int MATCH_METRICS = 7;
+
+    // Player metric columns.
+    private static final int RUNS = 0;
+    private static final int CENTURIES = 1;
+    private static final int AVERAGE_HUNDREDTHS = 2;
+    private static final int HAS_AVERAGE = 3;
+    private static final int PLAYER_METRICS = 4;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    private volatile ColumnarTable<MatchDimension> matches =
+            new ColumnarTable<>(MatchDimension.class, MATCH_METRICS, 0);
+    private volatile ColumnarTable<PlayerDimension> players =
+            new ColumnarTable<>(PlayerDimension.class, PLAYER_METRICS, 0);
+
+    private final Object rebuildLock = new Object();
+
+    /** Changes committed while a rebuild is reading the tables; null when none is running. */
+    private List<EntityChangeEvent> pending;
+
+    /**
+     * Loads fresh column tables without holding the change monitor, replays
+     * the changes committed meanwhile and swaps them in.
+     */
+    @EventListener(CacheResyncEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long started = System.nanoTime();
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            ColumnarTable<MatchDimension> matchTable;
+            ColumnarTable<PlayerDimension> playerTable;
+            try {
+                List<Object[]> matchRows = matchRepository.findAnalyticsColumns();
+                matchTable = new ColumnarTable<>(MatchDimension.class, MATCH_METRICS, matchRows.size());
+                for (Object[] row : matchRows) {
+                    LocalDateTime start = row[9] != null ? (LocalDateTime) row[9] : (LocalDateTime) row[10];
+                    putMatch(matchTable, (Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                            (String) row[4], (String) row[5], (String) row[6], (String) row[7], (String) row[8], start);
+                }
+                List<Object[]> playerRows = playerRepository.findAnalyticsColumns();
+                playerTable = new ColumnarTable<>(PlayerDimension.class, PLAYER_METRICS, playerRows.size());
+                for (Object[] row : playerRows) {
+                    putPlayer(playerTable, (Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                            (String) row[4], (Boolean) row[5], (String) row[6], (String) row[7], (String) row[8]);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                for (EntityChangeEvent event : pending) {
+                    apply(matchTable, playerTable, event);
+                }
+                pending = null;
+                matches = matchTable;
+                players = playerTable;
+            }
+            log.info("Analytics tables built with {} matches and {} players in {} ms",
+                    matchTable.getRowCount(), playerTable.getRowCount(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onEntityChange(EntityChangeEvent event) {
+        apply(matches, players, event);
+        if (pending != null) {
+            pending.add(event);
+        }
+    }
+
+    private static void apply(ColumnarTable<MatchDimension> matchTable, ColumnarTable<PlayerDimension> playerTable,
+                              EntityChangeEvent event) {
+        boolean deleted = event.isRemoval();
+        if (event.getEntityType() == EntityChangeEvent.EntityType.MATCH) {
+            if (deleted) {
+                matchTable.remove(event.getEntityId());
+            } else {
+                Match m = (Match) event.getEntity();
+                putMatch(matchTable, m.getId(), m.getTeam1(), m.getTeam2(), m.getTeam1Score(), m.getTeam2Score(),
+                        m.getStatus(), m.getVenue(), m.getSeries(), m.getFormat(),
+                        m.getStartTime() != null ? m.getStartTime() : m.getMatchDateTime());
+            }
+        } else if (event.getEntityType() == EntityChangeEvent.EntityType.PLAYER) {
+            if (deleted) {
+                playerTable.remove(event.getEntityId());
+            } else {
+                Player p = (Player) event.getEntity();
+                putPlayer(playerTable, p.getId(), p.getCountry(), p.getPosition(), p.getBattingStyle(),
+                        p.getBowlingStyle(), p.getActive(), p.getRuns(), p.getAverage(), p.getCenturies());
+            }
+        }
+    }
+
+    public List<MatchAggregate> aggregateMatches(List<MatchDimension> groupBy, Map<MatchDimension, String> filters) {
+        List<MatchAggregate> result = new ArrayList<>();
+        for (ColumnarTable.Group<MatchDimension> group : matches.aggregate(groupBy, filters, ForkJoinPool.commonPool())) {
+            long decided = group.metric(DECIDED);
+            result.add(new MatchAggregate(
+                    keys(group.getKeys()),
+                    group.metric(MATCH_METRICS),
+                    ratio(group.metric(FIRST_RUNS), group.metric(FIRST_BATTED)),
+                    ratio(group.metric(SECOND_RUNS), group.metric(SECOND_BATTED)),
+                    group.metric(BATTING_FIRST_WON),
+                    group.metric(CHASING_WON),
+                    decided > 0 ? ratio(group.metric(BATTING_FIRST_WON), decided) : null));
+        }
+        return result;
+    }
+
+    public List<PlayerAggregate> aggregatePlayers(List<PlayerDimension> groupBy, Map<PlayerDimension, String> filters) {
+        List<PlayerAggregate> result = new ArrayList<>();
+        for (ColumnarTable.Group<PlayerDimension> group : players.aggregate(groupBy, filters, ForkJoinPool.commonPool())) {
+            long count = group.metric(PLAYER_METRICS);
+            Double average = ratio(group.metric(AVERAGE_HUNDREDTHS), group.metric(HAS_AVERAGE));
+            result.add(new PlayerAggregate(
+                    keys(group.getKeys()),
+                    count,
+                    group.metric(RUNS),
+                    ratio(group.metric(RUNS), count),
+                    average != null ? Math.round(average) / 100.0 : null,
+                    group.metric(CENTURIES)));
+        }
+        return result;
+    }
+
+    private static void putMatch(ColumnarTable<MatchDimension> table, Long id, String team1, String team2,
+                                 String team1Score, String team2Score, String status, String venue,
+                                 String series, String format, LocalDateTime start) {
+        String[] values = new String[MatchDimension.values().length];
+        values[MatchDimension.VENUE.ordinal()] = venue;
+        values[MatchDimension.SERIES.ordinal()] = series;
+        values[MatchDimension.FORMAT.ordinal()] = format;
+        values[MatchDimension.YEAR.ordinal()] = start != null ? Integer.toString(start.getYear()) : null;
+        values[MatchDimension.BATTING_FIRST.ordinal()] = team1;
+        values[MatchDimension.CHASING.ordinal()] = team2;
+        String stage = stage(status);
+        values[MatchDimension.STAGE.ordinal()] = stage;
+
+        long[] metrics = new long[MATCH_METRICS];
+        long firstRuns = leadingNumber(team1Score);
+        long secondRuns = leadingNumber(team2Score);
+        if (firstRuns >= 0) {
+            metrics[FIRST_RUNS] = firstRuns;
+            metrics[FIRST_BATTED] = 1;
+        }
+        if (secondRuns >= 0) {
+            metrics[SECOND_RUNS] = secondRuns;
+            metrics[SECOND_BATTED] = 1;
+        }
+        String winner = "COMPLETED".equals(stage) ? winner(status) : null;
+        if (winner != null) {
+            if (winner.equalsIgnoreCase(team1)) {
+                metrics[BATTING_FIRST_WON] = 1;
+                metrics[DECIDED] = 1;
+            } else if (winner.equalsIgnoreCase(team2)) {
+                metrics[CHASING_WON] = 1;
+                metrics[DECIDED] = 1;
+            }
+        }
+        table.upsert(id, values, metrics);
+    }
+
+    private static void putPlayer(ColumnarTable<PlayerDimension> table, Long id, String country, String position,
+                                  String battingStyle, String bowlingStyle, Boolean active,
+                                  String runs, String average, String centuries) {
+        String[] values = new String[PlayerDimension.values().length];
+        values[PlayerDimension.COUNTRY.ordinal()] = country;
+        values[PlayerDimension.POSITION.ordinal()] = position;
+        values[PlayerDimension.BATTING_STYLE.ordinal()] = battingStyle;
+        values[PlayerDimension.BOWLING_STYLE.ordinal()] = bowlingStyle;
+        values[PlayerDimension.ACTIVE.ordinal()] = active != null ? active.toString() : null;
+
+        long[] metrics = new long[PLAYER_METRICS];
+        metrics[RUNS] = Math.max(leadingNumber(runs), 0);
+        metrics[CENTURIES] = Math.max(leadingNumber(centuries), 0);
+        long hundredths = hundredths(average);
+        if (hundredths >= 0) {
+            metrics[AVERAGE_HUNDREDTHS] = hundredths;
+            metrics[HAS_AVERAGE] = 1;
+        }
+        table.upsert(id, values, metrics);
+    }
+
+    private static String stage(String status) {
+        if (status == null) {
+            return null;
+        }
+        if (status.equalsIgnoreCase("LIVE")) {
+            return "LIVE";
+        }
+        if (status.equalsIgnoreCase("Upcoming")) {
+            return "UPCOMING";
+        }
+        return "COMPLETED";
+    }
+
+    // "England won by 33 runs" -> "England"; ties, draws and abandonments have no winner.
+    private static String winner(String status) {
+        int at = status.toLowerCase(Locale.ROOT).indexOf(" won");
+        return at > 0 ? status.substring(0, at).trim() : null;
+    }
+
+    // Leading integer of "287/4", "12,344" or "310 & 156/3" (first innings); -1 when absent.
+    static long leadingNumber(String text) {
+        if (text == null) {
+            return -1;
+        }
+        long value = -1;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+            } else if (c == ',' && value >= 0) {
+                continue;
+            } else if (value >= 0) {
+                break;
+            }
+        }
+        return value;
+    }
+
+    private static long hundredths(String text) {
+        if (text == null) {
+            return -1;
+        }
+        try {
+            return Math.round(Double.parseDouble(text.trim()) * 100);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Double ratio(long sum, long count) {
+        return count > 0 ? Math.round(sum * 100.0 / count) / 100.0 : null;
+    }
+
+    private static <D extends Enum<D>> Map<String, String> keys(Map<D, String> keys) {
+        Map<String, String> named = new LinkedHashMap<>();
+        keys.forEach((dimension, value) -> named.put(dimension.name().toLowerCase(Locale.ROOT), value));
+        return named;
+    }
+}
@@ -0,0 +1,251 @@
+package com.cricinfo.service;
+
+import com.cricinfo.dto.AssetInfo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed image store on local disk. An upload is named by the
+ * SHA-256 of its bytes, so its URL never changes meaning and can be cached
+ * forever. Resized variants are produced on first request, snapped to a fixed
+ * set of widths so the number of variants per image stays bounded, and kept
+ * next to the original; later requests are plain file reads.
+ */
+@Service
+public class AssetService {
+
+    private static final Pattern NAME = Pattern.compile("([0-9a-f]{64})\\.(jpg|png|gif|svg)");
+
+    @Getter
+    @AllArgsConstructor
+    public static class Asset {
+        private final Path path;
+        private final String contentType;
+        private final long size;
+        // Strong validator; the content behind a name never changes.
+        private final String etag;
+    }
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Value("${cricinfo.assets.dir:data/assets}")
+    private String dir;
+
+    @Value("${cricinfo.assets.widths:80,160,320,640,1280}")
+    private List<Integer> widths;
+
+    @Value("${cricinfo.assets.max-pixels:40000000}")
+    private long maxPixels;
+
+    /** Stores the image unless an identical one exists. Throws IllegalArgumentException if it is not an image. */
+    public AssetInfo store(byte[] data) throws IOException {
+        String extension;
+        Integer width = null;
+        Integer height = null;
+        if (isSvg(data)) {
+            extension = "svg";
+        } else {
+            ImageHeader header = readHeader(data);
+            extension = header.extension;
+            width = header.width;
+            height = header.height;
+        }
+        String hash = sha256(data);
+        Path target = original(hash, extension);
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new AssetInfo(hash, "/api/assets/" + hash + "." + extension, contentType(extension),
+                (long) data.length, width, height);
+    }
+
+    /**
+     * The file to send for {@code name} at roughly {@code width} pixels wide,
+     * or the original when width is null, the image is SVG or already
+     * narrower. Empty when the name is unknown.
+     */
+    public Optional<Asset> open(String name, Integer width) throws IOException {
+        Matcher matcher = NAME.matcher(name);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        String hash = matcher.group(1);
+        String extension = matcher.group(2);
+        Path original = original(hash, extension);
+        if (!Files.exists(original)) {
+            return Optional.empty();
+        }
+        if (width == null || extension.equals("svg")) {
+            return Optional.of(asset(original, extension, hash));
+        }
+        int snapped = snap(width);
+        // GIF variants lose their animation anyway, so write them as PNG.
+        String variantExtension = extension.equals("gif") ? "png" : extension;
+        Path variant = original.resolveSibling(hash + "-w" + snapped + "." + variantExtension);
+        if (!Files.exists(variant)) {
+            singleFlight.execute("asset.resize", () -> resize(original, variant, snapped, variantExtension), hash, snapped);
+        }
+        return Optional.of(asset(variant, variantExtension, hash + "-w" + snapped));
+    }
+
+    // Smallest configured width that is at least the requested one, capped at the largest.
+    private int snap(int width) {
+        int best = Integer.MAX_VALUE;
+        int largest = 0;
+        for (int candidate : widths) {
+            largest = Math.max(largest, candidate);
+            if (candidate >= width && candidate < best) {
+                best = candidate;
+            }
+        }
+        return best == Integer.MAX_VALUE ? largest : best;
+    }
+
+    private Path resize(Path original, Path variant, int width, String extension) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(variant.getParent(), variant.getFileName().toString(), ".tmp");
+            BufferedImage source = ImageIO.read(original.toFile());
+            if (source == null) {
+                throw new IllegalStateException("Cannot decode " + original.getFileName());
+            }
+            if (source.getWidth() <= width) {
+                // Never upscale; keep a copy so the next request is a plain file read.
+                Files.copy(original, temp, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                ImageIO.write(scale(source, width, extension.equals("jpg")), extension.equals("jpg") ? "jpeg" : "png",
+                        temp.toFile());
+            }
+            Files.move(temp, variant, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return variant;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // Only a stray temp file is left behind.
+                }
+            }
+        }
+    }
+
+    // Halves repeatedly before the last step; one bilinear pass from a much larger image drops detail.
+    private static BufferedImage scale(BufferedImage source, int width, boolean opaque) {
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = w == width ? targetHeight : Math.max(targetHeight, h / 2);
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, w, h, null);
+            g.dispose();
+            current = next;
+        } while (w > width);
+        return current;
+    }
+
+    private static final class ImageHeader {
+        String extension;
+        int width;
+        int height;
+    }
+
+    // Reads only the header, so an oversized image is rejected before it is decoded.
+    private ImageHeader readHeader(byte[] data) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Not a supported image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input);
+                ImageHeader header = new ImageHeader();
+                header.extension = switch (reader.getFormatName().toLowerCase(Locale.ROOT)) {
+                    case "jpeg", "jpg" -> "jpg";
+                    case "png" -> "png";
+                    case "gif" -> "gif";
+                    default -> throw new IllegalArgumentException("Unsupported image format " + reader.getFormatName());
+                };
+                header.width = reader.getWidth(0);
+                header.height = reader.getHeight(0);
+                if ((long) header.width * header.height > maxPixels) {
+                    throw new IllegalArgumentException("Image is larger than " + maxPixels + " pixels");
+                }
+                return header;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static boolean isSvg(byte[] data) {
+        String head = new String(data, 0, Math.min(data.length, 512), StandardCharsets.UTF_8).stripLeading();
+        return head.startsWith("<svg") || (head.startsWith("<?xml") && head.contains("<svg"));
+    }
+
+    private Path original(String hash, String extension) {
+        // Two-character fan-out keeps directories small.
+        return Paths.get(dir, hash.substring(0, 2), hash + "." + extension);
+    }
+
+    private static Asset asset(Path path, String extension, String etag) throws IOException {
+        return new Asset(path, contentType(extension), Files.size(path), '"' + etag + '"');
+    }
+
+    private static String contentType(String extension) {
+        return switch (extension) {
+            case "jpg" -> "image/jpeg";
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            default -> "image/svg+xml";
+        };
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.cricinfo.service;
+
+import com.cricinfo.dto.CalendarDay;
+import com.cricinfo.entity.Match;
+import com.cricinfo.entity.Tournament;
+import com.cricinfo.event.CacheResyncEvent;
+import com.cricinfo.event.EntityChangeEvent;
+import com.cricinfo.repository.MatchRepository;
+import com.cricinfo.repository.TournamentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixture calendar backed by per-day buckets of matches and tournaments, so a
+ * day is one hash lookup and a month at most 31. Matches sit in the bucket of
+ * their start day; tournaments in every day they span (capped at a year).
+ * Buckets follow entity writes through {@link EntityChangeEvent}.
+ */
+@Service
+public class CalendarService {
+
+    private static final int MAX_TOURNAMENT_DAYS = 366;
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarService.class);
+
+    private static final Comparator<Match> BY_START = Comparator.comparing(
+            CalendarService::matchStart, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final Comparator<Tournament> BY_START_DATE = Comparator.comparing(
+            Tournament::getStartDate, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private static final class DayBucket {
+        final Map<Long, Match> matches = new ConcurrentHashMap<>();
+        final Map<Long, Tournament> tournaments = new ConcurrentHashMap<>();
+    }
+
+    /** One generation of buckets; a rebuild fills a new one and swaps it in. */
+    private static final class Buckets {
+        final Map<LocalDate, DayBucket> days = new ConcurrentHashMap<>();
+        final Map<Long, LocalDate> matchDays = new ConcurrentHashMap<>();
+        final Map<Long, List<LocalDate>> tournamentDays = new ConcurrentHashMap<>();
+    }
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    private volatile Buckets buckets = new Buckets();
+
+    private final Object rebuildLock = new Object();
+
+    /** Changes committed while a rebuild is reading the tables; null when none is running. */
+    private List<EntityChangeEvent> pending;
+
+    /**
+     * Fills fresh buckets without holding the change monitor, then replays the
+     * changes committed meanwhile and swaps them in, so readers never see a
+     * half-built calendar and writes never wait for the table scans.
+     */
+    @EventListener(CacheResyncEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            Buckets fresh = new Buckets();
+            try {
+                matchRepository.findAll().forEach(match -> putMatch(fresh, match));
+                tournamentRepository.findAll().forEach(tournament -> putTournament(fresh, tournament));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                pending.forEach(event -> apply(fresh, event));
+                pending = null;
+                buckets = fresh;
+            }
+            log.info("Calendar index built over {} days", fresh.days.size());
+        }
+    }
+
+    public CalendarDay getDay(LocalDate date) {
+        DayBucket bucket = buckets.days.get(date);
+        if (bucket == null) {
+            return new CalendarDay(date, List.of(), List.of());
+        }
+        List<Match> matches = new ArrayList<>(bucket.matches.values());
+        matches.sort(BY_START);
+        List<Tournament> tournaments = new ArrayList<>(bucket.tournaments.values());
+        tournaments.sort(BY_START_DATE);
+        return new CalendarDay(date, matches, tournaments);
+    }
+
+    public CalendarDay getToday() {
+        return getDay(LocalDate.now());
+    }
+
+    public List<CalendarDay> getWeek(LocalDate date) {
+        return getDays(date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)), 7);
+    }
+
+    public List<CalendarDay> getMonth(YearMonth month) {
+        return getDays(month.atDay(1), month.lengthOfMonth());
+    }
+
+    private List<CalendarDay> getDays(LocalDate first, int count) {
+        List<CalendarDay> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(getDay(first.plusDays(i)));
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onEntityChange(EntityChangeEvent event) {
+        apply(buckets, event);
+        if (pending != null) {
+            pending.add(event);
+        }
+    }
+
+    private static void apply(Buckets buckets, EntityChangeEvent event) {
+        boolean deleted = event.isRemoval();
+        if (event.getEntityType() == EntityChangeEvent.EntityType.MATCH) {
+            removeMatch(buckets, event.getEntityId());
+            if (!deleted) {
+                putMatch(buckets, (Match) event.getEntity());
+            }
+        } else if (event.getEntityType() == EntityChangeEvent.EntityType.TOURNAMENT) {
+            removeTournament(buckets, event.getEntityId());
+            if (!deleted) {
+                putTournament(buckets, (Tournament) event.getEntity());
+            }
+        }
+    }
+
+    private static void putMatch(Buckets buckets, Match match) {
+        LocalDateTime start = matchStart(match);
+        if (start == null) {
+            return;
+        }
+        LocalDate day = start.toLocalDate();
+        buckets.days.computeIfAbsent(day, key -> new DayBucket()).matches.put(match.getId(), match);
+        buckets.matchDays.put(match.getId(), day);
+    }
+
+    private static void removeMatch(Buckets buckets, Long id) {
+        LocalDate day = buckets.matchDays.remove(id);
+        if (day != null) {
+            DayBucket bucket = buckets.days.get(day);
+            if (bucket != null) {
+                bucket.matches.remove(id);
+            }
+        }
+    }
+
+    private static void putTournament(Buckets buckets, Tournament tournament) {
+        if (tournament.getStartDate() == null) {
+            return;
+        }
+        LocalDate first = tournament.getStartDate().toLocalDate();
+        LocalDate last = tournament.getEndDate() != null ? tournament.getEndDate().toLocalDate() : first;
+        List<LocalDate> spanned = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last) && spanned.size() < MAX_TOURNAMENT_DAYS; day = day.plusDays(1)) {
+            buckets.days.computeIfAbsent(day, key -> new DayBucket()).tournaments.put(tournament.getId(), tournament);
+            spanned.add(day);
+        }
+        buckets.tournamentDays.put(tournament.getId(), spanned);
+    }
+
+    private static void removeTournament(Buckets buckets, Long id) {
+        List<LocalDate> spanned = buckets.tournamentDays.remove(id);
+        if (spanned != null) {
+            for (LocalDate day : spanned) {
+                DayBucket bucket = buckets.days.get(day);
+                if (bucket != null) {
+                    bucket.tournaments.remove(id);
+                }
+            }
+        }
+    }
+
+    private static LocalDateTime matchStart(Match match) {
+        return match.getStartTime() != null ? match.getStartTime() : match.getMatchDateTime();
+    }
+}
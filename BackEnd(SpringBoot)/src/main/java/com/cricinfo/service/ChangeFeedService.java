@@ -0,0 +1,414 @@
+package com.cricinfo.service;
+
+import com.cricinfo.dto.ChangeBatch;
+import com.cricinfo.entity.ChangeRecord;
+import com.cricinfo.event.EntityChangeEvent;
+import com.cricinfo.repository.ChangeRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.dao.DataAccessException;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Transactional outbox and the change feed served from it. Every local
+ * {@link EntityChangeEvent} is stored as a {@link ChangeRecord} inside the
+ * publishing service's transaction, so a change is recorded if and only if it
+ * commits.
+ *
+ * <p>A relay thread tails the outbox by id, woken after each local commit and
+ * at least once a second for rows written by other nodes. It only moves its
+ * cursor over contiguous ids: a hole left by a transaction that has not
+ * committed yet holds the cursor back until the id shows up, so consumers never
+ * skip a change that commits late. Most holes never fill, because the
+ * transaction rolled back or the id was lost by auto-increment. On MySQL the
+ * relay reads the open transactions from {@code information_schema.innodb_trx}
+ * and passes a hole once every transaction that was open when it was first
+ * seen has ended. Elsewhere, or while a long transaction is open, it passes the
+ * hole when the gap grace period has gone by, timed on the relay's own clock
+ * from when the hole was first seen. Ids given up on are logged. Recently relayed records stay in a bounded in-memory window, and
+ * waiting long-polls are completed from it when the cursor moves.
+ *
+ * <p>Records older than the retention period are purged. A cursor that points
+ * before the oldest retained record has missed changes and is reported as
+ * {@linkplain #isExpired expired}, so the consumer knows to resync.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private static final int RELAY_BATCH = 500;
+
+    // The relay's own connection has no transaction open, but is excluded in case the pool hands out one that does.
+    private static final String OPEN_TRANSACTIONS_SQL = "SELECT NOW(), MIN(trx_started) FROM information_schema.innodb_trx "
+            + "WHERE trx_mysql_thread_id <> CONNECTION_ID()";
+
+    @Autowired
+    private ChangeRecordRepository changeRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${cricinfo.changes.window-size:10000}")
+    private int windowSize;
+
+    @Value("${cricinfo.changes.max-waiters:1000}")
+    private int maxWaiters;
+
+    @Value("${cricinfo.changes.gap-grace-ms:5000}")
+    private long gapGraceMillis;
+
+    @Value("${cricinfo.changes.retention-days:7}")
+    private int retentionDays;
+
+    private final ArrayDeque<ChangeRecord> window = new ArrayDeque<>();
+    // Missing id -> System.nanoTime() when the relay first saw the hole; relay thread only.
+    private final Map<Long, Long> missingSince = new HashMap<>();
+    // Missing id -> database time of the first transaction probe after the relay saw the hole; relay thread only.
+    private final Map<Long, LocalDateTime> missingSinceDb = new HashMap<>();
+    // Set in start() before the relay thread starts; cleared by the relay if the probe fails.
+    private boolean probeTransactions;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+    private final ReentrantLock relayLock = new ReentrantLock();
+    private final Condition committed = relayLock.newCondition();
+    private boolean signalled;
+    private volatile long cursor;
+    // Ids up to here may have been purged.
+    private volatile long horizon;
+    private volatile Thread relay;
+
+    // Oldest is null when no other transaction is open.
+    private record OpenTransactions(LocalDateTime now, LocalDateTime oldest) {
+    }
+
+    private final class Waiter {
+        final long since;
+        final int limit;
+        final Consumer<ChangeBatch> callback;
+        final AtomicBoolean done = new AtomicBoolean();
+
+        Waiter(long since, int limit, Consumer<ChangeBatch> callback) {
+            this.since = since;
+            this.limit = limit;
+            this.callback = callback;
+        }
+
+        boolean cancel() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            waiters.remove(this);
+            waiterCount.decrementAndGet();
+            return true;
+        }
+    }
+
+    @EventListener
+    @Transactional
+    public void record(EntityChangeEvent event) {
+        // Archived articles still exist for consumers; they only leave this node's hot tier.
+        if (event.isRemote() || event.getChangeType() == EntityChangeEvent.ChangeType.ARCHIVED) {
+            return;
+        }
+        ChangeRecord record = new ChangeRecord();
+        record.setEntityType(event.getEntityType().name());
+        record.setChangeType(event.getChangeType().name());
+        record.setEntityId(event.getEntityId());
+        if (event.getChangeType() != EntityChangeEvent.ChangeType.DELETED && event.getEntity() != null) {
+            try {
+                record.setPayload(objectMapper.writeValueAsString(event.getEntity()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialise " + event.getEntityType() + " " + event.getEntityId(), e);
+            }
+        }
+        changeRecordRepository.save(record);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommitted(EntityChangeEvent event) {
+        if (!event.isRemote()) {
+            wakeRelay();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Long max = changeRecordRepository.findMaxId();
+        cursor = max != null ? max : 0;
+        updateHorizon();
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        probeTransactions = "MySQL".equalsIgnoreCase(database) || "MariaDB".equalsIgnoreCase(database);
+        Thread thread = new Thread(this::runRelay, "change-relay");
+        thread.setDaemon(true);
+        relay = thread;
+        thread.start();
+        log.info("Change feed relay started at cursor {}", cursor);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = relay;
+        relay = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * True when records after {@code since} may already have been purged, so a
+     * consumer reading on from there would silently miss changes. A cursor of 0
+     * is a fresh start and never expires.
+     */
+    public boolean isExpired(long since) {
+        return since > 0 && since < horizon && fromWindow(since, 1) == null;
+    }
+
+    /** Changes after {@code since} that the relay has already passed, oldest first. */
+    public ChangeBatch read(long since, int limit) {
+        long upTo = cursor;
+        if (since >= upTo) {
+            return new ChangeBatch(List.of(), since, false);
+        }
+        List<ChangeRecord> changes = fromWindow(since, limit);
+        if (changes == null) {
+            changes = new ArrayList<>();
+            for (ChangeRecord record : changeRecordRepository.findAfter(since, PageRequest.of(0, limit))) {
+                if (record.getId() > upTo) {
+                    break;
+                }
+                changes.add(record);
+            }
+        }
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getId();
+        return new ChangeBatch(changes, next, next < upTo);
+    }
+
+    /**
+     * Calls {@code callback} once with the next non-empty batch after
+     * {@code since}. Returns the cancel action, or null if too many consumers
+     * are already waiting.
+     */
+    public Runnable await(long since, int limit, Consumer<ChangeBatch> callback) {
+        if (waiterCount.incrementAndGet() > maxWaiters) {
+            waiterCount.decrementAndGet();
+            return null;
+        }
+        Waiter waiter = new Waiter(since, limit, callback);
+        waiters.add(waiter);
+        // The relay may have moved between the caller's read and the registration above.
+        if (cursor > since) {
+            complete(waiter);
+        }
+        return () -> waiter.cancel();
+    }
+
+    public long getCursor() {
+        return cursor;
+    }
+
+    public int getWaiterCount() {
+        return waiterCount.get();
+    }
+
+    @Scheduled(fixedDelayString = "${cricinfo.changes.purge-interval-ms:3600000}")
+    public void purge() {
+        int removed = changeRecordRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        if (removed > 0) {
+            updateHorizon();
+            log.info("Purged {} change records older than {} days", removed, retentionDays);
+        }
+    }
+
+    private void updateHorizon() {
+        Long min = changeRecordRepository.findMinId();
+        horizon = Math.max(horizon, min != null ? min - 1 : cursor);
+    }
+
+    private void wakeRelay() {
+        relayLock.lock();
+        try {
+            signalled = true;
+            committed.signal();
+        } finally {
+            relayLock.unlock();
+        }
+    }
+
+    private void runRelay() {
+        while (relay != null) {
+            try {
+                relayLock.lock();
+                try {
+                    if (!signalled) {
+                        committed.await(1, TimeUnit.SECONDS);
+                    }
+                    signalled = false;
+                } finally {
+                    relayLock.unlock();
+                }
+                while (advance() == RELAY_BATCH) {
+                    // Keep draining a backlog before waiting again.
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Change relay failed, retrying: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Moves the cursor over the next contiguous run of committed records; returns how many it passed.
+    private int advance() {
+        // Probed before the read, so a transaction seen to have ended has its rows visible to the read.
+        OpenTransactions open = openTransactions();
+        if (open != null) {
+            missingSince.keySet().forEach(missing -> missingSinceDb.putIfAbsent(missing, open.now()));
+        }
+        List<ChangeRecord> batch = changeRecordRepository.findAfter(cursor, PageRequest.of(0, RELAY_BATCH));
+        long now = System.nanoTime();
+        long position = cursor;
+        long seen = cursor;
+        boolean blocked = false;
+        List<ChangeRecord> accepted = new ArrayList<>();
+        for (ChangeRecord record : batch) {
+            long id = record.getId();
+            missingSince.remove(id);
+            missingSinceDb.remove(id);
+            // Note every hole in the batch, not just the first, so later ones are timed from when they appeared.
+            for (long missing = seen + 1; missing < id && missing <= seen + RELAY_BATCH; missing++) {
+                missingSince.putIfAbsent(missing, now);
+            }
+            seen = id;
+            if (blocked) {
+                continue;
+            }
+            if (id != position + 1) {
+                long since = missingSince.computeIfAbsent(position + 1, missing -> now);
+                if (abandoned(position + 1, id - 1, open)) {
+                    log.info("Change feed skipped ids {} to {}: no transaction that could write them is open",
+                            position + 1, id - 1);
+                } else if (now - since < TimeUnit.MILLISECONDS.toNanos(gapGraceMillis)) {
+                    blocked = true;
+                    continue;
+                } else {
+                    log.warn("Change feed skipped ids {} to {}: still missing {} ms after the hole appeared",
+                            position + 1, id - 1, TimeUnit.NANOSECONDS.toMillis(now - since));
+                }
+                missingSince.keySet().removeIf(missing -> missing < id);
+                missingSinceDb.keySet().removeIf(missing -> missing < id);
+            }
+            accepted.add(record);
+            position = id;
+        }
+        if (!accepted.isEmpty()) {
+            synchronized (window) {
+                for (ChangeRecord record : accepted) {
+                    window.addLast(record);
+                    if (window.size() > windowSize) {
+                        window.removeFirst();
+                    }
+                }
+            }
+            cursor = position;
+            for (Waiter waiter : waiters) {
+                complete(waiter);
+            }
+        }
+        return accepted.size();
+    }
+
+    // Null when there are no holes to judge or the database cannot list its open transactions.
+    private OpenTransactions openTransactions() {
+        if (!probeTransactions || missingSince.isEmpty()) {
+            return null;
+        }
+        try {
+            return jdbcTemplate.queryForObject(OPEN_TRANSACTIONS_SQL, (rs, row) -> new OpenTransactions(
+                    rs.getObject(1, LocalDateTime.class), rs.getObject(2, LocalDateTime.class)));
+        } catch (DataAccessException e) {
+            probeTransactions = false;
+            log.warn("Cannot read open transactions ({}), change feed holes now wait out the {} ms grace",
+                    e.getMessage(), gapGraceMillis);
+            return null;
+        }
+    }
+
+    /**
+     * True when every transaction that was open when the holes from..to were
+     * first seen has ended, so they can no longer be filled. Both times come
+     * from the database clock; trx_started is truncated to the second, which
+     * only makes the comparison more cautious.
+     */
+    private boolean abandoned(long from, long to, OpenTransactions open) {
+        if (open == null) {
+            return false;
+        }
+        for (long missing = from; missing <= to; missing++) {
+            LocalDateTime seen = missingSinceDb.get(missing);
+            if (seen == null || open.oldest() != null && !open.oldest().isAfter(seen)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void complete(Waiter waiter) {
+        ChangeBatch batch = read(waiter.since, waiter.limit);
+        if (!batch.getChanges().isEmpty() && waiter.cancel()) {
+            waiter.callback.accept(batch);
+        }
+    }
+
+    // Null when the window no longer reaches back to since.
+    private List<ChangeRecord> fromWindow(long since, int limit) {
+        synchronized (window) {
+            if (window.isEmpty() || window.peekFirst().getId() > since + 1) {
+                return null;
+            }
+            List<ChangeRecord> changes = new ArrayList<>(Math.min(limit, window.size()));
+            for (ChangeRecord record : window) {
+                if (record.getId() > since) {
+                    changes.add(record);
+                    if (changes.size() == limit) {
+                        break;
+                    }
+                }
+            }
+            return changes;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.cricinfo.service;
+
+import com.cricinfo.event.CacheResyncEvent;
+import com.cricinfo.event.EntityChangeEvent;
+import com.cricinfo.event.InvalidationBus;
+import com.cricinfo.event.InvalidationMessage;
+import com.cricinfo.repository.MatchRepository;
+import com.cricinfo.repository.NewsArticleRepository;
+import com.cricinfo.repository.PlayerRepository;
+import com.cricinfo.repository.TeamRepository;
+import com.cricinfo.repository.TournamentRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the in-memory indexes of every node coherent. Local entity changes are
+ * broadcast on the {@link InvalidationBus} after commit. Changes received from
+ * peers are reloaded from the shared database and replayed as remote
+ * {@link EntityChangeEvent}s, so each listener updates exactly the affected
+ * entries. A skipped sequence number from a peer, including one exposed by its
+ * heartbeat, means a message was lost; the node then publishes a
+ * {@link CacheResyncEvent} and rebuilds everything. The bus thread only does
+ * the sequence bookkeeping: replays and resyncs run on the invalidation
+ * executor, and gaps found while a resync is still queued share that one.
+ */
+@Service
+public class ClusterInvalidationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterInvalidationService.class);
+
+    @Autowired
+    private InvalidationBus bus;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    @Qualifier("invalidationExecutor")
+    private ThreadPoolTaskExecutor invalidationExecutor;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private NewsArticleRepository newsArticleRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    private final UUID nodeId = UUID.randomUUID();
+    private final AtomicLong sequence = new AtomicLong();
+    // Numbers are taken and sent under this lock, so peers never see them out of order.
+    private final Object sendLock = new Object();
+    private final Map<UUID, Long> peerSequences = new HashMap<>();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong gaps = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    // Set while a resync is queued but not started; later gaps are covered by it.
+    private final AtomicBoolean resyncPending = new AtomicBoolean();
+
+    @PostConstruct
+    public void register() {
+        bus.onMessage(this::receive);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        synchronized (sendLock) {
+            bus.send(new InvalidationMessage(nodeId, sequence.incrementAndGet(), false,
+                    event.getEntityType(), event.getChangeType(), event.getEntityId()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cricinfo.invalidation.heartbeat-ms:5000}")
+    public void heartbeat() {
+        // Only numbers already sent, or a peer would take one still being sent for a gap.
+        synchronized (sendLock) {
+            bus.send(new InvalidationMessage(nodeId, sequence.get(), true, null, null, null));
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", nodeId.toString());
+        stats.put("sent", sequence.get());
+        stats.put("received", received.get());
+        stats.put("gaps", gaps.get());
+        stats.put("resyncs", resyncs.get());
+        synchronized (this) {
+            stats.put("peers", peerSequences.size());
+        }
+        return stats;
+    }
+
+    synchronized void receive(InvalidationMessage message) {
+        if (nodeId.equals(message.getNodeId())) {
+            return;
+        }
+        Long last = peerSequences.put(message.getNodeId(), Math.max(message.getSequence(),
+                peerSequences.getOrDefault(message.getNodeId(), 0L)));
+        if (message.isHeartbeat()) {
+            if (last != null && message.getSequence() > last) {
+                resync(message, last);
+            }
+            return;
+        }
+        received.incrementAndGet();
+        if (last != null && message.getSequence() <= last) {
+            return;
+        }
+        if (last != null && message.getSequence() > last + 1) {
+            resync(message, last);
+            return;
+        }
+        invalidationExecutor.execute(() -> replay(message));
+    }
+
+    private void resync(InvalidationMessage message, long last) {
+        gaps.incrementAndGet();
+        log.warn("Missed invalidations {}..{} from node {}, rebuilding caches",
+                last + 1, message.getSequence(), message.getNodeId());
+        requestResync("gap from node " + message.getNodeId());
+    }
+
+    private void requestResync(String reason) {
+        if (resyncPending.compareAndSet(false, true)) {
+            invalidationExecutor.execute(() -> runResync(reason));
+        }
+    }
+
+    private void runResync(String reason) {
+        // Cleared before the rebuild reads anything, so a gap seen from here on queues another one.
+        resyncPending.set(false);
+        resyncs.incrementAndGet();
+        try {
+            eventPublisher.publishEvent(new CacheResyncEvent(reason));
+        } catch (RuntimeException e) {
+            log.error("Cache resync failed ({})", reason, e);
+        }
+    }
+
+    private void replay(InvalidationMessage message) {
+        try {
+            replayChange(message);
+        } catch (RuntimeException e) {
+            // The change is lost to the local indexes, as if the message had been dropped.
+            log.warn("Could not apply {} {} {} from node {}, rebuilding caches", message.getChangeType(),
+                    message.getEntityType(), message.getEntityId(), message.getNodeId(), e);
+            requestResync("failed replay from node " + message.getNodeId());
+        }
+    }
+
+    private void replayChange(InvalidationMessage message) {
+        boolean removal = message.getChangeType() == EntityChangeEvent.ChangeType.DELETED
+                || message.getChangeType() == EntityChangeEvent.ChangeType.ARCHIVED;
+        Optional<?> entity = removal ? Optional.empty() : load(message.getEntityType(), message.getEntityId());
+        // An update that raced with a delete on the peer shows up as a missing row.
+        EntityChangeEvent.ChangeType changeType = removal || entity.isPresent()
+                ? message.getChangeType()
+                : EntityChangeEvent.ChangeType.DELETED;
+        eventPublisher.publishEvent(new EntityChangeEvent(message.getEntityType(), changeType,
+                message.getEntityId(), entity.orElse(null), true));
+    }
+
+    private Optional<?> load(EntityChangeEvent.EntityType type, Long id) {
+        return switch (type) {
+            case MATCH -> matchRepository.findById(id);
+            case NEWS -> newsArticleRepository.findById(id);
+            case PLAYER -> playerRepository.findById(id);
+            case TEAM -> teamRepository.findById(id);
+            case TOURNAMENT -> tournamentRepository.findById(id);
+        };
+    }
+}
@@ -0,0 +1,268 @@
+package com.cricinfo.service;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.github.luben.zstd.Zstd;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Brotli, zstd and gzip for response bodies, with a cache of compressed bodies
+ * so a response that is served over and over (the home page, rankings) is
+ * compressed once per version and encoding rather than once per request.
+ * Entries are keyed by the response's ETag, or by a SHA-256 of the body when
+ * it has none, and evicted least recently used once the cache holds more than
+ * its byte budget. Brotli and zstd are native libraries; an encoding whose
+ * library does not load on this platform is simply not offered.
+ */
+@Service
+public class CompressionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressionService.class);
+
+    public static final String BROTLI = "br";
+    public static final String ZSTD = "zstd";
+    public static final String GZIP = "gzip";
+
+    @Value("${cricinfo.compression.level:6}")
+    private int level;
+
+    @Value("${cricinfo.compression.brotli-level:5}")
+    private int brotliLevel;
+
+    @Value("${cricinfo.compression.zstd-level:3}")
+    private int zstdLevel;
+
+    // Server preference, used when the client weighs several encodings the same.
+    @Value("${cricinfo.compression.encodings:br,zstd,gzip}")
+    private List<String> preferred;
+
+    private List<String> encodings;
+
+    @Value("${cricinfo.compression.cache-bytes:16777216}")
+    private long cacheBytes;
+
+    private final LinkedHashMap<String, byte[]> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final Map<String, LongAdder> served = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        encodings = preferred.stream().map(String::trim).filter(this::isAvailable).toList();
+        log.info("Response encodings offered, in order of preference: {}", encodings);
+    }
+
+    /** The configured encodings this platform can produce, most preferred first. */
+    public List<String> getEncodings() {
+        return encodings;
+    }
+
+    public boolean isAvailable(String encoding) {
+        switch (encoding) {
+            case GZIP:
+                return true;
+            case BROTLI:
+                if (!Brotli4jLoader.isAvailable()) {
+                    log.warn("Brotli unavailable: {}", Brotli4jLoader.getUnavailabilityCause().toString());
+                    return false;
+                }
+                return true;
+            case ZSTD:
+                try {
+                    com.github.luben.zstd.util.Native.load();
+                    return true;
+                } catch (UnsatisfiedLinkError e) {
+                    log.warn("Zstd unavailable: {}", e.toString());
+                    return false;
+                }
+            default:
+                return false;
+        }
+    }
+
+    /** The body in {@code encoding}, from the cache when the same body was compressed before. */
+    public byte[] compressCached(String encoding, String key, byte[] body) {
+        String cacheKey = encoding + '|' + (key != null ? key : "sha256:" + sha256(body));
+        byte[] compressed;
+        synchronized (cache) {
+            compressed = cache.get(cacheKey);
+        }
+        if (compressed != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            compressed = compress(encoding, body, defaultLevel(encoding));
+            put(cacheKey, compressed);
+        }
+        bytesIn.add(body.length);
+        bytesOut.add(compressed.length);
+        served.computeIfAbsent(encoding, e -> new LongAdder()).increment();
+        return compressed;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (cache) {
+            stats.put("entries", cache.size());
+            stats.put("cachedBytes", cachedBytes);
+        }
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("bytesIn", bytesIn.sum());
+        stats.put("bytesOut", bytesOut.sum());
+        stats.put("encodings", encodings);
+        Map<String, Long> byEncoding = new TreeMap<>();
+        served.forEach((encoding, count) -> byEncoding.put(encoding, count.sum()));
+        stats.put("served", byEncoding);
+        return stats;
+    }
+
+    /**
+     * Compresses {@code body} in {@code encoding} at each level given and
+     * reports size and speed, so the encoding and level can be picked from
+     * real payloads rather than guessed. Each level is repeated until it has
+     * run for about {@code budgetMillis}.
+     */
+    public List<String> benchmark(String name, byte[] body, String encoding, int[] levels, long budgetMillis) {
+        List<String> rows = new ArrayList<>();
+        for (int candidate : levels) {
+            byte[] compressed = compress(encoding, body, candidate);
+            int rounds = 0;
+            long started = System.nanoTime();
+            long deadline = started + budgetMillis * 1_000_000;
+            do {
+                compress(encoding, body, candidate);
+                rounds++;
+            } while (System.nanoTime() < deadline);
+            double compressSeconds = (System.nanoTime() - started) / 1e9 / rounds;
+            rounds = 0;
+            started = System.nanoTime();
+            deadline = started + budgetMillis * 1_000_000;
+            do {
+                decompress(encoding, compressed);
+                rounds++;
+            } while (System.nanoTime() < deadline);
+            double decompressSeconds = (System.nanoTime() - started) / 1e9 / rounds;
+            rows.add(String.format("%s %s-%d: %d -> %d bytes (%.1f%%), compress %.0f MB/s, decompress %.0f MB/s",
+                    name, encoding, candidate, body.length, compressed.length, 100.0 * compressed.length / body.length,
+                    body.length / compressSeconds / 1e6, body.length / decompressSeconds / 1e6));
+        }
+        return rows;
+    }
+
+    private void put(String key, byte[] compressed) {
+        if (compressed.length > cacheBytes / 4) {
+            // One huge body would push out everything else.
+            return;
+        }
+        synchronized (cache) {
+            byte[] previous = cache.put(key, compressed);
+            cachedBytes += compressed.length - (previous != null ? previous.length : 0);
+            Iterator<Map.Entry<String, byte[]>> eldest = cache.entrySet().iterator();
+            while (cachedBytes > cacheBytes && eldest.hasNext()) {
+                cachedBytes -= eldest.next().getValue().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private int defaultLevel(String encoding) {
+        return switch (encoding) {
+            case BROTLI -> brotliLevel;
+            case ZSTD -> zstdLevel;
+            default -> level;
+        };
+    }
+
+    static byte[] compress(String encoding, byte[] body, int level) {
+        switch (encoding) {
+            case BROTLI:
+                Brotli4jLoader.ensureAvailability();
+                try {
+                    return Encoder.compress(body, new Encoder.Parameters().setQuality(level));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            case ZSTD:
+                return Zstd.compress(body, level);
+            case GZIP:
+                return gzip(body, level);
+            default:
+                throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+        }
+    }
+
+    static byte[] decompress(String encoding, byte[] compressed) {
+        switch (encoding) {
+            case BROTLI:
+                Brotli4jLoader.ensureAvailability();
+                try {
+                    return Decoder.decompress(compressed).getDecompressedData();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            case ZSTD:
+                return Zstd.decompress(compressed, (int) Zstd.getFrameContentSize(compressed));
+            case GZIP:
+                return gunzip(compressed);
+            default:
+                throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+        }
+    }
+
+    private static byte[] gzip(byte[] body, int level) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed), 8192)) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
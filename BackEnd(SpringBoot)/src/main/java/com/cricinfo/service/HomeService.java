@@ -0,0 +1,177 @@
+package com.cricinfo.service;
+
+import com.cricinfo.dto.HomePage;
+import com.cricinfo.entity.Match;
+import com.cricinfo.entity.NewsArticle;
+import com.cricinfo.entity.Player;
+import com.cricinfo.entity.Team;
+import com.cricinfo.entity.Tournament;
+import com.cricinfo.event.CacheResyncEvent;
+import com.cricinfo.event.EntityChangeEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Assembles everything the home page shows in one payload. Sections are loaded
+ * in parallel through the regular service methods (and so share their request
+ * coalescing); the finished payload is kept for a short TTL and dropped on any
+ * entity write. A page with a section that timed out or failed is kept only for
+ * the much shorter degraded TTL, so an empty section is not served for long.
+ */
+@Service
+public class HomeService {
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("fanOutExecutor")
+    private ThreadPoolTaskExecutor fanOutExecutor;
+
+    @Value("${cricinfo.home.ttl-ms:5000}")
+    private long ttlMillis;
+
+    @Value("${cricinfo.home.degraded-ttl-ms:1000}")
+    private long degradedTtlMillis;
+
+    @Value("${cricinfo.home.section-timeout-ms:500}")
+    private long sectionTimeoutMillis;
+
+    @Value("${cricinfo.home.ranking-formats:Test,ODI,T20}")
+    private List<String> rankingFormats;
+
+    private final AtomicLong versions = new AtomicLong();
+
+    private volatile HomePage cached;
+    private volatile long cachedUntil;
+
+    public HomePage getHomePage() {
+        HomePage page = cached;
+        if (page != null && System.currentTimeMillis() < cachedUntil) {
+            return page;
+        }
+        return singleFlight.execute("home.page", this::rebuild);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        invalidate();
+    }
+
+    @EventListener
+    public void onResync(CacheResyncEvent event) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        versions.incrementAndGet();
+        cachedUntil = 0;
+    }
+
+    private HomePage rebuild() {
+        long version = versions.incrementAndGet();
+
+        CompletableFuture<List<Match>> live = section(matchService::getLiveMatches);
+        CompletableFuture<List<Match>> recent = section(matchService::getRecentMatches);
+        CompletableFuture<List<Match>> upcoming = section(matchService::getUpcomingMatches);
+        CompletableFuture<List<NewsArticle>> featured = section(newsService::getFeaturedNews);
+        CompletableFuture<List<Player>> spotlight = section(playerService::getSpotlightPlayers);
+        CompletableFuture<List<Tournament>> liveTournaments = section(tournamentService::getLiveTournaments);
+        CompletableFuture<List<Tournament>> upcomingTournaments = section(tournamentService::getUpcomingTournaments);
+        Map<String, CompletableFuture<List<Team>>> rankings = new LinkedHashMap<>();
+        for (String format : rankingFormats) {
+            rankings.put(format, section(() -> teamService.getTeamsByFormat(format)));
+        }
+
+        HomePage page = new HomePage();
+        page.setVersion(version);
+        page.setLiveMatches(join(live, page));
+        page.setRecentMatches(join(recent, page));
+        page.setUpcomingMatches(join(upcoming, page));
+        page.setFeaturedNews(join(featured, page));
+        page.setSpotlightPlayers(join(spotlight, page));
+        page.setLiveTournaments(join(liveTournaments, page));
+        page.setUpcomingTournaments(join(upcomingTournaments, page));
+        Map<String, List<Team>> rankingTables = new LinkedHashMap<>();
+        rankings.forEach((format, teams) -> rankingTables.put(format, join(teams, page)));
+        page.setRankings(rankingTables);
+        // Hashed before the timestamp is set, so an unchanged page keeps its ETag across rebuilds and nodes.
+        page.setEtag(contentHash(page));
+        page.setGeneratedAt(LocalDateTime.now());
+
+        // A write that raced with this rebuild bumps the version; don't cache stale data then.
+        if (versions.get() == version) {
+            cached = page;
+            cachedUntil = System.currentTimeMillis() + (page.isDegraded() ? degradedTtlMillis : ttlMillis);
+        }
+        return page;
+    }
+
+    // A slow, failing or rejected section completes with null; join() turns that into an empty list.
+    private <T> CompletableFuture<List<T>> section(Supplier<List<T>> loader) {
+        try {
+            return CompletableFuture.supplyAsync(loader, fanOutExecutor)
+                    .completeOnTimeout(null, sectionTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .exceptionally(ex -> null);
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private static <T> List<T> join(CompletableFuture<List<T>> section, HomePage page) {
+        List<T> rows = section.join();
+        if (rows == null) {
+            page.setDegraded(true);
+            return List.of();
+        }
+        return rows;
+    }
+
+    private String contentHash(HomePage page) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(page));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
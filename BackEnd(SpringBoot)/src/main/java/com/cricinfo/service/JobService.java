@@ -0,0 +1,360 @@
+package com.cricinfo.service;
+
+import com.cricinfo.entity.JobRecord;
+import com.cricinfo.repository.JobRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background jobs for maintenance work that must not run on request threads.
+ * Jobs are persisted, then queued on the dedicated job pool, highest priority
+ * first and in submission order within a priority. The queue is bounded:
+ * {@link #submit} throws {@link QueueFullException} instead of growing it.
+ *
+ * <p>Progress is written at most once per progress interval, and the same
+ * write picks up a cancel requested through another node. While a job is
+ * queued or running here its row is touched every heartbeat; a queued job
+ * whose node has gone quiet is taken over by the next node to notice, and a
+ * running one is failed, since it may have been half done.
+ */
+@Service
+public class JobService {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String FAILED = "FAILED";
+    public static final String CANCELLED = "CANCELLED";
+
+    public static final List<String> PRIORITIES = List.of("HIGH", "NORMAL", "LOW");
+
+    private static final Logger log = LoggerFactory.getLogger(JobService.class);
+
+    /** A kind of job. Returns a short summary of what it did. */
+    @FunctionalInterface
+    public interface Job {
+        String run(JobContext context) throws Exception;
+
+        /** Rejects bad parameters at submit time with IllegalArgumentException. */
+        default void validate(Map<String, String> params) {
+        }
+    }
+
+    public static class QueueFullException extends RuntimeException {
+        QueueFullException(int capacity) {
+            super("Job queue is full (" + capacity + " queued)");
+        }
+    }
+
+    /** Handed to a running job for its parameters, progress and cancellation. */
+    public class JobContext {
+        private final long id;
+        private final Map<String, String> params;
+        private volatile boolean cancelled;
+        private long lastWriteNanos = System.nanoTime();
+
+        JobContext(long id, Map<String, String> params) {
+            this.id = id;
+            this.params = params;
+        }
+
+        public Map<String, String> getParams() {
+            return params;
+        }
+
+        /** Throws CancellationException once a cancel was requested; call between units of work. */
+        public void checkCancelled() {
+            if (cancelled || Thread.currentThread().isInterrupted()) {
+                throw new CancellationException();
+            }
+        }
+
+        public void progress(long done, long total, String message) {
+            checkCancelled();
+            long now = System.nanoTime();
+            if (now - lastWriteNanos < progressIntervalMillis * 1_000_000) {
+                return;
+            }
+            lastWriteNanos = now;
+            int percent = total <= 0 ? 0 : (int) Math.min(99, done * 100 / total);
+            jobRecordRepository.updateProgress(id, percent, truncate(message), LocalDateTime.now());
+            if (Boolean.TRUE.equals(jobRecordRepository.isCancelRequested(id))) {
+                cancelled = true;
+                checkCancelled();
+            }
+        }
+    }
+
+    private final class QueuedJob implements Runnable, Comparable<QueuedJob> {
+        final long id;
+        final String type;
+        final int rank;
+        final long sequence = sequences.incrementAndGet();
+        final Map<String, String> params;
+
+        QueuedJob(long id, String type, String priority, Map<String, String> params) {
+            this.id = id;
+            this.type = type;
+            this.rank = PRIORITIES.indexOf(priority);
+            this.params = params;
+        }
+
+        @Override
+        public int compareTo(QueuedJob other) {
+            return rank != other.rank ? Integer.compare(rank, other.rank) : Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public void run() {
+            queued.remove(id);
+            execute(this);
+        }
+    }
+
+    @Autowired
+    private JobRecordRepository jobRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("jobExecutor")
+    private ThreadPoolTaskExecutor jobExecutor;
+
+    @Value("${cricinfo.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${cricinfo.jobs.progress-interval-ms:1000}")
+    private long progressIntervalMillis;
+
+    @Value("${cricinfo.jobs.stale-after-ms:120000}")
+    private long staleAfterMillis;
+
+    @Value("${cricinfo.jobs.retention-days:30}")
+    private int retentionDays;
+
+    private final String node = UUID.randomUUID().toString();
+    private final AtomicLong sequences = new AtomicLong();
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, QueuedJob> queued = new ConcurrentHashMap<>();
+    private final Map<Long, JobContext> running = new ConcurrentHashMap<>();
+
+    public void register(String type, Job job) {
+        if (jobs.putIfAbsent(type, job) != null) {
+            throw new IllegalStateException("Job type " + type + " is already registered");
+        }
+    }
+
+    public Set<String> getTypes() {
+        return jobs.keySet();
+    }
+
+    /**
+     * Persists and queues a job. Throws IllegalArgumentException for an
+     * unknown type, priority or bad parameters, and QueueFullException when
+     * this node's queue is at capacity.
+     */
+    public synchronized JobRecord submit(String type, String priority, Map<String, String> params) {
+        if (type == null || type.isBlank()) {
+            throw new IllegalArgumentException("A job type is required, one of " + jobs.keySet());
+        }
+        Job job = jobs.get(type);
+        if (job == null) {
+            throw new IllegalArgumentException("Unknown job type " + type);
+        }
+        String rank = priority == null ? "NORMAL" : priority.toUpperCase();
+        if (!PRIORITIES.contains(rank)) {
+            throw new IllegalArgumentException("Priority must be one of " + PRIORITIES);
+        }
+        if (params != null) {
+            // Not containsKey(null): immutable maps throw on it.
+            for (Map.Entry<String, String> param : params.entrySet()) {
+                if (param.getKey() == null || param.getValue() == null) {
+                    throw new IllegalArgumentException("Job parameter " + param.getKey() + " must not be null");
+                }
+            }
+        }
+        Map<String, String> values = params == null ? Map.of() : Map.copyOf(params);
+        job.validate(values);
+        if (queued.size() >= queueCapacity) {
+            throw new QueueFullException(queueCapacity);
+        }
+        JobRecord record = new JobRecord();
+        record.setType(type);
+        record.setPriority(rank);
+        record.setStatus(QUEUED);
+        record.setParams(toJson(values));
+        record.setNode(node);
+        record = jobRecordRepository.save(record);
+        enqueue(new QueuedJob(record.getId(), type, rank, values));
+        return record;
+    }
+
+    /** Whether a job of this type is queued or running on any node. */
+    public boolean hasActiveJob(String type) {
+        return jobRecordRepository.existsActive(type);
+    }
+
+    /** Whether a job of this type has ever completed, as far as finished jobs are retained. */
+    public boolean hasSucceeded(String type) {
+        return jobRecordRepository.existsByTypeAndStatus(type, SUCCEEDED);
+    }
+
+    public Optional<JobRecord> getJob(Long id) {
+        return jobRecordRepository.findById(id);
+    }
+
+    public List<JobRecord> getJobs(String status, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return status == null
+                ? jobRecordRepository.findRecent(page)
+                : jobRecordRepository.findRecentByStatus(status.toUpperCase(), page);
+    }
+
+    /**
+     * Cancels a queued job at once; a running one stops at its next progress
+     * report or cancellation check. Empty when the job does not exist; a job
+     * that has already finished is returned unchanged.
+     */
+    public Optional<JobRecord> cancel(Long id) {
+        Optional<JobRecord> found = jobRecordRepository.findById(id);
+        if (found.isEmpty() || !isActive(found.get().getStatus())) {
+            return found;
+        }
+        QueuedJob waiting = queued.remove(id);
+        if (waiting != null && jobExecutor.getThreadPoolExecutor().remove(waiting)) {
+            jobRecordRepository.finish(id, CANCELLED, 0, "Cancelled before it started", LocalDateTime.now());
+        } else {
+            // Running here, or queued or running on another node.
+            jobRecordRepository.requestCancel(id);
+            JobContext context = running.get(id);
+            if (context != null) {
+                context.cancelled = true;
+            }
+        }
+        return jobRecordRepository.findById(id);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("node", node);
+        stats.put("workers", jobExecutor.getMaxPoolSize());
+        stats.put("queued", queued.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("running", new ArrayList<>(running.keySet()));
+        stats.put("types", getTypes());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${cricinfo.jobs.heartbeat-ms:30000}")
+    public void heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> held = new ArrayList<>(queued.keySet());
+        held.addAll(running.keySet());
+        if (!held.isEmpty()) {
+            jobRecordRepository.touch(held, now);
+        }
+        LocalDateTime cutoff = now.minus(Duration.ofMillis(staleAfterMillis));
+        for (JobRecord stale : jobRecordRepository.findStale(RUNNING, cutoff)) {
+            if (jobRecordRepository.finish(stale.getId(), FAILED, stale.getProgress(),
+                    "Node stopped while the job was running", now) == 1) {
+                log.warn("Job {} ({}) failed: its node stopped while it was running", stale.getId(), stale.getType());
+            }
+        }
+        for (JobRecord stale : jobRecordRepository.findStale(QUEUED, cutoff)) {
+            Job job = jobs.get(stale.getType());
+            if (job != null && queued.size() < queueCapacity
+                    && jobRecordRepository.claim(stale.getId(), node, now, cutoff) == 1) {
+                log.info("Re-queued job {} ({}) left behind by another node", stale.getId(), stale.getType());
+                enqueue(new QueuedJob(stale.getId(), stale.getType(), stale.getPriority(), fromJson(stale.getParams())));
+            }
+        }
+        jobRecordRepository.deleteFinishedBefore(now.minusDays(retentionDays));
+    }
+
+    private void enqueue(QueuedJob task) {
+        queued.put(task.id, task);
+        jobExecutor.execute(task);
+    }
+
+    private void execute(QueuedJob task) {
+        if (jobRecordRepository.markRunning(task.id, LocalDateTime.now()) == 0) {
+            // Cancelled (possibly from another node) while it was waiting.
+            jobRecordRepository.finish(task.id, CANCELLED, 0, "Cancelled before it started", LocalDateTime.now());
+            return;
+        }
+        JobContext context = new JobContext(task.id, task.params);
+        running.put(task.id, context);
+        long started = System.nanoTime();
+        try {
+            String result = jobs.get(task.type).run(context);
+            jobRecordRepository.finish(task.id, SUCCEEDED, 100, truncate(result), LocalDateTime.now());
+            log.info("Job {} ({}) finished in {} ms: {}", task.id, task.type,
+                    (System.nanoTime() - started) / 1_000_000, result);
+        } catch (CancellationException e) {
+            jobRecordRepository.finish(task.id, CANCELLED, currentProgress(task.id), "Cancelled", LocalDateTime.now());
+            log.info("Job {} ({}) cancelled", task.id, task.type);
+        } catch (Exception e) {
+            jobRecordRepository.finish(task.id, FAILED, currentProgress(task.id), truncate(String.valueOf(e.getMessage())),
+                    LocalDateTime.now());
+            log.warn("Job {} ({}) failed", task.id, task.type, e);
+        } finally {
+            running.remove(task.id);
+        }
+    }
+
+    private int currentProgress(long id) {
+        return jobRecordRepository.findById(id).map(JobRecord::getProgress).orElse(0);
+    }
+
+    private static boolean isActive(String status) {
+        return QUEUED.equals(status) || RUNNING.equals(status);
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private String toJson(Map<String, String> params) {
+        try {
+            return objectMapper.writeValueAsString(params);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, String> fromJson(String params) {
+        if (params == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(params, new TypeReference<Map<String, String>>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.cricinfo.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole-table list responses row by row instead of loading the list
+ * first. Rows come from a repository stream read in fetch-size chunks, inside
+ * a read-only transaction opened on the thread that writes the response, and
+ * each row is detached once written, so a request holds one chunk of
+ * entities however large the table grows. The encoding is negotiated like any
+ * other response, and rows are written with the same mappers the JSON, CBOR
+ * and Smile converters use.
+ */
+@Service
+public class ListStreamer {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jsonConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /** The encoding to write for an Accept header, or null when none of the offered ones is acceptable. */
+    public MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            for (MediaType offered : List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE)) {
+                if (type.includes(offered)) {
+                    return offered;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A body writing the rows {@code query} returns as one array. The query
+     * runs when the body is written, so it must return a stream the caller
+     * has not opened a transaction for; the stream is closed afterwards.
+     */
+    public <T> StreamingResponseBody stream(MediaType mediaType, Class<T> type, Supplier<Stream<T>> query) {
+        ObjectWriter writer = mapperFor(mediaType).writerFor(type)
+                // Let the generator's buffer decide when bytes go out, not every row.
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return out -> {
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<T> rows = query.get();
+                         JsonGenerator generator = writer.createGenerator(out)
+                                 .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                        generator.writeStartArray();
+                        Iterator<T> iterator = rows.iterator();
+                        while (iterator.hasNext()) {
+                            T row = iterator.next();
+                            writer.writeValue(generator, row);
+                            entityManager.detach(row);
+                        }
+                        generator.writeEndArray();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    private ObjectMapper mapperFor(MediaType mediaType) {
+        if (MediaType.APPLICATION_CBOR.equals(mediaType)) {
+            return cborConverter.getObjectMapper();
+        }
+        if (SMILE.equals(mediaType)) {
+            return smileConverter.getObjectMapper();
+        }
+        return jsonConverter.getObjectMapper();
+    }
+}
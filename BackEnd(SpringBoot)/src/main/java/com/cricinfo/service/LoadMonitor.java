@@ -0,0 +1,99 @@
+package com.cricinfo.service;
+
+import com.cricinfo.config.TrafficProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks recent request latency and connection-pool contention and turns them
+ * into a shedding level once a second: 0 = healthy, 1 = shed searches,
+ * 2 = shed searches and plain reads. Live-score reads are never shed.
+ */
+@Component
+public class LoadMonitor {
+
+    private static final int WINDOW = 2048;
+
+    private static final long MAX_SAMPLE_AGE_MILLIS = 10_000;
+
+    // Below this many recent samples a p99 is just the slowest request, e.g. a cold start.
+    private static final int MIN_SAMPLES = 50;
+
+    @Autowired
+    private TrafficProperties properties;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final AtomicLongArray latencies = new AtomicLongArray(WINDOW);
+    private final AtomicLongArray recordedAt = new AtomicLongArray(WINDOW);
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private volatile int sheddingLevel;
+    private volatile long p99Millis;
+    private volatile int poolWaiters;
+
+    public void recordLatency(long millis) {
+        int slot = Math.floorMod(cursor.getAndIncrement(), WINDOW);
+        latencies.set(slot, millis);
+        recordedAt.set(slot, System.currentTimeMillis());
+    }
+
+    public int getSheddingLevel() {
+        return sheddingLevel;
+    }
+
+    public long getP99Millis() {
+        return p99Millis;
+    }
+
+    public int getPoolWaiters() {
+        return poolWaiters;
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void evaluate() {
+        long cutoff = System.currentTimeMillis() - MAX_SAMPLE_AGE_MILLIS;
+        long[] sample = new long[WINDOW];
+        int recorded = 0;
+        for (int i = 0; i < WINDOW; i++) {
+            if (recordedAt.get(i) >= cutoff) {
+                sample[recorded++] = latencies.get(i);
+            }
+        }
+        Arrays.sort(sample, 0, recorded);
+        p99Millis = recorded == 0 ? 0 : sample[(int) Math.ceil(recorded * 0.99) - 1];
+        poolWaiters = currentPoolWaiters();
+
+        if (!properties.isSheddingEnabled()) {
+            sheddingLevel = 0;
+            return;
+        }
+        long latencyLimit = properties.getP99ThresholdMillis();
+        int waitLimit = properties.getPoolWaitThreshold();
+        long p99 = recorded >= MIN_SAMPLES ? p99Millis : 0;
+        if (p99 > 2 * latencyLimit || poolWaiters > 2 * waitLimit) {
+            sheddingLevel = 2;
+        } else if (p99 > latencyLimit || poolWaiters > waitLimit) {
+            sheddingLevel = 1;
+        } else {
+            sheddingLevel = 0;
+        }
+    }
+
+    private int currentPoolWaiters() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,251 @@
+package com.cricinfo.service;
+
+import com.cricinfo.entity.Team;
+import com.cricinfo.repository.NewsArticleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The maintenance work that runs as background jobs rather than inline in a
+ * request. Each job reports progress between units of work and stops there
+ * when cancelled; what it finished before that stays done.
+ *
+ * <p>Eager even under lazy initialization: nothing else references this bean,
+ * and the job types must be registered before queued jobs are picked up.
+ */
+@Component
+@Lazy(false)
+public class MaintenanceJobs {
+
+    private static final Logger log = LoggerFactory.getLogger(MaintenanceJobs.class);
+
+    public static final String PLAYER_STATS = "player-stats";
+    public static final String REBUILD_INDEXES = "rebuild-indexes";
+    public static final String TEAM_RANKINGS = "team-rankings";
+    public static final String PURGE_NEWS = "purge-news";
+    public static final String ARCHIVE_NEWS = "archive-news";
+    public static final String COMPRESSION_BENCHMARK = "compression-benchmark";
+    public static final String DERIVED_RATES = "derived-rates";
+
+    private static final int DERIVED_RATES_PAGE = 500;
+
+    // Fastest, default and smallest level of each encoding, plus brotli 4 where its speed falls away.
+    private static final Map<String, int[]> BENCHMARK_LEVELS = new LinkedHashMap<>();
+
+    static {
+        BENCHMARK_LEVELS.put(CompressionService.GZIP, new int[] {1, 6, 9});
+        BENCHMARK_LEVELS.put(CompressionService.BROTLI, new int[] {1, 4, 5, 11});
+        BENCHMARK_LEVELS.put(CompressionService.ZSTD, new int[] {1, 3, 9, 19});
+    }
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private PlayerStatsService playerStatsService;
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private TypeaheadService typeaheadService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private RelatedContentService relatedContentService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private NewsArchiveService newsArchiveService;
+
+    @Autowired
+    private NewsArticleRepository newsArticleRepository;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private CompressionService compressionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostConstruct
+    public void register() {
+        jobService.register(PLAYER_STATS, context -> "Career stats rebuilt in " + playerStatsService.recompute() + " ms");
+        jobService.register(REBUILD_INDEXES, this::rebuildIndexes);
+        jobService.register(TEAM_RANKINGS, this::recomputeRankings);
+        jobService.register(PURGE_NEWS, new JobService.Job() {
+            @Override
+            public String run(JobService.JobContext context) {
+                return purgeNews(context);
+            }
+
+            @Override
+            public void validate(Map<String, String> params) {
+                olderThanDays(params);
+            }
+        });
+        jobService.register(COMPRESSION_BENCHMARK, this::benchmarkCompression);
+        jobService.register(DERIVED_RATES, this::correctDerivedRates);
+        // olderThanDays is optional here; cricinfo.archive.after-days applies without it.
+        jobService.register(ARCHIVE_NEWS, new JobService.Job() {
+            @Override
+            public String run(JobService.JobContext context) {
+                Map<String, String> params = context.getParams();
+                return newsArchiveService.archive(context, params.containsKey("olderThanDays") ? olderThanDays(params) : null);
+            }
+
+            @Override
+            public void validate(Map<String, String> params) {
+                if (params.containsKey("olderThanDays")) {
+                    olderThanDays(params);
+                }
+            }
+        });
+    }
+
+    // One-off: rows written before rates were derived are corrected once, after startup rather than before readiness.
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleDerivedRates() {
+        if (!jobService.hasSucceeded(DERIVED_RATES) && !jobService.hasActiveJob(DERIVED_RATES)) {
+            jobService.submit(DERIVED_RATES, "LOW", Map.of());
+        }
+    }
+
+    // Updates through MatchService one match at a time, so each correction is published like a manual edit.
+    private String correctDerivedRates(JobService.JobContext context) {
+        long total = matchService.countMatches();
+        long checked = 0;
+        int corrected = 0;
+        long after = 0;
+        List<Long> ids;
+        while (!(ids = matchService.getMatchIdsAfter(after, DERIVED_RATES_PAGE)).isEmpty()) {
+            for (Long id : ids) {
+                context.progress(checked++, total, "Corrected " + corrected + " of " + checked + " matches checked");
+                if (matchService.correctDerivedRates(id)) {
+                    corrected++;
+                }
+            }
+            after = ids.get(ids.size() - 1);
+        }
+        return "Corrected stored run rates of " + corrected + " of " + checked + " matches";
+    }
+
+    // Every encoding this platform can produce, at BENCHMARK_LEVELS, over the largest list responses as served today.
+    private String benchmarkCompression(JobService.JobContext context) throws Exception {
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        payloads.put("news", newsService.getAllNews());
+        payloads.put("matches", matchService.getAllMatches());
+        payloads.put("players", playerService.getAllPlayers());
+        List<String> rows = new ArrayList<>();
+        int done = 0;
+        for (Map.Entry<String, Object> payload : payloads.entrySet()) {
+            context.progress(done++, payloads.size(), "Benchmarking " + payload.getKey());
+            byte[] body = objectMapper.writeValueAsBytes(payload.getValue());
+            for (Map.Entry<String, int[]> levels : BENCHMARK_LEVELS.entrySet()) {
+                if (compressionService.isAvailable(levels.getKey())) {
+                    rows.addAll(compressionService.benchmark(payload.getKey(), body, levels.getKey(), levels.getValue(), 200));
+                }
+            }
+        }
+        rows.forEach(row -> log.info("Compression benchmark: {}", row));
+        return String.join("; ", rows);
+    }
+
+    // Same rebuilds as a cluster resync, one at a time so the job can stop between them.
+    private String rebuildIndexes(JobService.JobContext context) {
+        Map<String, Runnable> steps = new LinkedHashMap<>();
+        steps.put("calendar", calendarService::rebuild);
+        steps.put("typeahead", typeaheadService::rebuild);
+        steps.put("analytics", analyticsService::rebuild);
+        steps.put("player-stats", playerStatsService::rebuild);
+        steps.put("trending", trendingService::rebuild);
+        steps.put("related", relatedContentService::rebuild);
+        int done = 0;
+        for (Map.Entry<String, Runnable> step : steps.entrySet()) {
+            context.progress(done, steps.size(), "Rebuilding " + step.getKey());
+            step.getValue().run();
+            done++;
+        }
+        return "Rebuilt " + String.join(", ", steps.keySet());
+    }
+
+    // Ranks each format's teams by points, highest first; ties keep their current order.
+    private String recomputeRankings(JobService.JobContext context) {
+        List<String> formats = teamService.getAllFormats();
+        int changed = 0;
+        for (int f = 0; f < formats.size(); f++) {
+            String format = formats.get(f);
+            context.progress(f, formats.size(), "Ranking " + format + " teams");
+            List<Team> teams = new ArrayList<>(teamService.getTeamsByFormat(format));
+            teams.sort(Comparator.comparing(Team::getPoints, Comparator.nullsLast(Comparator.reverseOrder())));
+            for (int i = 0; i < teams.size(); i++) {
+                Team team = teams.get(i);
+                if (team.getRanking() == null || team.getRanking() != i + 1) {
+                    int ranking = i + 1;
+                    teamService.getTeamById(team.getId()).ifPresent(details -> {
+                        details.setRanking(ranking);
+                        teamService.updateTeam(details.getId(), details);
+                    });
+                    changed++;
+                }
+            }
+        }
+        return changed + " team rankings changed across " + formats.size() + " formats";
+    }
+
+    // Deletes through NewsService one article at a time, so every delete is published like a manual one.
+    private String purgeNews(JobService.JobContext context) {
+        int days = olderThanDays(context.getParams());
+        List<Long> ids = newsArticleRepository.findUnfeaturedIdsPublishedBefore(LocalDateTime.now().minusDays(days));
+        int deleted = 0;
+        for (int i = 0; i < ids.size(); i++) {
+            context.progress(i, ids.size(), "Deleted " + deleted + " of " + ids.size() + " articles");
+            if (newsService.deleteNews(ids.get(i))) {
+                deleted++;
+            }
+        }
+        return "Deleted " + deleted + " unfeatured articles published more than " + days + " days ago";
+    }
+
+    private static int olderThanDays(Map<String, String> params) {
+        String value = params.get("olderThanDays");
+        try {
+            int days = Integer.parseInt(value);
+            if (days >= 1) {
+                return days;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below.
+        }
+        throw new IllegalArgumentException("olderThanDays must be a whole number of days, at least 1");
+    }
+}
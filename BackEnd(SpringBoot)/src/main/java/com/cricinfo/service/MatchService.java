@@ -1,13 +1,38 @@
 package com.cricinfo.service;
 
+import com.cricinfo.dto.MatchProjection;
+import com.cricinfo.dto.ScoreboardDelta;
+import com.cricinfo.engine.ScoreEngine;
+import com.cricinfo.engine.ScoreState;
+import com.cricinfo.engine.ScoreboardHistory;
 import com.cricinfo.entity.Match;
+import com.cricinfo.entity.MatchParticipant;
+import com.cricinfo.event.CacheResyncEvent;
+import com.cricinfo.event.EntityChangeEvent;
+import com.cricinfo.repository.MatchParticipantRepository;
 import com.cricinfo.repository.MatchRepository;
+import com.cricinfo.repository.ScorecardEntryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Service
 public class MatchService {
@@ -15,16 +40,41 @@ public class MatchService {
     @Autowired
     private MatchRepository matchRepository;
 
+    @Autowired
+    private MatchParticipantRepository matchParticipantRepository;
+
+    @Autowired
+    private ScorecardEntryRepository scorecardEntryRepository;
+
+    @Autowired
+    private ScoreEngine scoreEngine;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${cricinfo.scoreboard.history-size:32}")
+    private int scoreboardHistorySize;
+
+    private final Map<Long, ScoreboardHistory> scoreboards = new ConcurrentHashMap<>();
+
     public List<Match> getAllMatches() {
         return matchRepository.findAll();
     }
 
+    // For the streamed match list, which opens the transaction and closes the stream.
+    public Stream<Match> streamAllMatches() {
+        return matchRepository.streamAll();
+    }
+
     public Optional<Match> getMatchById(Long id) {
-        return matchRepository.findById(id);
+        return singleFlight.execute("match.byId", () -> matchRepository.findById(id), id);
     }
 
     public List<Match> getLiveMatches() {
-        return matchRepository.findLiveMatches();
+        return singleFlight.execute("match.live", matchRepository::findLiveMatches);
     }
 
     public List<Match> getRecentMatches() {
@@ -35,8 +85,12 @@ public class MatchService {
         return matchRepository.findUpcomingMatches();
     }
 
-    public List<Match> getMatchesByTeam(String team) {
-        return matchRepository.findMatchesByTeam(team);
+    public List<Match> getMatchesByTeam(String team, int page, int size) {
+        return matchParticipantRepository.findMatchesByTeam(team, PageRequest.of(page, size));
+    }
+
+    public List<Match> getHeadToHead(String team, String opponent, int page, int size) {
+        return matchParticipantRepository.findHeadToHead(team, opponent, PageRequest.of(page, size));
     }
 
     public List<Match> getMatchesBySeries(String series) {
@@ -47,14 +101,102 @@ public class MatchService {
         return matchRepository.findMatchesByFormat(format);
     }
 
+    public List<Match> searchMatches(String query, int limit) {
+        return matchRepository.searchMatches(query, PageRequest.of(0, limit));
+    }
+
     public List<Match> getMatchesByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         return matchRepository.findMatchesByDateRange(startDate, endDate);
     }
 
+    public Optional<MatchProjection> getMatchProjection(Long id) {
+        return matchRepository.findById(id).map(this::toProjection);
+    }
+
+    /**
+     * Scoreboard fields changed since the client's {@code since} version, or the
+     * full scoreboard when {@code since} is missing or has left the history.
+     */
+    public Optional<ScoreboardDelta> getScoreboard(Long id, Long since) {
+        ScoreboardHistory history = scoreboards.get(id);
+        if (history == null) {
+            Optional<Match> match = matchRepository.findById(id);
+            if (match.isEmpty()) {
+                return Optional.empty();
+            }
+            history = recordScoreboard(match.get());
+        }
+
+        long version = history.latestVersion();
+        Map<String, Object> changes = since != null ? history.changesSince(since) : null;
+        if (changes != null) {
+            return Optional.of(new ScoreboardDelta(id, version, false, changes));
+        }
+        return Optional.of(new ScoreboardDelta(id, version, true, history.latestSnapshot()));
+    }
+
+    private ScoreboardHistory recordScoreboard(Match match) {
+        ScoreboardHistory history = scoreboards.computeIfAbsent(match.getId(),
+                key -> new ScoreboardHistory(scoreboardHistorySize));
+        history.record(scoreboardVersion(match), scoreboardSnapshot(match));
+        return history;
+    }
+
+    /**
+     * Keeps retained scoreboards in step with committed match changes, this
+     * node's and its peers' alike. Only matches someone has asked for have a
+     * history; the rest are built on first request.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMatchChange(EntityChangeEvent event) {
+        if (event.getEntityType() != EntityChangeEvent.EntityType.MATCH) {
+            return;
+        }
+        if (event.isRemoval()) {
+            scoreboards.remove(event.getEntityId());
+        } else if (event.getEntity() instanceof Match match && scoreboards.containsKey(match.getId())) {
+            recordScoreboard(match);
+        }
+    }
+
+    // Messages from peers were lost; rebuild each history from the database when next asked for.
+    @EventListener(CacheResyncEvent.class)
+    public void clearScoreboards() {
+        scoreboards.clear();
+    }
+
+    // The stored update time names the state on every node; it is written at microsecond precision.
+    private static long scoreboardVersion(Match match) {
+        LocalDateTime updatedAt = match.getUpdatedAt();
+        return updatedAt == null ? 0
+                : updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+    }
+
+    private static Map<String, Object> scoreboardSnapshot(Match match) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("team1Score", match.getTeam1Score());
+        snapshot.put("team2Score", match.getTeam2Score());
+        snapshot.put("team1Overs", match.getTeam1Overs());
+        snapshot.put("team2Overs", match.getTeam2Overs());
+        snapshot.put("status", match.getStatus());
+        snapshot.put("runRate", match.getRunRate());
+        snapshot.put("requiredRate", match.getRequiredRate());
+        snapshot.put("currentBatsmen", match.getCurrentBatsmen() != null ? new ArrayList<>(match.getCurrentBatsmen()) : null);
+        snapshot.put("currentBowler", match.getCurrentBowler());
+        snapshot.put("playerOfMatch", match.getPlayerOfMatch());
+        return snapshot;
+    }
+
+    @Transactional
     public Match createMatch(Match match) {
-        return matchRepository.save(match);
+        scoreEngine.applyDerivedRates(match);
+        Match saved = matchRepository.save(match);
+        syncParticipants(saved);
+        publish(EntityChangeEvent.ChangeType.CREATED, saved);
+        return saved;
     }
 
+    @Transactional
     public Optional<Match> updateMatch(Long id, Match matchDetails) {
         return matchRepository.findById(id)
                 .map(match -> {
@@ -78,16 +220,124 @@ public class MatchService {
                     match.setPlayerOfMatch(matchDetails.getPlayerOfMatch());
                     match.setStartTime(matchDetails.getStartTime());
                     match.setEndTime(matchDetails.getEndTime());
-                    return matchRepository.save(match);
+                    scoreEngine.applyDerivedRates(match);
+                    Match saved = matchRepository.save(match);
+                    syncParticipants(saved);
+                    publish(EntityChangeEvent.ChangeType.UPDATED, saved);
+                    return saved;
                 });
     }
 
+    /**
+     * Moves the match to {@code next} only if it is still in {@code expected},
+     * so a scheduled transition never overrides a manual status change. The
+     * check and the write are one conditional UPDATE, so when every node's
+     * scheduler fires the same transition only one of them applies and
+     * publishes it.
+     */
+    @Transactional
+    public boolean transitionStatus(Long id, String expected, String next) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (matchRepository.updateStatusIfCurrent(id, expected, next, now) != 1) {
+            return false;
+        }
+        matchRepository.findById(id).ifPresent(match -> publish(EntityChangeEvent.ChangeType.UPDATED, match));
+        return true;
+    }
+
+    private MatchProjection toProjection(Match match) {
+        ScoreState state = scoreEngine.compute(match);
+        MatchProjection projection = new MatchProjection();
+        projection.setMatchId(match.getId());
+        projection.setFormat(match.getFormat());
+        if (state.getBattingSide() == 0) {
+            return projection;
+        }
+        projection.setBattingTeam(state.getBattingSide() == 1 ? match.getTeam1() : match.getTeam2());
+        projection.setTarget(state.getTarget() > 0 ? state.getTarget() : null);
+        projection.setBallsRemaining(state.getBallsRemaining() >= 0 ? state.getBallsRemaining() : null);
+        projection.setCurrentRunRate(round(state.getCurrentRunRate()));
+        projection.setRequiredRunRate(round(state.getRequiredRunRate()));
+        projection.setProjectedScore(Double.isNaN(state.getProjectedScore()) ? null : (int) Math.round(state.getProjectedScore()));
+        projection.setTeam1WinProbability(round(state.getWinProbability()));
+        return projection;
+    }
+
+    private static Double round(double value) {
+        return Double.isNaN(value) ? null : Math.round(value * 100) / 100.0;
+    }
+
+    @Transactional
     public boolean deleteMatch(Long id) {
         return matchRepository.findById(id)
                 .map(match -> {
+                    matchParticipantRepository.deleteByMatchId(id);
+                    scorecardEntryRepository.deleteByMatchId(id);
                     matchRepository.delete(match);
+                    publish(EntityChangeEvent.ChangeType.DELETED, match);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Creates participant rows for matches that have none, e.g. rows inserted
+     * before the participant table existed or seeded straight through the repository.
+     */
+    @Transactional
+    public void backfillParticipants() {
+        matchParticipantRepository.findMatchesWithoutParticipants().forEach(this::syncParticipants);
+    }
+
+    /** Match ids above {@code afterId} in ascending order, for jobs that walk the table a page at a time. */
+    public List<Long> getMatchIdsAfter(long afterId, int limit) {
+        return matchRepository.findIdsAfter(afterId, PageRequest.of(0, limit));
+    }
+
+    public long countMatches() {
+        return matchRepository.count();
+    }
+
+    /**
+     * Rewrites the stored run rates when they disagree with the scores, e.g. on
+     * rows seeded straight through the repository or written before rates were
+     * derived, and publishes the change like any other update. False when the
+     * match is gone or its rates already agree.
+     */
+    @Transactional
+    public boolean correctDerivedRates(Long id) {
+        return matchRepository.findById(id)
+                .filter(match -> {
+                    String runRate = match.getRunRate();
+                    String requiredRate = match.getRequiredRate();
+                    scoreEngine.applyDerivedRates(match);
+                    return !Objects.equals(runRate, match.getRunRate())
+                            || !Objects.equals(requiredRate, match.getRequiredRate());
+                })
+                .map(match -> {
+                    publish(EntityChangeEvent.ChangeType.UPDATED, matchRepository.save(match));
                     return true;
                 })
                 .orElse(false);
     }
+
+    private void syncParticipants(Match match) {
+        MatchParticipant[] sides = new MatchParticipant[2];
+        for (MatchParticipant participant : matchParticipantRepository.findByMatchId(match.getId())) {
+            sides[participant.getSlot() - 1] = participant;
+        }
+        for (int slot = 1; slot <= 2; slot++) {
+            MatchParticipant participant = sides[slot - 1] != null ? sides[slot - 1] : new MatchParticipant();
+            participant.setMatch(match);
+            participant.setSlot(slot);
+            participant.setTeamName(slot == 1 ? match.getTeam1() : match.getTeam2());
+            participant.setOpponentName(slot == 1 ? match.getTeam2() : match.getTeam1());
+            participant.setStartTime(match.getStartTime());
+            matchParticipantRepository.save(participant);
+        }
+    }
+
+    private void publish(EntityChangeEvent.ChangeType changeType, Match match) {
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityChangeEvent.EntityType.MATCH, changeType, match.getId(), match));
+    }
 }
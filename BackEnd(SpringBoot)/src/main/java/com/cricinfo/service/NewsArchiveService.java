@@ -0,0 +1,498 @@
+package com.cricinfo.service;
+
+import com.cricinfo.engine.ArchiveSegment;
+import com.cricinfo.entity.NewsArticle;
+import com.cricinfo.event.EntityChangeEvent;
+import com.cricinfo.repository.NewsArticleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier for old news. The archive job moves unfeatured articles published
+ * more than the configured age ago out of {@code news_articles} into
+ * compressed {@link ArchiveSegment} files, so the hot table and the list
+ * queries over it stay small. {@code getNewsById} falls back to the archive,
+ * which reads the memory-mapped segments. A small in-memory catalog (id,
+ * publication time, category, author) lets the news lists, search, trending
+ * and related content merge archived articles in without inflating every
+ * block. Editing an archived article restores it to the table under its own
+ * id; the table row wins over the archived copy from then on.
+ *
+ * <p>Segments are immutable and named by creation time, newest first wins.
+ * Deleting an archived article appends its id to an append-only tombstone
+ * file. Nodes sharing the directory pick up each other's segments and
+ * tombstones when a lookup misses.
+ */
+@Service
+public class NewsArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(NewsArchiveService.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String TOMBSTONES = "tombstones";
+    private static final long RESCAN_NANOS = 5_000_000_000L;
+
+    /** Newest first, the order of the news list queries. */
+    public static final Comparator<NewsArticle> NEWEST_FIRST =
+            Comparator.comparing(NewsArticle::getPublishedAt, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    @Autowired
+    private NewsArticleRepository newsArticleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${cricinfo.archive.dir:data/archive}")
+    private String dir;
+
+    @Value("${cricinfo.archive.after-days:365}")
+    private int afterDays;
+
+    @Value("${cricinfo.archive.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${cricinfo.archive.block-records:64}")
+    private int blockRecords;
+
+    // Enough of an archived article to pick it for a list without inflating its block.
+    private record Entry(String segment, LocalDateTime publishedAt, String category, String author) {
+    }
+
+    // Newest first.
+    private volatile List<ArchiveSegment> segments = List.of();
+    private final Set<Long> tombstones = ConcurrentHashMap.newKeySet();
+    // Listed archived articles: the newest copy of each, without tombstoned or restored ones.
+    private final Map<Long, Entry> catalog = new ConcurrentHashMap<>();
+    private long tombstoneBytes;
+    private volatile long lastScanNanos;
+    // Set when another node archived articles, so the next read looks for its segment.
+    private volatile boolean stale;
+
+    @PostConstruct
+    public void init() {
+        try {
+            Files.createDirectories(Paths.get(dir));
+            scan();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open news archive in " + dir, e);
+        }
+        List<ArchiveSegment> current = segments;
+        if (!current.isEmpty()) {
+            long min = current.stream().mapToLong(ArchiveSegment::getMinId).min().getAsLong();
+            long max = current.stream().mapToLong(ArchiveSegment::getMaxId).max().getAsLong();
+            // Restored to the table since they were archived.
+            newsArticleRepository.findIdsBetween(min, max).forEach(catalog::remove);
+        }
+        log.info("News archive holds {} articles in {} segments", catalog.size(), current.size());
+    }
+
+    public Optional<NewsArticle> find(Long id) {
+        if (tombstones.contains(id)) {
+            return Optional.empty();
+        }
+        Optional<NewsArticle> found = lookup(id);
+        if (found.isEmpty() && rescanIfDue()) {
+            found = tombstones.contains(id) ? Optional.empty() : lookup(id);
+        }
+        return found;
+    }
+
+    /** True for an archived article that has not been restored to the table. */
+    public boolean contains(Long id) {
+        return catalog.containsKey(id);
+    }
+
+    /** Archived articles in the category, newest first. */
+    public List<NewsArticle> findByCategory(String category) {
+        return load(entry -> entry.category().equalsIgnoreCase(category));
+    }
+
+    /** Archived articles by the author, newest first. */
+    public List<NewsArticle> findByAuthor(String author) {
+        return load(entry -> entry.author().equalsIgnoreCase(author));
+    }
+
+    /** Every archived article newest first, each read from its segment when the stream reaches it. */
+    public Stream<NewsArticle> streamAll() {
+        return entries(entry -> true).stream()
+                .flatMap(id -> lookup(id).stream());
+    }
+
+    /** Archived articles whose title, summary or content contains the query, newest first; reads every segment. */
+    public List<NewsArticle> search(String query) {
+        String needle = query.toLowerCase();
+        List<NewsArticle> found = new ArrayList<>();
+        forEach(article -> {
+            if (matches(article.getTitle(), needle) || matches(article.getSummary(), needle)
+                    || matches(article.getContent(), needle)) {
+                found.add(article);
+            }
+        });
+        found.sort(NEWEST_FIRST);
+        return found;
+    }
+
+    /** Calls {@code action} with every listed archived article, in no particular order. */
+    public void forEach(Consumer<NewsArticle> action) {
+        rescanIfDue();
+        for (ArchiveSegment segment : segments) {
+            String name = segment.getPath().getFileName().toString();
+            try {
+                segment.forEach(record -> {
+                    Entry entry = catalog.get(record.getId());
+                    // Older copies of an article, and deleted or restored ones, are skipped.
+                    if (entry != null && entry.segment().equals(name)) {
+                        action.accept(read(record.getData()));
+                    }
+                });
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Reading {} failed: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    public Set<String> getCategories() {
+        rescanIfDue();
+        Set<String> categories = new TreeSet<>();
+        catalog.values().forEach(entry -> categories.add(entry.category()));
+        return categories;
+    }
+
+    public Set<String> getAuthors() {
+        rescanIfDue();
+        Set<String> authors = new TreeSet<>();
+        catalog.values().forEach(entry -> authors.add(entry.author()));
+        return authors;
+    }
+
+    /**
+     * Writes an archived article back to the table under its own id, in the
+     * caller's transaction, so it can be edited again. False when the archive
+     * does not hold it. The archived copy stays in its segment but is taken
+     * out of the catalog once the change event for the edit is committed.
+     */
+    public boolean restore(Long id) {
+        Optional<NewsArticle> archived = find(id);
+        archived.ifPresent(news -> jdbcTemplate.update("INSERT INTO news_articles (id, title, summary, content, "
+                        + "image_url, category, author, published_at, read_time, views, comments, featured, "
+                        + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                news.getId(), news.getTitle(), news.getSummary(), news.getContent(), news.getImageUrl(),
+                news.getCategory(), news.getAuthor(), news.getPublishedAt(), news.getReadTime(), news.getViews(),
+                news.getComments(), news.getFeatured(), news.getCreatedAt(), news.getUpdatedAt()));
+        return archived.isPresent();
+    }
+
+    // The table holds the current copy of written articles; another node's archive run leaves a new segment.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.getEntityType() != EntityChangeEvent.EntityType.NEWS) {
+            return;
+        }
+        if (event.getChangeType() != EntityChangeEvent.ChangeType.ARCHIVED) {
+            catalog.remove(event.getEntityId());
+        } else if (event.isRemote()) {
+            stale = true;
+        }
+    }
+
+    /** Deletes an archived article, or the archived copy of a restored one; false when the archive does not hold it. */
+    public synchronized boolean delete(Long id) {
+        if (find(id).isEmpty()) {
+            return false;
+        }
+        Path file = Paths.get(dir, TOMBSTONES);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, id));
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        tombstones.add(id);
+        catalog.remove(id);
+        return true;
+    }
+
+    @Scheduled(cron = "${cricinfo.archive.cron:0 30 3 * * *}")
+    public void scheduleArchive() {
+        if (!jobService.hasActiveJob(MaintenanceJobs.ARCHIVE_NEWS)) {
+            jobService.submit(MaintenanceJobs.ARCHIVE_NEWS, "LOW", Map.of());
+        }
+    }
+
+    /**
+     * Moves old articles into new segments, one segment per batch. Each batch
+     * is written and synced before its rows are deleted, under a row lock so
+     * no update in between is lost. The segment joins the live set only once
+     * the delete commits; if it rolls back the file is removed again.
+     */
+    public String archive(JobService.JobContext context, Integer olderThanDays) {
+        int days = olderThanDays != null ? olderThanDays : afterDays;
+        List<Long> ids = new ArrayList<>(
+                newsArticleRepository.findUnfeaturedIdsPublishedBefore(LocalDateTime.now().minusDays(days)));
+        Collections.sort(ids);
+        int archived = 0;
+        int created = 0;
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            context.progress(from, ids.size(), "Archived " + archived + " of " + ids.size() + " articles");
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + batchSize));
+            Integer moved = transactionTemplate.execute(status -> moveToSegment(batch));
+            if (moved != null && moved > 0) {
+                archived += moved;
+                created++;
+            }
+        }
+        return "Archived " + archived + " articles older than " + days + " days into " + created + " segments";
+    }
+
+    public Map<String, Object> getStats() {
+        List<ArchiveSegment> current = segments;
+        long records = 0;
+        long bytes = 0;
+        for (ArchiveSegment segment : current) {
+            records += segment.getRecords();
+            try {
+                bytes += Files.size(segment.getPath());
+            } catch (IOException e) {
+                // Counted as zero.
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("segments", current.size());
+        stats.put("records", records);
+        stats.put("listed", catalog.size());
+        stats.put("bytes", bytes);
+        stats.put("tombstones", tombstones.size());
+        return stats;
+    }
+
+    private int moveToSegment(List<Long> batch) {
+        List<NewsArticle> articles = new ArrayList<>(newsArticleRepository.findAllForUpdate(batch));
+        // Featured since the candidates were listed.
+        articles.removeIf(article -> Boolean.TRUE.equals(article.getFeatured()));
+        if (articles.isEmpty()) {
+            return 0;
+        }
+        List<ArchiveSegment.Record> records = new ArrayList<>(articles.size());
+        try {
+            for (NewsArticle article : articles) {
+                records.add(new ArchiveSegment.Record(article.getId(), objectMapper.writeValueAsBytes(article)));
+            }
+            Path target = Paths.get(dir, String.format("news-%013d-%d%s", System.currentTimeMillis(),
+                    articles.get(0).getId(), SEGMENT_SUFFIX));
+            ArchiveSegment.write(target, records, blockRecords);
+            publishOnCommit(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<Long> moved = new ArrayList<>(articles.size());
+        for (NewsArticle article : articles) {
+            moved.add(article.getId());
+        }
+        newsArticleRepository.deleteAllByIdInBatch(moved);
+        // Indexes and peers act on these after commit; only the trending score row goes inside this transaction.
+        for (NewsArticle article : articles) {
+            eventPublisher.publishEvent(new EntityChangeEvent(EntityChangeEvent.EntityType.NEWS,
+                    EntityChangeEvent.ChangeType.ARCHIVED, article.getId(), article));
+        }
+        return articles.size();
+    }
+
+    // Lookups see the segment once its rows are gone from the table; a rolled back batch leaves no file behind.
+    private void publishOnCommit(Path target) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        add(ArchiveSegment.open(target));
+                    } else {
+                        Files.deleteIfExists(target);
+                    }
+                } catch (IOException e) {
+                    log.warn("Finishing archive segment {} failed: {}", target.getFileName(), e.getMessage());
+                }
+            }
+        });
+    }
+
+    private Optional<NewsArticle> lookup(Long id) {
+        for (ArchiveSegment segment : segments) {
+            try {
+                byte[] data = segment.find(id);
+                if (data != null) {
+                    return Optional.of(objectMapper.readValue(data, NewsArticle.class));
+                }
+            } catch (IOException e) {
+                log.warn("Reading article {} from {} failed: {}", id, segment.getPath().getFileName(), e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private List<NewsArticle> load(Predicate<Entry> filter) {
+        List<NewsArticle> articles = new ArrayList<>();
+        for (Long id : entries(filter)) {
+            lookup(id).ifPresent(articles::add);
+        }
+        return articles;
+    }
+
+    // Ids of the listed articles that pass the filter, newest first.
+    private List<Long> entries(Predicate<Entry> filter) {
+        rescanIfDue();
+        List<Map.Entry<Long, Entry>> matching = new ArrayList<>();
+        catalog.entrySet().forEach(entry -> {
+            if (filter.test(entry.getValue())) {
+                matching.add(entry);
+            }
+        });
+        matching.sort(Comparator.comparing((Map.Entry<Long, Entry> entry) -> entry.getValue().publishedAt(),
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return matching.stream().map(Map.Entry::getKey).toList();
+    }
+
+    // Another node may have archived or deleted articles since the last scan; true when it scanned.
+    private boolean rescanIfDue() {
+        if (!stale && System.nanoTime() - lastScanNanos <= RESCAN_NANOS) {
+            return false;
+        }
+        try {
+            stale = false;
+            scan();
+        } catch (IOException e) {
+            log.warn("Rescanning the news archive failed: {}", e.getMessage());
+        }
+        return true;
+    }
+
+    private NewsArticle read(byte[] data) {
+        try {
+            return objectMapper.readValue(data, NewsArticle.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean matches(String text, String needle) {
+        return text != null && text.toLowerCase().contains(needle);
+    }
+
+    private synchronized void add(ArchiveSegment segment) throws IOException {
+        String name = segment.getPath().getFileName().toString();
+        for (ArchiveSegment known : segments) {
+            if (known.getPath().getFileName().toString().equals(name)) {
+                return;
+            }
+        }
+        Map<Long, Entry> entries = new HashMap<>();
+        try {
+            segment.forEach(record -> {
+                NewsArticle article = read(record.getData());
+                entries.put(record.getId(), new Entry(name, article.getPublishedAt(), article.getCategory(),
+                        article.getAuthor()));
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        List<ArchiveSegment> updated = new ArrayList<>(segments);
+        updated.add(segment);
+        updated.sort(Comparator.comparing((ArchiveSegment s) -> s.getPath().getFileName().toString()).reversed());
+        segments = List.copyOf(updated);
+        // Segment names sort by creation time, so the later name holds the newer copy.
+        entries.forEach((id, entry) -> {
+            if (!tombstones.contains(id)) {
+                catalog.merge(id, entry, (old, added) -> old.segment().compareTo(added.segment()) > 0 ? old : added);
+            }
+        });
+    }
+
+    // Opens segments this node has not seen yet and reads tombstones appended since the last scan.
+    private synchronized void scan() throws IOException {
+        lastScanNanos = System.nanoTime();
+        Set<Path> known = new HashSet<>();
+        for (ArchiveSegment segment : segments) {
+            known.add(segment.getPath().getFileName());
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(dir), "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                if (!known.contains(file.getFileName())) {
+                    try {
+                        add(ArchiveSegment.open(file));
+                    } catch (IOException e) {
+                        log.warn("Skipping archive segment {}: {}", file.getFileName(), e.getMessage());
+                    }
+                }
+            }
+        }
+        Path file = Paths.get(dir, TOMBSTONES);
+        if (Files.exists(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size() - channel.size() % Long.BYTES;
+                if (size > tombstoneBytes) {
+                    ByteBuffer buffer = ByteBuffer.allocate((int) (size - tombstoneBytes));
+                    while (buffer.hasRemaining() && channel.read(buffer, tombstoneBytes + buffer.position()) > 0) {
+                        // Keep reading until the buffer is full.
+                    }
+                    buffer.flip();
+                    while (buffer.remaining() >= Long.BYTES) {
+                        long id = buffer.getLong();
+                        tombstones.add(id);
+                        catalog.remove(id);
+                    }
+                    tombstoneBytes = size;
+                }
+            }
+        }
+    }
+}
@@ -1,57 +1,126 @@
 package com.cricinfo.service;
 
+import com.cricinfo.dto.RelatedContent;
+import com.cricinfo.dto.TrendingArticle;
 import com.cricinfo.entity.NewsArticle;
+import com.cricinfo.event.EntityChangeEvent;
 import com.cricinfo.repository.NewsArticleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * News reads and writes. Lists, search, categories and authors merge the
+ * table with the {@link NewsArchiveService archive}, newest first, so archived
+ * articles stay visible; editing one restores it to the table.
+ */
 @Service
 public class NewsService {
 
     @Autowired
     private NewsArticleRepository newsArticleRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private RelatedContentService relatedContentService;
+
+    @Autowired
+    private NewsArchiveService newsArchiveService;
+
     public List<NewsArticle> getAllNews() {
-        return newsArticleRepository.findAllOrderByPublishedAtDesc();
+        return merged(newsArticleRepository.findAllOrderByPublishedAtDesc(), newsArchiveService.streamAll().toList());
     }
 
+    /** Newest first, like getAllNews; the caller must hold a transaction and close the stream. */
+    public Stream<NewsArticle> streamAllNews() {
+        return merged(newsArticleRepository.streamAllOrderByPublishedAtDesc(), newsArchiveService.streamAll());
+    }
+
+    /** Falls back to the archive for articles moved out of the table. */
     public Optional<NewsArticle> getNewsById(Long id) {
-        return newsArticleRepository.findById(id);
+        return newsArticleRepository.findById(id).or(() -> newsArchiveService.find(id));
     }
 
     public List<NewsArticle> getFeaturedNews() {
-        return newsArticleRepository.findFeaturedNews();
+        return singleFlight.execute("news.featured", newsArticleRepository::findFeaturedNews);
     }
 
     public List<NewsArticle> getNewsByCategory(String category) {
-        return newsArticleRepository.findByCategory(category);
+        return merged(newsArticleRepository.findByCategory(category), newsArchiveService.findByCategory(category));
     }
 
     public List<NewsArticle> getNewsByAuthor(String author) {
-        return newsArticleRepository.findByAuthor(author);
+        return merged(newsArticleRepository.findByAuthor(author), newsArchiveService.findByAuthor(author));
     }
 
     public List<NewsArticle> searchNews(String query) {
-        return newsArticleRepository.searchNews(query);
+        return merged(newsArticleRepository.searchNews(query), newsArchiveService.search(query));
+    }
+
+    /** Newest matches first as [id, title, summary, category, author, publishedAt], without the article body. */
+    public List<Object[]> searchHeadlines(String query, int limit) {
+        List<Object[]> rows = new ArrayList<>(newsArticleRepository.searchNewsHeadlines(query, PageRequest.of(0, limit)));
+        List<NewsArticle> archived = newsArchiveService.search(query);
+        if (archived.isEmpty()) {
+            return rows;
+        }
+        for (NewsArticle news : archived.subList(0, Math.min(limit, archived.size()))) {
+            rows.add(new Object[]{news.getId(), news.getTitle(), news.getSummary(), news.getCategory(),
+                    news.getAuthor(), news.getPublishedAt()});
+        }
+        rows.sort(Comparator.comparing((Object[] row) -> (LocalDateTime) row[5],
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
     }
 
     public List<String> getAllCategories() {
-        return newsArticleRepository.findAllCategories();
+        Set<String> categories = new TreeSet<>(newsArticleRepository.findAllCategories());
+        categories.addAll(newsArchiveService.getCategories());
+        return new ArrayList<>(categories);
     }
 
     public List<String> getAllAuthors() {
-        return newsArticleRepository.findAllAuthors();
+        Set<String> authors = new TreeSet<>(newsArticleRepository.findAllAuthors());
+        authors.addAll(newsArchiveService.getAuthors());
+        return new ArrayList<>(authors);
     }
 
+    @Transactional
     public NewsArticle createNews(NewsArticle newsArticle) {
-        return newsArticleRepository.save(newsArticle);
+        NewsArticle saved = newsArticleRepository.save(newsArticle);
+        publish(EntityChangeEvent.ChangeType.CREATED, saved);
+        return saved;
     }
 
+    @Transactional
     public Optional<NewsArticle> updateNews(Long id, NewsArticle newsDetails) {
         return newsArticleRepository.findById(id)
+                // An archived article goes back into the table to be edited.
+                .or(() -> newsArchiveService.restore(id) ? newsArticleRepository.findById(id) : Optional.empty())
                 .map(news -> {
                     news.setTitle(newsDetails.getTitle());
                     news.setSummary(newsDetails.getSummary());
@@ -64,24 +133,95 @@ public class NewsService {
                     news.setViews(newsDetails.getViews());
                     news.setComments(newsDetails.getComments());
                     news.setFeatured(newsDetails.getFeatured());
-                    return newsArticleRepository.save(news);
+                    NewsArticle saved = newsArticleRepository.save(news);
+                    publish(EntityChangeEvent.ChangeType.UPDATED, saved);
+                    return saved;
                 });
     }
 
-    public Optional<NewsArticle> incrementViews(Long id) {
-        return newsArticleRepository.findById(id)
-                .map(news -> {
-                    news.setViews(news.getViews() + 1);
-                    return newsArticleRepository.save(news);
-                });
+    public List<TrendingArticle> getTrendingNews(String category, int limit) {
+        return trendingService.getTrending(category, limit);
+    }
+
+    public Optional<RelatedContent> getRelatedContent(Long id, int limit) {
+        return relatedContentService.getRelated(id, limit);
+    }
+
+    /** Counted in memory and written in batches by {@link TrendingService}; returns the new view count. */
+    public Optional<Long> incrementViews(Long id) {
+        // Views do not restore an archived article; its count stays as archived.
+        if (newsArchiveService.contains(id)) {
+            return newsArchiveService.find(id).map(news -> news.getViews().longValue());
+        }
+        return trendingService.recordView(id);
     }
 
+    @Transactional
     public boolean deleteNews(Long id) {
-        return newsArticleRepository.findById(id)
-                .map(news -> {
-                    newsArticleRepository.delete(news);
-                    return true;
-                })
-                .orElse(false);
+        Optional<NewsArticle> hot = newsArticleRepository.findById(id);
+        Optional<NewsArticle> news = hot.or(() -> newsArchiveService.find(id));
+        if (news.isEmpty()) {
+            return false;
+        }
+        hot.ifPresent(newsArticleRepository::delete);
+        // Also covers a restored article, whose archived copy would otherwise show again.
+        newsArchiveService.delete(id);
+        publish(EntityChangeEvent.ChangeType.DELETED, news.get());
+        return true;
+    }
+
+    private static List<NewsArticle> merged(List<NewsArticle> hot, List<NewsArticle> archived) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        List<NewsArticle> all = new ArrayList<>(hot);
+        all.addAll(archived);
+        all.sort(NewsArchiveService.NEWEST_FIRST);
+        return all;
+    }
+
+    // Both inputs are newest first; the result reads each one lazily and closes both.
+    private static Stream<NewsArticle> merged(Stream<NewsArticle> hot, Stream<NewsArticle> archived) {
+        Iterator<NewsArticle> hotIterator = hot.iterator();
+        Iterator<NewsArticle> archivedIterator = archived.iterator();
+        Iterator<NewsArticle> merged = new Iterator<>() {
+            private NewsArticle nextHot;
+            private NewsArticle nextArchived;
+
+            @Override
+            public boolean hasNext() {
+                return nextHot != null || nextArchived != null || hotIterator.hasNext() || archivedIterator.hasNext();
+            }
+
+            @Override
+            public NewsArticle next() {
+                if (nextHot == null && hotIterator.hasNext()) {
+                    nextHot = hotIterator.next();
+                }
+                if (nextArchived == null && archivedIterator.hasNext()) {
+                    nextArchived = archivedIterator.next();
+                }
+                NewsArticle next;
+                if (nextArchived == null || nextHot != null
+                        && NewsArchiveService.NEWEST_FIRST.compare(nextHot, nextArchived) <= 0) {
+                    next = nextHot;
+                    nextHot = null;
+                } else {
+                    next = nextArchived;
+                    nextArchived = null;
+                }
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                return next;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(hot::close)
+                .onClose(archived::close);
+    }
+
+    private void publish(EntityChangeEvent.ChangeType changeType, NewsArticle news) {
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityChangeEvent.EntityType.NEWS, changeType, news.getId(), news));
     }
 }
@@ -1,12 +1,18 @@
 package com.cricinfo.service;
 
 import com.cricinfo.entity.Player;
+import com.cricinfo.event.EntityChangeEvent;
 import com.cricinfo.repository.PlayerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class PlayerService {
@@ -14,10 +20,17 @@ public class PlayerService {
     @Autowired
     private PlayerRepository playerRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Player> getAllPlayers() {
         return playerRepository.findAll();
     }
 
+    public Stream<Player> streamAllPlayers() {
+        return playerRepository.streamAll();
+    }
+
     public Optional<Player> getPlayerById(Long id) {
         return playerRepository.findById(id);
     }
@@ -47,13 +60,21 @@ public class PlayerService {
     }
 
     public List<Player> searchPlayersByName(String name) {
-        return playerRepository.searchPlayersByName(name);
+        return playerRepository.searchPlayersByName(name, Pageable.unpaged());
     }
 
+    public List<Player> searchPlayersByName(String name, int limit) {
+        return playerRepository.searchPlayersByName(name, PageRequest.of(0, limit));
+    }
+
+    @Transactional
     public Player createPlayer(Player player) {
-        return playerRepository.save(player);
+        Player saved = playerRepository.save(player);
+        publish(EntityChangeEvent.ChangeType.CREATED, saved);
+        return saved;
     }
 
+    @Transactional
     public Optional<Player> updatePlayer(Long id, Player playerDetails) {
         return playerRepository.findById(id)
                 .map(player -> {
@@ -70,16 +91,24 @@ public class PlayerService {
                     player.setDateOfBirth(playerDetails.getDateOfBirth());
                     player.setDebutDate(playerDetails.getDebutDate());
                     player.setActive(playerDetails.getActive());
-                    return playerRepository.save(player);
+                    Player saved = playerRepository.save(player);
+                    publish(EntityChangeEvent.ChangeType.UPDATED, saved);
+                    return saved;
                 });
     }
 
+    @Transactional
     public boolean deletePlayer(Long id) {
         return playerRepository.findById(id)
                 .map(player -> {
                     playerRepository.delete(player);
+                    publish(EntityChangeEvent.ChangeType.DELETED, player);
                     return true;
                 })
                 .orElse(false);
     }
+
+    private void publish(EntityChangeEvent.ChangeType changeType, Player player) {
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityChangeEvent.EntityType.PLAYER, changeType, player.getId(), player));
+    }
 }
@@ -0,0 +1,136 @@
+package com.cricinfo.service;
+
+import com.cricinfo.dto.PlayerCareerStats;
+import com.cricinfo.engine.CareerStatsStore;
+import com.cricinfo.engine.CareerTotals;
+import com.cricinfo.entity.Match;
+import com.cricinfo.entity.ScorecardEntry;
+import com.cricinfo.event.CacheResyncEvent;
+import com.cricinfo.event.EntityChangeEvent;
+import com.cricinfo.repository.ScorecardEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Career batting and bowling figures derived from stored scorecards rather than
+ * the hand-entered strings on Player. The columnar store is rebuilt in parallel
+ * at startup (and on demand for backfills) and patched per match as matches
+ * complete or their scorecards change.
+ */
+@Service
+public class PlayerStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlayerStatsService.class);
+
+    @Autowired
+    private ScorecardEntryRepository scorecardEntryRepository;
+
+    private volatile CareerStatsStore store = CareerStatsStore.empty();
+
+    @EventListener(CacheResyncEvent.class)
+    public void rebuild() {
+        recompute();
+    }
+
+    public synchronized long recompute() {
+        long started = System.nanoTime();
+        List<Object[]> rows = scorecardEntryRepository.findCompletedEntriesWithMatch();
+        ScorecardEntry[] entries = new ScorecardEntry[rows.size()];
+        CareerStatsStore.MatchContext[] contexts = new CareerStatsStore.MatchContext[rows.size()];
+        CareerStatsStore.MatchContext context = null;
+        for (int i = 0; i < entries.length; i++) {
+            Object[] row = rows.get(i);
+            entries[i] = (ScorecardEntry) row[0];
+            if (context == null || context.getMatchId() != entries[i].getMatchId()) {
+                LocalDateTime start = row[5] != null ? (LocalDateTime) row[5] : (LocalDateTime) row[6];
+                context = new CareerStatsStore.MatchContext(entries[i].getMatchId(), (String) row[1],
+                        (String) row[2], (String) row[3], (String) row[4], start != null ? start.getYear() : 0);
+            }
+            contexts[i] = context;
+        }
+        store = CareerStatsStore.build(entries, contexts, ForkJoinPool.commonPool());
+        long tookMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Career stats built from {} scorecard rows over {} matches in {} ms",
+                entries.length, store.getMatchCount(), tookMillis);
+        return tookMillis;
+    }
+
+    /**
+     * Re-reads the match's scorecard into the store if the match is complete,
+     * otherwise drops it, so live innings never count towards career figures.
+     */
+    public synchronized void refreshMatch(Match match) {
+        if (!isCompleted(match)) {
+            store.removeMatch(match.getId());
+            return;
+        }
+        LocalDateTime start = match.getStartTime() != null ? match.getStartTime() : match.getMatchDateTime();
+        CareerStatsStore.MatchContext context = new CareerStatsStore.MatchContext(match.getId(), match.getTeam1(),
+                match.getTeam2(), match.getVenue(), match.getFormat(), start != null ? start.getYear() : 0);
+        store.putMatch(context, scorecardEntryRepository.findByMatchId(match.getId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.getEntityType() != EntityChangeEvent.EntityType.MATCH) {
+            return;
+        }
+        if (event.isRemoval()) {
+            store.removeMatch(event.getEntityId());
+        } else {
+            refreshMatch((Match) event.getEntity());
+        }
+    }
+
+    public List<PlayerCareerStats> getStats(Long playerId, String format, String opponent, String venue, Integer year) {
+        List<PlayerCareerStats> result = new ArrayList<>();
+        for (CareerTotals totals : store.aggregate(playerId, format, opponent, venue, year)) {
+            result.add(toStats(playerId, totals));
+        }
+        return result;
+    }
+
+    private static PlayerCareerStats toStats(Long playerId, CareerTotals t) {
+        int dismissals = t.getInnings() - t.getNotOuts();
+        return new PlayerCareerStats(
+                playerId,
+                t.getFormat(),
+                t.getMatches(),
+                t.getInnings(),
+                t.getNotOuts(),
+                t.getRuns(),
+                t.getHighScore() < 0 ? null : t.getHighScore() + (t.isHighScoreNotOut() ? "*" : ""),
+                dismissals > 0 ? round((double) t.getRuns() / dismissals) : null,
+                t.getBallsFaced() > 0 ? round(t.getRuns() * 100.0 / t.getBallsFaced()) : null,
+                t.getHundreds(),
+                t.getFifties(),
+                t.getFours(),
+                t.getSixes(),
+                t.getBallsBowled() / 6 + "." + t.getBallsBowled() % 6,
+                t.getRunsConceded(),
+                t.getWickets(),
+                t.getBestWickets() < 0 ? null : t.getBestWickets() + "/" + t.getBestRuns(),
+                t.getWickets() > 0 ? round((double) t.getRunsConceded() / t.getWickets()) : null,
+                t.getBallsBowled() > 0 ? round(t.getRunsConceded() * 6.0 / t.getBallsBowled()) : null,
+                t.getFiveWicketHauls());
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    static boolean isCompleted(Match match) {
+        String status = match.getStatus();
+        return status != null && !status.equalsIgnoreCase("LIVE") && !status.equalsIgnoreCase("Upcoming");
+    }
+}
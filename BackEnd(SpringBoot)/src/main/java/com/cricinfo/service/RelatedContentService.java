@@ -0,0 +1,267 @@
+package com.cricinfo.service;
+
+import com.cricinfo.dto.RelatedContent;
+import com.cricinfo.dto.SearchHit;
+import com.cricinfo.engine.MentionMatcher;
+import com.cricinfo.engine.RelatedIndex;
+import com.cricinfo.entity.NewsArticle;
+import com.cricinfo.entity.Player;
+import com.cricinfo.entity.Team;
+import com.cricinfo.event.CacheResyncEvent;
+import com.cricinfo.event.EntityChangeEvent;
+import com.cricinfo.repository.NewsArticleRepository;
+import com.cricinfo.repository.PlayerRepository;
+import com.cricinfo.repository.TeamRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Related" section for article pages: similar articles from the MinHash
+ * {@link RelatedIndex}, plus the players and teams named in the article and in
+ * those related articles. All articles are sketched in parallel at startup and
+ * on resync, archived ones included; a created or edited article is sketched
+ * on its own. New or renamed players and teams are matched in articles
+ * sketched after the change.
+ */
+@Service
+public class RelatedContentService {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedContentService.class);
+
+    @Autowired
+    private NewsArticleRepository newsArticleRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private NewsArchiveService newsArchiveService;
+
+    // Swapped whole by rebuild(); changes update the current one under the monitor.
+    private static final class State {
+        final RelatedIndex index;
+        // "NEWS:1", "PLAYER:2", "TEAM:3" -> what to show for it, with a zero score.
+        final Map<String, SearchHit> labels;
+        MentionMatcher matcher;
+
+        State(RelatedIndex index, Map<String, SearchHit> labels, MentionMatcher matcher) {
+            this.index = index;
+            this.labels = labels;
+            this.matcher = matcher;
+        }
+    }
+
+    private volatile State state = new State(new RelatedIndex(), new ConcurrentHashMap<>(),
+            new MentionMatcher(Map.of(), Set.of()));
+    private final Object rebuildLock = new Object();
+
+    /** Changes committed while a rebuild is reading the tables; null when none is running. */
+    private List<EntityChangeEvent> pending;
+
+    /**
+     * Sketches every article without holding the change monitor, so edits keep
+     * reaching the live index meanwhile. Changes committed during the build are
+     * replayed onto the fresh state before it is swapped in.
+     */
+    @EventListener(CacheResyncEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long started = System.nanoTime();
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            State fresh;
+            try {
+                Map<String, SearchHit> loaded = new ConcurrentHashMap<>();
+                playerRepository.findAll().forEach(player -> loaded.put(key(player), label(player)));
+                teamRepository.findAll().forEach(team -> loaded.put(key(team), label(team)));
+                MentionMatcher names = newMatcher(loaded);
+
+                List<NewsArticle> articles = new ArrayList<>(newsArticleRepository.findAll());
+                Set<Long> hot = new HashSet<>();
+                articles.forEach(article -> hot.add(article.getId()));
+                newsArchiveService.forEach(article -> {
+                    if (!hot.contains(article.getId())) {
+                        articles.add(article);
+                    }
+                });
+                // Sketching is the expensive part and independent per article.
+                List<RelatedIndex.Sketch> sketches = articles.parallelStream()
+                        .map(article -> sketch(article, names))
+                        .toList();
+                RelatedIndex index = new RelatedIndex();
+                for (int i = 0; i < articles.size(); i++) {
+                    NewsArticle article = articles.get(i);
+                    index.put(article.getId(), sketches.get(i));
+                    loaded.put(key(article), label(article));
+                }
+                fresh = new State(index, loaded, names);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                pending.forEach(event -> apply(fresh, event));
+                pending = null;
+                state = fresh;
+            }
+            log.info("Related-content index built over {} articles in {} ms", fresh.index.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onEntityChange(EntityChangeEvent event) {
+        apply(state, event);
+        if (pending != null) {
+            pending.add(event);
+        }
+    }
+
+    private static void apply(State state, EntityChangeEvent event) {
+        boolean deleted = event.isRemoval();
+        switch (event.getEntityType()) {
+            case NEWS -> {
+                if (event.getChangeType() == EntityChangeEvent.ChangeType.ARCHIVED) {
+                    // Still listed, from the archive; the sketch stays as it is.
+                    return;
+                }
+                if (deleted) {
+                    state.index.remove(event.getEntityId());
+                    state.labels.remove("NEWS:" + event.getEntityId());
+                } else {
+                    NewsArticle article = (NewsArticle) event.getEntity();
+                    state.index.put(article.getId(), sketch(article, state.matcher));
+                    state.labels.put(key(article), label(article));
+                }
+            }
+            case PLAYER -> {
+                if (deleted) {
+                    state.labels.remove("PLAYER:" + event.getEntityId());
+                } else {
+                    Player player = (Player) event.getEntity();
+                    state.labels.put(key(player), label(player));
+                }
+                state.matcher = newMatcher(state.labels);
+            }
+            case TEAM -> {
+                if (deleted) {
+                    state.labels.remove("TEAM:" + event.getEntityId());
+                } else {
+                    Team team = (Team) event.getEntity();
+                    state.labels.put(key(team), label(team));
+                }
+                state.matcher = newMatcher(state.labels);
+            }
+            default -> {
+            }
+        }
+    }
+
+    /** Up to {@code limit} of each kind; empty when the article is unknown. */
+    public Optional<RelatedContent> getRelated(Long id, int limit) {
+        State snapshot = state;
+        RelatedIndex current = snapshot.index;
+        if (!current.contains(id)) {
+            return Optional.empty();
+        }
+        Map<String, SearchHit> names = snapshot.labels;
+        List<SearchHit> articles = new ArrayList<>();
+        // Named in this article counts per mention; named in a related one counts by its similarity.
+        Map<String, Double> weights = new HashMap<>();
+        current.mentions(id).forEach((key, count) -> weights.merge(key, (double) count, Double::sum));
+        for (RelatedIndex.Related related : current.related(id, limit)) {
+            SearchHit label = names.get("NEWS:" + related.getId());
+            if (label != null) {
+                articles.add(withScore(label, related.getScore()));
+            }
+            for (String key : current.mentions(related.getId()).keySet()) {
+                weights.merge(key, related.getScore(), Double::sum);
+            }
+        }
+        return Optional.of(new RelatedContent(id, articles,
+                top(weights, "PLAYER:", names, limit), top(weights, "TEAM:", names, limit)));
+    }
+
+    private static List<SearchHit> top(Map<String, Double> weights, String prefix, Map<String, SearchHit> names,
+                                       int limit) {
+        List<SearchHit> hits = new ArrayList<>();
+        weights.forEach((key, weight) -> {
+            SearchHit label = key.startsWith(prefix) ? names.get(key) : null;
+            if (label != null) {
+                hits.add(withScore(label, weight));
+            }
+        });
+        hits.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private static MentionMatcher newMatcher(Map<String, SearchHit> labels) {
+        Map<String, String> names = new HashMap<>();
+        Set<String> players = new HashSet<>();
+        labels.forEach((key, label) -> {
+            if (!key.startsWith("NEWS:")) {
+                names.put(key, label.getTitle());
+            }
+            if (key.startsWith("PLAYER:")) {
+                players.add(key);
+            }
+        });
+        return new MentionMatcher(names, players);
+    }
+
+    private static RelatedIndex.Sketch sketch(NewsArticle article, MentionMatcher names) {
+        String text = article.getTitle() + "\n" + article.getSummary() + "\n" + article.getContent();
+        return RelatedIndex.sketch(text, names.find(text));
+    }
+
+    private static SearchHit withScore(SearchHit label, double score) {
+        return new SearchHit(label.getType(), label.getId(), label.getTitle(), label.getSubtitle(),
+                Math.round(score * 1000) / 1000.0);
+    }
+
+    private static String key(NewsArticle article) {
+        return "NEWS:" + article.getId();
+    }
+
+    private static String key(Player player) {
+        return "PLAYER:" + player.getId();
+    }
+
+    private static String key(Team team) {
+        return "TEAM:" + team.getId();
+    }
+
+    private static SearchHit label(NewsArticle article) {
+        return new SearchHit("NEWS", article.getId(), article.getTitle(),
+                article.getCategory() + " · " + article.getAuthor(), 0);
+    }
+
+    private static SearchHit label(Player player) {
+        return new SearchHit("PLAYER", player.getId(), player.getName(),
+                player.getCountry() + " · " + player.getPosition(), 0);
+    }
+
+    private static SearchHit label(Team team) {
+        return new SearchHit("TEAM", team.getId(), team.getName(), team.getFormat() + " #" + team.getRanking(), 0);
+    }
+}
@@ -0,0 +1,67 @@
+package com.cricinfo.service;
+
+import com.cricinfo.entity.Match;
+import com.cricinfo.entity.ScorecardEntry;
+import com.cricinfo.event.EntityChangeEvent;
+import com.cricinfo.repository.MatchRepository;
+import com.cricinfo.repository.PlayerRepository;
+import com.cricinfo.repository.ScorecardEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Service
+public class ScorecardService {
+
+    @Autowired
+    private ScorecardEntryRepository scorecardEntryRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public List<ScorecardEntry> getScorecard(Long matchId) {
+        return scorecardEntryRepository.findByMatchId(matchId);
+    }
+
+    /**
+     * Replaces the whole scorecard of a match. Empty if the match does not
+     * exist; throws IllegalArgumentException if an entry names an unknown player.
+     */
+    @Transactional
+    public Optional<List<ScorecardEntry>> replaceScorecard(Long matchId, List<ScorecardEntry> entries) {
+        Optional<Match> match = matchRepository.findById(matchId);
+        if (match.isEmpty()) {
+            return Optional.empty();
+        }
+        Set<Long> unknown = entries.stream()
+                .map(ScorecardEntry::getPlayerId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        playerRepository.findAllById(unknown).forEach(player -> unknown.remove(player.getId()));
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown player ids " + unknown);
+        }
+        scorecardEntryRepository.deleteByMatchId(matchId);
+        for (ScorecardEntry entry : entries) {
+            entry.setId(null);
+            entry.setMatchId(matchId);
+        }
+        List<ScorecardEntry> saved = scorecardEntryRepository.saveAll(entries);
+        // The scorecard is part of the match as far as caches and peers are concerned.
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityChangeEvent.EntityType.MATCH,
+                EntityChangeEvent.ChangeType.UPDATED, matchId, match.get()));
+        return Optional.of(saved);
+    }
+}
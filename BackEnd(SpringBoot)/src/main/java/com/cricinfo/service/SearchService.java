@@ -0,0 +1,189 @@
+package com.cricinfo.service;
+
+import com.cricinfo.dto.SearchHit;
+import com.cricinfo.dto.SearchResponse;
+import com.cricinfo.entity.Match;
+import com.cricinfo.entity.Player;
+import com.cricinfo.entity.Team;
+import com.cricinfo.entity.Tournament;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cross-entity search. All five sources are queried in parallel on the fan-out
+ * pool, each under its own deadline; a source that misses it is reported in
+ * {@code incompleteSources} instead of holding up the response, and its task
+ * is cancelled. Each source fetches at most {@code limit} rows, since no more
+ * than that can make the merged page.
+ */
+@Service
+public class SearchService {
+
+    // Identity marker for a source that timed out or failed.
+    private static final List<SearchHit> INCOMPLETE = new ArrayList<>();
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    @Autowired
+    @Qualifier("fanOutExecutor")
+    private ThreadPoolTaskExecutor fanOutExecutor;
+
+    @Value("${cricinfo.search.source-timeout-ms:300}")
+    private long sourceTimeoutMillis;
+
+    public SearchResponse search(String query, int limit) {
+        long start = System.nanoTime();
+        String needle = query.trim().toLowerCase(Locale.ROOT);
+
+        Map<String, CompletableFuture<List<SearchHit>>> sources = new LinkedHashMap<>();
+        sources.put("news", fetch(() -> newsHits(query, needle, limit)));
+        sources.put("players", fetch(() -> playerHits(query, needle, limit)));
+        sources.put("teams", fetch(() -> teamHits(query, needle, limit)));
+        sources.put("matches", fetch(() -> matchHits(query, needle, limit)));
+        sources.put("tournaments", fetch(() -> tournamentHits(query, needle, limit)));
+
+        CompletableFuture.allOf(sources.values().toArray(new CompletableFuture[0])).join();
+
+        List<SearchHit> results = new ArrayList<>();
+        List<String> incomplete = new ArrayList<>();
+        sources.forEach((name, future) -> {
+            List<SearchHit> hits = future.join();
+            if (hits == INCOMPLETE) {
+                incomplete.add(name);
+            } else {
+                results.addAll(hits);
+            }
+        });
+        results.sort(Comparator.comparingDouble(SearchHit::getScore).reversed());
+
+        return new SearchResponse(query, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results, incomplete);
+    }
+
+    private CompletableFuture<List<SearchHit>> fetch(Supplier<List<SearchHit>> source) {
+        CompletableFuture<List<SearchHit>> hits = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = fanOutExecutor.submit(() -> {
+                try {
+                    hits.complete(source.get());
+                } catch (RuntimeException e) {
+                    hits.complete(INCOMPLETE);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Pool saturated: report the source like one that timed out.
+            return CompletableFuture.completedFuture(INCOMPLETE);
+        }
+        // A late source would only occupy a pool thread; stop it if it has not finished, or never start it.
+        return hits.completeOnTimeout(INCOMPLETE, sourceTimeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((result, ex) -> task.cancel(true));
+    }
+
+    private List<SearchHit> newsHits(String query, String needle, int limit) {
+        List<SearchHit> hits = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Object[] row : newsService.searchHeadlines(query, limit)) {
+            String title = (String) row[1];
+            LocalDateTime publishedAt = (LocalDateTime) row[5];
+            double score = Math.max(relevance(needle, title), 0.5 * relevance(needle, (String) row[2]));
+            if (publishedAt != null) {
+                double ageDays = Math.max(0, Duration.between(publishedAt, now).toHours() / 24.0);
+                score += 0.1 * Math.exp(-ageDays / 7.0);
+            }
+            hits.add(new SearchHit("NEWS", (Long) row[0], title, row[3] + " · " + row[4], score));
+        }
+        return hits;
+    }
+
+    private List<SearchHit> playerHits(String query, String needle, int limit) {
+        List<SearchHit> hits = new ArrayList<>();
+        for (Player player : playerService.searchPlayersByName(query, limit)) {
+            hits.add(new SearchHit("PLAYER", player.getId(), player.getName(),
+                    player.getCountry() + " · " + player.getPosition(), relevance(needle, player.getName())));
+        }
+        return hits;
+    }
+
+    private List<SearchHit> teamHits(String query, String needle, int limit) {
+        List<SearchHit> hits = new ArrayList<>();
+        for (Team team : teamService.searchTeamsByName(query, limit)) {
+            hits.add(new SearchHit("TEAM", team.getId(), team.getName(),
+                    team.getFormat() + " #" + team.getRanking(), relevance(needle, team.getName())));
+        }
+        return hits;
+    }
+
+    private List<SearchHit> matchHits(String query, String needle, int limit) {
+        List<SearchHit> hits = new ArrayList<>();
+        for (Match match : matchService.searchMatches(query, limit)) {
+            String title = match.getTeam1() + " vs " + match.getTeam2();
+            double score = Math.max(relevance(needle, title),
+                    0.5 * Math.max(relevance(needle, match.getSeries()), relevance(needle, match.getVenue())));
+            hits.add(new SearchHit("MATCH", match.getId(), title,
+                    match.getSeries() + " · " + match.getVenue(), score));
+        }
+        return hits;
+    }
+
+    private List<SearchHit> tournamentHits(String query, String needle, int limit) {
+        List<SearchHit> hits = new ArrayList<>();
+        for (Tournament tournament : tournamentService.searchTournaments(query, limit)) {
+            double score = Math.max(relevance(needle, tournament.getName()), 0.5 * relevance(needle, tournament.getLocation()));
+            hits.add(new SearchHit("TOURNAMENT", tournament.getId(), tournament.getName(),
+                    tournament.getLocation(), score));
+        }
+        return hits;
+    }
+
+    // Exact > prefix > word start > substring; anything the database matched elsewhere scores 0.2.
+    static double relevance(String needle, String text) {
+        if (text == null || needle.isEmpty()) {
+            return 0.2;
+        }
+        String haystack = text.toLowerCase(Locale.ROOT);
+        if (haystack.equals(needle)) {
+            return 1.0;
+        }
+        if (haystack.startsWith(needle)) {
+            return 0.8;
+        }
+        if (haystack.contains(" " + needle)) {
+            return 0.6;
+        }
+        if (haystack.contains(needle)) {
+            return 0.4;
+        }
+        return 0.2;
+    }
+}
@@ -0,0 +1,84 @@
+package com.cricinfo.service;
+
+import com.cricinfo.dto.SingleFlightStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads into one execution. The first caller
+ * for a given method and argument list runs the loader; everyone arriving
+ * while it is in flight waits for and shares that result. Waiters give up
+ * after {@code cricinfo.single-flight.max-wait-ms} and run the loader themselves.
+ */
+@Component
+public class SingleFlight {
+
+    @Value("${cricinfo.single-flight.max-wait-ms:2000}")
+    private long maxWaitMillis;
+
+    private final ConcurrentHashMap<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String method, Supplier<T> loader, Object... args) {
+        calls.increment();
+        List<Object> key = new ArrayList<>(args.length + 1);
+        key.add(method);
+        key.addAll(Arrays.asList(args));
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing == null) {
+            executions.increment();
+            try {
+                T result = loader.get();
+                mine.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+
+        collapsed.increment();
+        try {
+            return (T) existing.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            executions.increment();
+            return loader.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + method, e);
+        }
+    }
+
+    public SingleFlightStats getStats() {
+        long total = calls.sum();
+        long shared = collapsed.sum() - timeouts.sum();
+        return new SingleFlightStats(total, executions.sum(), shared, timeouts.sum(),
+                total == 0 ? 0.0 : (double) shared / total, inFlight.size());
+    }
+}
@@ -0,0 +1,165 @@
+package com.cricinfo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the startup warm-up and records how long each startup phase took.
+ * Spring only moves readiness to ACCEPTING_TRAFFIC after every
+ * {@link ApplicationReadyEvent} listener has returned, so the in-memory index
+ * rebuilds and the queries behind the home page are run here, in parallel on
+ * the fan-out pool, and a node is not reported ready until they are warm.
+ * A task that fails or overruns the timeout is logged and left cold; its
+ * service builds on the next change or resync, so the node still starts.
+ */
+@Service
+public class StartupService {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupService.class);
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private NewsService newsService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private HomeService homeService;
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private TypeaheadService typeaheadService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private PlayerStatsService playerStatsService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private RelatedContentService relatedContentService;
+
+    @Autowired
+    @Qualifier("fanOutExecutor")
+    private ThreadPoolTaskExecutor fanOutExecutor;
+
+    @Value("${cricinfo.startup.warmup-timeout-ms:30000}")
+    private long warmupTimeoutMillis;
+
+    @Value("${cricinfo.home.ranking-formats:Test,ODI,T20}")
+    private List<String> rankingFormats;
+
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private volatile long readyAtMillis = -1;
+
+    @EventListener
+    public void onStarted(ApplicationStartedEvent event) {
+        if (event.getTimeTaken() != null) {
+            record("context", event.getTimeTaken().toMillis());
+        }
+    }
+
+    @EventListener
+    public void warmUp(ApplicationReadyEvent event) {
+        long started = System.nanoTime();
+        Map<String, Runnable> tasks = new LinkedHashMap<>();
+        tasks.put("match-participants", matchService::backfillParticipants);
+        tasks.put("calendar", calendarService::rebuild);
+        tasks.put("typeahead", typeaheadService::rebuild);
+        tasks.put("analytics", analyticsService::rebuild);
+        tasks.put("player-stats", playerStatsService::rebuild);
+        tasks.put("trending", trendingService::rebuild);
+        tasks.put("related", relatedContentService::rebuild);
+        tasks.put("live-matches", matchService::getLiveMatches);
+        tasks.put("featured-news", newsService::getFeaturedNews);
+        for (String format : rankingFormats) {
+            tasks.put("rankings-" + format, () -> teamService.getTeamsByFormat(format));
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        tasks.forEach((phase, task) -> futures.add(submit(phase, task)));
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(warmupTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Warm-up still running after {} ms, reporting ready anyway", warmupTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            log.warn("Warm-up incomplete, reporting ready anyway");
+        }
+
+        // Sections are warm now, so the first home page is built well inside its section timeout.
+        long t = System.nanoTime();
+        homeService.getHomePage();
+        record("home-page", (System.nanoTime() - t) / 1_000_000);
+        record("warm-up", (System.nanoTime() - started) / 1_000_000);
+        readyAtMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Startup phases (ms): {}; ready {} ms after JVM start", getPhases(), readyAtMillis);
+    }
+
+    private CompletableFuture<Void> submit(String phase, Runnable task) {
+        Runnable timed = () -> {
+            long t = System.nanoTime();
+            task.run();
+            record(phase, (System.nanoTime() - t) / 1_000_000);
+        };
+        CompletableFuture<Void> future;
+        try {
+            future = CompletableFuture.runAsync(timed, fanOutExecutor);
+        } catch (TaskRejectedException e) {
+            // The pool aborts when full; nothing is serving yet, so run it on this thread instead.
+            future = CompletableFuture.runAsync(timed, Runnable::run);
+        }
+        return future.whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                log.warn("Warm-up task {} failed, it stays cold until rebuilt", phase, failure);
+            }
+        });
+    }
+
+    public void record(String phase, long millis) {
+        synchronized (phases) {
+            phases.put(phase, millis);
+        }
+    }
+
+    public Map<String, Long> getPhases() {
+        synchronized (phases) {
+            return new LinkedHashMap<>(phases);
+        }
+    }
+
+    /** Milliseconds from JVM start until warm-up finished, or -1 while still starting. */
+    public long getReadyAtMillis() {
+        return readyAtMillis;
+    }
+}
@@ -0,0 +1,243 @@
+package com.cricinfo.service;
+
+import com.cricinfo.entity.Match;
+import com.cricinfo.entity.Tournament;
+import com.cricinfo.event.CacheResyncEvent;
+import com.cricinfo.event.EntityChangeEvent;
+import com.cricinfo.repository.MatchRepository;
+import com.cricinfo.repository.TournamentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flips match (Upcoming → LIVE → Completed) and tournament (Upcoming → Live →
+ * Completed) statuses when their start and end times pass. Each entity has at
+ * most one pending transition in a {@link DelayQueue}. The queue is filled once
+ * at startup from an index-backed query and then kept current from
+ * {@link EntityChangeEvent}s, so the tables are never polled. An edit or a
+ * reload that leaves the due time and target unchanged keeps the queued entry;
+ * otherwise the old entry is taken out of the queue before the new one goes in.
+ *
+ * <p>Applied transitions go through the owning service and publish the usual
+ * change event, which is what invalidates the home page and calendar caches.
+ */
+@Service
+public class StatusScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusScheduler.class);
+
+    private static final long RETRY_MILLIS = 30_000;
+
+    private static final String MATCH_UPCOMING = "Upcoming";
+    private static final String MATCH_LIVE = "LIVE";
+    private static final String TOURNAMENT_UPCOMING = "Upcoming";
+    private static final String TOURNAMENT_LIVE = "Live";
+    private static final String COMPLETED = "Completed";
+
+    private static final class Transition implements Delayed {
+        final EntityChangeEvent.EntityType type;
+        final Long id;
+        final String expected;
+        final String next;
+        final long dueMillis;
+
+        Transition(EntityChangeEvent.EntityType type, Long id, String expected, String next, long dueMillis) {
+            this.type = type;
+            this.id = id;
+            this.expected = expected;
+            this.next = next;
+            this.dueMillis = dueMillis;
+        }
+
+        Transition retry() {
+            return new Transition(type, id, expected, next, System.currentTimeMillis() + RETRY_MILLIS);
+        }
+
+        boolean sameAs(String expected, String next, long dueMillis) {
+            return this.dueMillis == dueMillis && this.expected.equals(expected) && this.next.equals(next);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueMillis, ((Transition) other).dueMillis);
+        }
+    }
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    private final DelayQueue<Transition> queue = new DelayQueue<>();
+    // The one live queue entry per entity; anything else taken from the queue is skipped.
+    private final Map<String, Transition> pending = new ConcurrentHashMap<>();
+    private final AtomicLong applied = new AtomicLong();
+    private volatile Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        loadPending();
+        log.info("Status scheduler started with {} pending transitions", queue.size());
+        Thread thread = new Thread(this::run, "status-scheduler");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @EventListener(CacheResyncEvent.class)
+    public void loadPending() {
+        for (Object[] row : matchRepository.findPendingTransitions()) {
+            scheduleMatch((Long) row[0], (String) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]);
+        }
+        for (Object[] row : tournamentRepository.findPendingTransitions()) {
+            scheduleTournament((Long) row[0], (String) row[1], (LocalDateTime) row[2], (LocalDateTime) row[3]);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.getEntityType() == EntityChangeEvent.EntityType.MATCH) {
+            if (event.isRemoval()) {
+                unschedule(event.getEntityType(), event.getEntityId());
+            } else {
+                Match match = (Match) event.getEntity();
+                scheduleMatch(match.getId(), match.getStatus(), match.getStartTime(), match.getEndTime());
+            }
+        } else if (event.getEntityType() == EntityChangeEvent.EntityType.TOURNAMENT) {
+            if (event.isRemoval()) {
+                unschedule(event.getEntityType(), event.getEntityId());
+            } else {
+                Tournament tournament = (Tournament) event.getEntity();
+                scheduleTournament(tournament.getId(), tournament.getStatus(),
+                        tournament.getStartDate(), tournament.getEndDate());
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getAppliedCount() {
+        return applied.get();
+    }
+
+    private void scheduleMatch(Long id, String status, LocalDateTime start, LocalDateTime end) {
+        if (MATCH_UPCOMING.equalsIgnoreCase(status) && start != null) {
+            schedule(EntityChangeEvent.EntityType.MATCH, id, MATCH_UPCOMING, MATCH_LIVE, start);
+        } else if (MATCH_LIVE.equalsIgnoreCase(status) && end != null) {
+            schedule(EntityChangeEvent.EntityType.MATCH, id, MATCH_LIVE, COMPLETED, end);
+        } else {
+            unschedule(EntityChangeEvent.EntityType.MATCH, id);
+        }
+    }
+
+    private void scheduleTournament(Long id, String status, LocalDateTime start, LocalDateTime end) {
+        if (TOURNAMENT_UPCOMING.equalsIgnoreCase(status) && start != null) {
+            schedule(EntityChangeEvent.EntityType.TOURNAMENT, id, TOURNAMENT_UPCOMING, TOURNAMENT_LIVE, start);
+        } else if (TOURNAMENT_LIVE.equalsIgnoreCase(status) && end != null) {
+            schedule(EntityChangeEvent.EntityType.TOURNAMENT, id, TOURNAMENT_LIVE, COMPLETED, end);
+        } else {
+            unschedule(EntityChangeEvent.EntityType.TOURNAMENT, id);
+        }
+    }
+
+    // Replaces whatever was pending for the entity unless it is the same transition at the same time.
+    private void schedule(EntityChangeEvent.EntityType type, Long id, String expected, String next, LocalDateTime at) {
+        long due = at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        pending.compute(key(type, id), (key, current) -> {
+            if (current != null && current.sameAs(expected, next, due)) {
+                return current;
+            }
+            if (current != null) {
+                queue.remove(current);
+            }
+            Transition transition = new Transition(type, id, expected, next, due);
+            queue.add(transition);
+            return transition;
+        });
+    }
+
+    private void unschedule(EntityChangeEvent.EntityType type, Long id) {
+        Transition current = pending.remove(key(type, id));
+        if (current != null) {
+            queue.remove(current);
+        }
+    }
+
+    private void run() {
+        while (worker != null) {
+            Transition transition;
+            try {
+                transition = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            String key = key(transition.type, transition.id);
+            if (pending.get(key) != transition) {
+                continue;
+            }
+            try {
+                // Success publishes an UPDATED event, which schedules the next transition.
+                boolean done = transition.type == EntityChangeEvent.EntityType.MATCH
+                        ? matchService.transitionStatus(transition.id, transition.expected, transition.next)
+                        : tournamentService.transitionStatus(transition.id, transition.expected, transition.next);
+                if (done) {
+                    applied.incrementAndGet();
+                    log.info("{} {} moved from {} to {}", transition.type, transition.id, transition.expected, transition.next);
+                } else {
+                    pending.remove(key, transition);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Status transition of {} {} failed, retrying: {}", transition.type, transition.id, e.getMessage());
+                Transition retry = transition.retry();
+                // A newer edit may have replaced the transition while it ran; the retry is then dropped.
+                if (pending.replace(key, transition, retry)) {
+                    queue.add(retry);
+                }
+            }
+        }
+    }
+
+    private static String key(EntityChangeEvent.EntityType type, Long id) {
+        return type.name() + ':' + id;
+    }
+}
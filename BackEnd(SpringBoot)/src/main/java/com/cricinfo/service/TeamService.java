@@ -1,9 +1,13 @@
 package com.cricinfo.service;
 
 import com.cricinfo.entity.Team;
+import com.cricinfo.event.EntityChangeEvent;
 import com.cricinfo.repository.TeamRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +18,9 @@ public class TeamService {
     @Autowired
     private TeamRepository teamRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Team> getAllTeams() {
         return teamRepository.findAll();
     }
@@ -30,14 +37,22 @@ public class TeamService {
         return teamRepository.findByName(name);
     }
 
+    public List<Team> searchTeamsByName(String name, int limit) {
+        return teamRepository.searchTeamsByName(name, PageRequest.of(0, limit));
+    }
+
     public List<String> getAllFormats() {
         return teamRepository.findAllFormats();
     }
 
+    @Transactional
     public Team createTeam(Team team) {
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+        publish(EntityChangeEvent.ChangeType.CREATED, saved);
+        return saved;
     }
 
+    @Transactional
     public Optional<Team> updateTeam(Long id, Team teamDetails) {
         return teamRepository.findById(id)
                 .map(team -> {
@@ -50,16 +65,24 @@ public class TeamService {
                     team.setMatchesWon(teamDetails.getMatchesWon());
                     team.setMatchesLost(teamDetails.getMatchesLost());
                     team.setMatchesDrawn(teamDetails.getMatchesDrawn());
-                    return teamRepository.save(team);
+                    Team saved = teamRepository.save(team);
+                    publish(EntityChangeEvent.ChangeType.UPDATED, saved);
+                    return saved;
                 });
     }
 
+    @Transactional
     public boolean deleteTeam(Long id) {
         return teamRepository.findById(id)
                 .map(team -> {
                     teamRepository.delete(team);
+                    publish(EntityChangeEvent.ChangeType.DELETED, team);
                     return true;
                 })
                 .orElse(false);
     }
+
+    private void publish(EntityChangeEvent.ChangeType changeType, Team team) {
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityChangeEvent.EntityType.TEAM, changeType, team.getId(), team));
+    }
 }
@@ -1,9 +1,13 @@
 package com.cricinfo.service;
 
 import com.cricinfo.entity.Tournament;
+import com.cricinfo.event.EntityChangeEvent;
 import com.cricinfo.repository.TournamentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,6 +19,9 @@ public class TournamentService {
     @Autowired
     private TournamentRepository tournamentRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public List<Tournament> getAllTournaments() {
         return tournamentRepository.findAllOrderByStartDateDesc();
     }
@@ -39,14 +46,22 @@ public class TournamentService {
         return tournamentRepository.findTournamentsByLocation(location);
     }
 
+    public List<Tournament> searchTournaments(String query, int limit) {
+        return tournamentRepository.searchTournaments(query, PageRequest.of(0, limit));
+    }
+
     public List<Tournament> getTournamentsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         return tournamentRepository.findTournamentsByDateRange(startDate, endDate);
     }
 
+    @Transactional
     public Tournament createTournament(Tournament tournament) {
-        return tournamentRepository.save(tournament);
+        Tournament saved = tournamentRepository.save(tournament);
+        publish(EntityChangeEvent.ChangeType.CREATED, saved);
+        return saved;
     }
 
+    @Transactional
     public Optional<Tournament> updateTournament(Long id, Tournament tournamentDetails) {
         return tournamentRepository.findById(id)
                 .map(tournament -> {
@@ -58,16 +73,37 @@ public class TournamentService {
                     tournament.setTeams(tournamentDetails.getTeams());
                     tournament.setDescription(tournamentDetails.getDescription());
                     tournament.setPrizeMoney(tournamentDetails.getPrizeMoney());
-                    return tournamentRepository.save(tournament);
+                    Tournament saved = tournamentRepository.save(tournament);
+                    publish(EntityChangeEvent.ChangeType.UPDATED, saved);
+                    return saved;
                 });
     }
 
+    @Transactional
     public boolean deleteTournament(Long id) {
         return tournamentRepository.findById(id)
                 .map(tournament -> {
                     tournamentRepository.delete(tournament);
+                    publish(EntityChangeEvent.ChangeType.DELETED, tournament);
                     return true;
                 })
                 .orElse(false);
     }
+
+    /**
+     * Moves the tournament to {@code next} only if it is still in {@code expected},
+     * as one conditional UPDATE (see MatchService#transitionStatus).
+     */
+    @Transactional
+    public boolean transitionStatus(Long id, String expected, String next) {
+        if (tournamentRepository.updateStatusIfCurrent(id, expected, next, LocalDateTime.now()) != 1) {
+            return false;
+        }
+        tournamentRepository.findById(id).ifPresent(tournament -> publish(EntityChangeEvent.ChangeType.UPDATED, tournament));
+        return true;
+    }
+
+    private void publish(EntityChangeEvent.ChangeType changeType, Tournament tournament) {
+        eventPublisher.publishEvent(new EntityChangeEvent(EntityChangeEvent.EntityType.TOURNAMENT, changeType, tournament.getId(), tournament));
+    }
 }
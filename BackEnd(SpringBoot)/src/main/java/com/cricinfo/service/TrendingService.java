@@ -0,0 +1,328 @@
+package com.cricinfo.service;
+
+import com.cricinfo.dto.TrendingArticle;
+import com.cricinfo.engine.TrendingIndex;
+import com.cricinfo.entity.NewsArticle;
+import com.cricinfo.entity.NewsTrendingScore;
+import com.cricinfo.event.CacheResyncEvent;
+import com.cricinfo.event.EntityChangeEvent;
+import com.cricinfo.repository.NewsArticleRepository;
+import com.cricinfo.repository.NewsTrendingScoreRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trending news from time-decayed view counts. Views only touch the in-memory
+ * {@link TrendingIndex}; every flush interval the views counted since the last
+ * flush are merged into the stored scores and added to
+ * {@code news_articles.views} in one transaction, and the merged scores (which
+ * include other nodes' views) are loaded back. Views that fail to persist are
+ * kept and retried with the next flush. Archived articles stay ranked by the
+ * views they were archived with; they take no new views.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    @Autowired
+    private NewsArticleRepository newsArticleRepository;
+
+    @Autowired
+    private NewsTrendingScoreRepository trendingScoreRepository;
+
+    @Autowired
+    private NewsArchiveService newsArchiveService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${cricinfo.trending.half-life-minutes:360}")
+    private long halfLifeMinutes;
+
+    @Value("${cricinfo.trending.top-k:50}")
+    private int topK;
+
+    private static final class Unsaved {
+        volatile long views;
+        // Score of those views decayed to unsavedAt.
+        volatile double value;
+
+        Unsaved(long views, double value) {
+            this.views = views;
+            this.value = value;
+        }
+    }
+
+    private volatile TrendingIndex index;
+    private volatile Map<Long, TrendingArticle> articles = new ConcurrentHashMap<>();
+    // Views drained from the index but not yet persisted; written under the monitor.
+    private final Map<Long, Unsaved> unsaved = new ConcurrentHashMap<>();
+    private long unsavedAt;
+    private final Object rebuildLock = new Object();
+
+    /** Changes committed while a rebuild is reading the tables; null when none is running. */
+    private List<EntityChangeEvent> pending;
+
+    @PostConstruct
+    public void init() {
+        index = newIndex(System.currentTimeMillis());
+    }
+
+    /**
+     * Builds a fresh index without holding the monitor, so views and changes
+     * keep reaching the live index meanwhile. Changes committed during the
+     * build are replayed onto it, and the views not yet persisted are moved
+     * across, before it is swapped in.
+     */
+    @EventListener(CacheResyncEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long started = System.nanoTime();
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            TrendingIndex fresh = newIndex(System.currentTimeMillis());
+            Map<Long, TrendingArticle> loaded = new ConcurrentHashMap<>();
+            try {
+                for (Object[] row : newsArticleRepository.findTrendingColumns()) {
+                    TrendingArticle article = new TrendingArticle((Long) row[0], (String) row[1], (String) row[2],
+                            (String) row[3], (String) row[4], (String) row[5], (LocalDateTime) row[6], (String) row[7],
+                            row[8] != null ? ((Integer) row[8]).longValue() : 0L, (Integer) row[9], null);
+                    loaded.put(article.getId(), article);
+                    fresh.put(article.getId(), article.getCategory());
+                    // Until an article has a stored score, count its recorded views as if they all came at publication.
+                    if (article.getPublishedAt() != null) {
+                        fresh.setBase(article.getId(), article.getViews(), millis(article.getPublishedAt()));
+                    }
+                }
+                newsArchiveService.forEach(news -> {
+                    if (!loaded.containsKey(news.getId())) {
+                        TrendingArticle article = article(news);
+                        loaded.put(article.getId(), article);
+                        fresh.put(article.getId(), article.getCategory());
+                        if (article.getPublishedAt() != null) {
+                            fresh.setBase(article.getId(), article.getViews(), millis(article.getPublishedAt()));
+                        }
+                    }
+                });
+                for (NewsTrendingScore score : trendingScoreRepository.findAll()) {
+                    fresh.setBase(score.getArticleId(), score.getScore(), millis(score.getScoredAt()));
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                pending.forEach(event -> apply(fresh, loaded, event));
+                pending = null;
+                // Views the old index counted that have not been persisted yet.
+                long now = System.currentTimeMillis();
+                mergeUnsaved(index.drain(now), now);
+                unsaved.forEach((id, views) -> fresh.setBase(id, fresh.baseValue(id, now) + views.value, now));
+                fresh.rebuildTops();
+                articles = loaded;
+                index = fresh;
+            }
+            log.info("Trending index built over {} articles in {} ms", loaded.size(), (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    // Inside the deleting or archiving transaction, so the score row goes with the article.
+    @EventListener
+    public void onNewsDeleted(EntityChangeEvent event) {
+        if (event.getEntityType() == EntityChangeEvent.EntityType.NEWS && !event.isRemote() && event.isRemoval()) {
+            trendingScoreRepository.deleteById(event.getEntityId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onEntityChange(EntityChangeEvent event) {
+        if (event.getEntityType() != EntityChangeEvent.EntityType.NEWS) {
+            return;
+        }
+        apply(index, articles, event);
+        // Archived articles take no views, so views not yet written are dropped with them.
+        if (event.isRemoval()) {
+            unsaved.remove(event.getEntityId());
+        }
+        if (pending != null) {
+            pending.add(event);
+        }
+    }
+
+    private static void apply(TrendingIndex index, Map<Long, TrendingArticle> articles, EntityChangeEvent event) {
+        Long id = event.getEntityId();
+        if (event.getChangeType() == EntityChangeEvent.ChangeType.DELETED) {
+            index.remove(id);
+            articles.remove(id);
+        } else if (event.getChangeType() != EntityChangeEvent.ChangeType.ARCHIVED) {
+            // Archived articles keep their entry; only where they are stored changed.
+            NewsArticle news = (NewsArticle) event.getEntity();
+            articles.put(id, article(news));
+            index.put(id, news.getCategory());
+        }
+    }
+
+    private static TrendingArticle article(NewsArticle news) {
+        return new TrendingArticle(news.getId(), news.getTitle(), news.getSummary(), news.getImageUrl(),
+                news.getCategory(), news.getAuthor(), news.getPublishedAt(), news.getReadTime(),
+                news.getViews() != null ? news.getViews().longValue() : 0L, news.getComments(), null);
+    }
+
+    /** Counts a view in memory; returns the article's view count, or empty for an unknown article. */
+    public Optional<Long> recordView(Long id) {
+        if (!index.view(id, System.currentTimeMillis())) {
+            return Optional.empty();
+        }
+        return Optional.of(viewsOf(id));
+    }
+
+    /** Top articles by decayed score, across all categories when category is null. */
+    public List<TrendingArticle> getTrending(String category, int limit) {
+        List<TrendingArticle> trending = new ArrayList<>();
+        for (TrendingIndex.Ranked ranked : index.top(category, limit, System.currentTimeMillis())) {
+            TrendingArticle a = articles.get(ranked.getId());
+            if (a != null) {
+                trending.add(new TrendingArticle(a.getId(), a.getTitle(), a.getSummary(), a.getImageUrl(),
+                        a.getCategory(), a.getAuthor(), a.getPublishedAt(), a.getReadTime(), viewsOf(a.getId()),
+                        a.getComments(), Math.round(ranked.getScore() * 100) / 100.0));
+            }
+        }
+        return trending;
+    }
+
+    @Scheduled(fixedDelayString = "${cricinfo.trending.flush-ms:30000}")
+    public void flush() {
+        long at;
+        Map<Long, Unsaved> batch = new HashMap<>();
+        Map<Long, Double> localBase = new HashMap<>();
+        synchronized (this) {
+            at = System.currentTimeMillis();
+            mergeUnsaved(index.drain(at), at);
+            unsaved.forEach((id, views) -> {
+                batch.put(id, new Unsaved(views.views, views.value));
+                // The index base already includes the unsaved views.
+                localBase.put(id, Math.max(0, index.baseValue(id, at) - views.value));
+            });
+        }
+        if (!batch.isEmpty()) {
+            try {
+                persist(batch, localBase, at);
+            } catch (RuntimeException e) {
+                log.warn("Trending flush of {} articles failed, retrying next time: {}", batch.size(), e.getMessage());
+                return;
+            }
+            synchronized (this) {
+                batch.forEach((id, saved) -> {
+                    Unsaved views = unsaved.get(id);
+                    TrendingArticle article = articles.get(id);
+                    if (article != null) {
+                        article.setViews(article.getViews() + saved.views);
+                    }
+                    if (views != null) {
+                        views.views -= saved.views;
+                        views.value -= index.decay(saved.value, at, unsavedAt);
+                        if (views.views <= 0) {
+                            unsaved.remove(id);
+                        }
+                    }
+                });
+            }
+        }
+        reloadScores();
+    }
+
+    // Last chance to write views counted since the previous flush.
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void persist(Map<Long, Unsaved> batch, Map<Long, Double> localBase, long at) {
+        LocalDateTime scoredAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(at), ZoneId.systemDefault());
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, NewsTrendingScore> stored = new HashMap<>();
+            for (NewsTrendingScore score : trendingScoreRepository.findAllForUpdate(batch.keySet())) {
+                stored.put(score.getArticleId(), score);
+            }
+            batch.forEach((id, views) -> {
+                NewsTrendingScore score = stored.get(id);
+                double previous = score != null
+                        ? index.decay(score.getScore(), millis(score.getScoredAt()), at)
+                        : localBase.getOrDefault(id, 0.0);
+                trendingScoreRepository.save(new NewsTrendingScore(id, previous + views.value, scoredAt));
+                newsArticleRepository.addViews(id, (int) Math.min(views.views, Integer.MAX_VALUE));
+            });
+        });
+    }
+
+    private void reloadScores() {
+        List<NewsTrendingScore> scores = trendingScoreRepository.findAll();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            for (NewsTrendingScore score : scores) {
+                Unsaved views = unsaved.get(score.getArticleId());
+                double value = index.decay(score.getScore(), millis(score.getScoredAt()), now)
+                        + (views != null ? index.decay(views.value, unsavedAt, now) : 0);
+                index.setBase(score.getArticleId(), value, now);
+            }
+            index.rebuildTops();
+        }
+    }
+
+    // Caller holds the monitor.
+    private void mergeUnsaved(Map<Long, TrendingIndex.Drained> drained, long now) {
+        if (unsavedAt != 0 && unsavedAt != now) {
+            for (Unsaved views : unsaved.values()) {
+                views.value = index.decay(views.value, unsavedAt, now);
+            }
+        }
+        unsavedAt = now;
+        drained.forEach((id, views) -> {
+            Unsaved existing = unsaved.get(id);
+            if (existing == null) {
+                unsaved.put(id, new Unsaved(views.getViews(), views.getValue()));
+            } else {
+                existing.views += views.getViews();
+                existing.value += views.getValue();
+            }
+        });
+    }
+
+    private long viewsOf(Long id) {
+        TrendingArticle article = articles.get(id);
+        Unsaved views = unsaved.get(id);
+        return (article != null ? article.getViews() : 0) + index.pendingViews(id) + (views != null ? views.views : 0);
+    }
+
+    private TrendingIndex newIndex(long now) {
+        return new TrendingIndex(halfLifeMinutes * 60_000, topK, now);
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
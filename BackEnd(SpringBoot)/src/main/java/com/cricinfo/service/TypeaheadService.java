@@ -0,0 +1,175 @@
+package com.cricinfo.service;
+
+import com.cricinfo.dto.Suggestion;
+import com.cricinfo.engine.TypeaheadIndex;
+import com.cricinfo.entity.Match;
+import com.cricinfo.entity.Player;
+import com.cricinfo.entity.Team;
+import com.cricinfo.entity.Tournament;
+import com.cricinfo.event.CacheResyncEvent;
+import com.cricinfo.event.EntityChangeEvent;
+import com.cricinfo.repository.MatchRepository;
+import com.cricinfo.repository.PlayerRepository;
+import com.cricinfo.repository.TeamRepository;
+import com.cricinfo.repository.TournamentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the search-box {@link TypeaheadIndex} over player, team, series, venue
+ * and tournament names in step with writes to those entities.
+ */
+@Service
+public class TypeaheadService {
+
+    public static final String PLAYER = "PLAYER";
+    public static final String TEAM = "TEAM";
+    public static final String SERIES = "SERIES";
+    public static final String VENUE = "VENUE";
+    public static final String TOURNAMENT = "TOURNAMENT";
+
+    private static final Logger log = LoggerFactory.getLogger(TypeaheadService.class);
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    private volatile TypeaheadIndex index = new TypeaheadIndex(20);
+
+    private final Object rebuildLock = new Object();
+
+    /** Changes committed while a rebuild is reading the tables; null when none is running. */
+    private List<EntityChangeEvent> pending;
+
+    /**
+     * Builds a fresh index without holding the change monitor, so writes keep
+     * updating the live index meanwhile. Changes committed during the build
+     * are replayed onto the fresh index before it is swapped in.
+     */
+    @EventListener(CacheResyncEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            TypeaheadIndex fresh = new TypeaheadIndex(20);
+            try {
+                playerRepository.findAll().forEach(player -> indexPlayer(fresh, player));
+                teamRepository.findAll().forEach(team -> indexTeam(fresh, team));
+                matchRepository.findAll().forEach(match -> indexMatch(fresh, match));
+                tournamentRepository.findAll().forEach(tournament -> indexTournament(fresh, tournament));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                pending.forEach(event -> apply(fresh, event));
+                pending = null;
+                index = fresh;
+            }
+            log.info("Typeahead index built with {} entries in {} ms", fresh.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    public List<Suggestion> suggest(String query, int limit) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (TypeaheadIndex.Match match : index.suggest(query, limit)) {
+            TypeaheadIndex.Entry entry = match.getEntry();
+            suggestions.add(new Suggestion(entry.getText(), entry.getType(), entry.getWeight(), match.isFuzzy()));
+        }
+        return suggestions;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onEntityChange(EntityChangeEvent event) {
+        apply(index, event);
+        if (pending != null) {
+            pending.add(event);
+        }
+    }
+
+    private static void apply(TypeaheadIndex index, EntityChangeEvent event) {
+        boolean deleted = event.isRemoval();
+        switch (event.getEntityType()) {
+            case PLAYER -> {
+                if (deleted) {
+                    index.put(source(event), List.of());
+                } else {
+                    indexPlayer(index, (Player) event.getEntity());
+                }
+            }
+            case TEAM -> {
+                if (deleted) {
+                    index.put(source(event), List.of());
+                } else {
+                    indexTeam(index, (Team) event.getEntity());
+                }
+            }
+            case MATCH -> {
+                if (deleted) {
+                    index.put(source(event), List.of());
+                } else {
+                    indexMatch(index, (Match) event.getEntity());
+                }
+            }
+            case TOURNAMENT -> {
+                if (deleted) {
+                    index.put(source(event), List.of());
+                } else {
+                    indexTournament(index, (Tournament) event.getEntity());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private static void indexPlayer(TypeaheadIndex index, Player player) {
+        List<String[]> terms = new ArrayList<>();
+        if (!Boolean.FALSE.equals(player.getActive())) {
+            terms.add(new String[]{PLAYER, player.getName()});
+        }
+        index.put("PLAYER:" + player.getId(), terms);
+    }
+
+    private static void indexTeam(TypeaheadIndex index, Team team) {
+        index.put("TEAM:" + team.getId(), List.<String[]>of(new String[]{TEAM, team.getName()}));
+    }
+
+    private static void indexMatch(TypeaheadIndex index, Match match) {
+        index.put("MATCH:" + match.getId(), List.of(
+                new String[]{TEAM, match.getTeam1()},
+                new String[]{TEAM, match.getTeam2()},
+                new String[]{SERIES, match.getSeries()},
+                new String[]{VENUE, match.getVenue()}));
+    }
+
+    private static void indexTournament(TypeaheadIndex index, Tournament tournament) {
+        index.put("TOURNAMENT:" + tournament.getId(), List.of(
+                new String[]{TOURNAMENT, tournament.getName()},
+                new String[]{VENUE, tournament.getLocation()}));
+    }
+
+    private static String source(EntityChangeEvent event) {
+        return event.getEntityType() + ":" + event.getEntityId();
+    }
+}
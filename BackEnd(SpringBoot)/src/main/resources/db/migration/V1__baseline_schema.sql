@@ -0,0 +1,110 @@
+-- Baseline schema matching the JPA entity mappings in com.cricinfo.entity.
+-- Databases that already hold tables are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and skip it; migration 1.1
+-- (com.cricinfo.config.LegacySchemaMigration) then converts a schema created
+-- by BackEnd(SQL)/SQL-CrickInfo.txt to this one before V2 runs.
+
+CREATE TABLE matches (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    team1_name      VARCHAR(255) NOT NULL,
+    team2_name      VARCHAR(255) NOT NULL,
+    team1_flag      VARCHAR(255),
+    team2_flag      VARCHAR(255),
+    team1_score     VARCHAR(255),
+    team2_score     VARCHAR(255),
+    team1_overs     VARCHAR(255),
+    team2_overs     VARCHAR(255),
+    status          VARCHAR(255) NOT NULL,
+    venue           VARCHAR(255) NOT NULL,
+    format          VARCHAR(255) NOT NULL,
+    series          VARCHAR(255) NOT NULL,
+    run_rate        VARCHAR(255),
+    required_rate   VARCHAR(255),
+    current_bowler  VARCHAR(255),
+    match_type      VARCHAR(255),
+    player_of_match VARCHAR(255),
+    match_date_time DATETIME(6)  NOT NULL,
+    start_time      DATETIME(6),
+    end_time        DATETIME(6),
+    created_at      DATETIME(6),
+    updated_at      DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_matches_start_time (start_time)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE match_current_batsmen (
+    match_id BIGINT NOT NULL,
+    batsman  VARCHAR(255),
+    CONSTRAINT fk_match_current_batsmen_match FOREIGN KEY (match_id) REFERENCES matches (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE news_articles (
+    id           BIGINT        NOT NULL AUTO_INCREMENT,
+    title        VARCHAR(500)  NOT NULL,
+    summary      VARCHAR(1000) NOT NULL,
+    content      TEXT          NOT NULL,
+    image_url    VARCHAR(255),
+    category     VARCHAR(255)  NOT NULL,
+    author       VARCHAR(255)  NOT NULL,
+    published_at DATETIME(6)   NOT NULL,
+    read_time    VARCHAR(255),
+    views        INT           NOT NULL DEFAULT 0,
+    comments     INT           NOT NULL DEFAULT 0,
+    featured     BOOLEAN       NOT NULL DEFAULT FALSE,
+    created_at   DATETIME(6),
+    updated_at   DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE players (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    name          VARCHAR(255) NOT NULL,
+    country       VARCHAR(255) NOT NULL,
+    image_url     VARCHAR(255),
+    runs          VARCHAR(255) NOT NULL,
+    average       VARCHAR(255) NOT NULL,
+    centuries     VARCHAR(255) NOT NULL,
+    recent_form   VARCHAR(255),
+    position      VARCHAR(255) NOT NULL,
+    batting_style VARCHAR(255),
+    bowling_style VARCHAR(255),
+    date_of_birth DATETIME(6),
+    debut_date    DATETIME(6),
+    active        BOOLEAN      NOT NULL DEFAULT TRUE,
+    created_at    DATETIME(6),
+    updated_at    DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE teams (
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    name           VARCHAR(255) NOT NULL,
+    flag           VARCHAR(255) NOT NULL,
+    ranking        INT          NOT NULL,
+    points         INT          NOT NULL,
+    format         VARCHAR(255) NOT NULL,
+    matches_played INT,
+    matches_won    INT,
+    matches_lost   INT,
+    matches_drawn  INT,
+    created_at     DATETIME(6),
+    updated_at     DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_teams_name UNIQUE (name)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE tournaments (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    status      VARCHAR(255) NOT NULL,
+    start_date  DATETIME(6)  NOT NULL,
+    end_date    DATETIME(6),
+    location    VARCHAR(255) NOT NULL,
+    teams       INT          NOT NULL,
+    description TEXT,
+    prize_money VARCHAR(255),
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_tournaments_start_date (start_date)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
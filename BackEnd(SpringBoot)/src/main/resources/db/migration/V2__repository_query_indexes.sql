@@ -0,0 +1,42 @@
+-- One index per repository @Query shape. Equality columns lead, the ORDER BY
+-- column follows, so each query is an index range scan without a filesort.
+
+-- MatchRepository
+-- findLiveMatches / findUpcomingMatches: status = ? ORDER BY start_time
+-- findRecentMatches: status NOT IN (...) ORDER BY start_time (range on status)
+CREATE INDEX idx_matches_status_start ON matches (status, start_time);
+-- findMatchesByTeam: team1 = ? OR team2 = ? ORDER BY start_time (index merge union)
+CREATE INDEX idx_matches_team1_start ON matches (team1_name, start_time);
+CREATE INDEX idx_matches_team2_start ON matches (team2_name, start_time);
+-- findMatchesBySeries: series = ? ORDER BY start_time
+CREATE INDEX idx_matches_series_start ON matches (series, start_time);
+-- findMatchesByFormat: format = ? ORDER BY start_time
+CREATE INDEX idx_matches_format_start ON matches (format, start_time);
+
+-- NewsArticleRepository
+-- findAllOrderByPublishedAtDesc
+CREATE INDEX idx_news_published ON news_articles (published_at);
+-- findFeaturedNews: featured = true ORDER BY published_at
+CREATE INDEX idx_news_featured_published ON news_articles (featured, published_at);
+-- findByCategory: category = ? ORDER BY published_at; also covers DISTINCT category
+CREATE INDEX idx_news_category_published ON news_articles (category, published_at);
+-- findByAuthor: author = ? ORDER BY published_at; also covers DISTINCT author
+CREATE INDEX idx_news_author_published ON news_articles (author, published_at);
+
+-- PlayerRepository (ORDER BY CAST(runs ...) cannot use an index; these narrow the filter)
+-- findPlayersByCountry: country = ? AND active = true
+CREATE INDEX idx_players_country_active ON players (country, active);
+-- findPlayersByPosition: position = ? AND active = true
+CREATE INDEX idx_players_position_active ON players (position, active);
+
+-- TeamRepository
+-- findByFormatOrderByRanking: format = ? ORDER BY ranking; also covers DISTINCT format
+CREATE INDEX idx_teams_format_ranking ON teams (format, ranking);
+-- findAllOrderByPointsDesc
+CREATE INDEX idx_teams_points ON teams (points);
+
+-- TournamentRepository
+-- findLiveTournaments / findUpcomingTournaments: status = ? ORDER BY start_date
+CREATE INDEX idx_tournaments_status_start ON tournaments (status, start_date);
+-- findCompletedTournaments: status = 'Completed' ORDER BY end_date
+CREATE INDEX idx_tournaments_status_end ON tournaments (status, end_date);
@@ -0,0 +1,27 @@
+-- One row per side of a match. "Matches of team X" and head-to-head become a
+-- single range scan on (team_name[, opponent_name], start_time) instead of an
+-- OR across team1_name/team2_name.
+
+CREATE TABLE match_participants (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    match_id      BIGINT       NOT NULL,
+    slot          INT          NOT NULL,
+    team_name     VARCHAR(255) NOT NULL,
+    opponent_name VARCHAR(255) NOT NULL,
+    start_time    DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_match_participants_match_slot UNIQUE (match_id, slot),
+    INDEX idx_match_participants_team_start (team_name, start_time),
+    INDEX idx_match_participants_team_opponent_start (team_name, opponent_name, start_time),
+    CONSTRAINT fk_match_participants_match FOREIGN KEY (match_id) REFERENCES matches (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+INSERT INTO match_participants (match_id, slot, team_name, opponent_name, start_time)
+SELECT id, 1, team1_name, team2_name, start_time FROM matches;
+
+INSERT INTO match_participants (match_id, slot, team_name, opponent_name, start_time)
+SELECT id, 2, team2_name, team1_name, start_time FROM matches;
+
+-- Only served the old OR query.
+DROP INDEX idx_matches_team1_start ON matches;
+DROP INDEX idx_matches_team2_start ON matches;
@@ -0,0 +1,23 @@
+-- Per-innings batting and bowling figures; the source for derived career stats.
+
+CREATE TABLE scorecard_entries (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    match_id      BIGINT       NOT NULL,
+    player_id     BIGINT       NOT NULL,
+    team_name     VARCHAR(255) NOT NULL,
+    innings       INT          NOT NULL DEFAULT 1,
+    batted        BOOLEAN      NOT NULL DEFAULT TRUE,
+    not_out       BOOLEAN      NOT NULL DEFAULT FALSE,
+    runs          INT          NOT NULL DEFAULT 0,
+    balls_faced   INT          NOT NULL DEFAULT 0,
+    fours         INT          NOT NULL DEFAULT 0,
+    sixes         INT          NOT NULL DEFAULT 0,
+    balls_bowled  INT          NOT NULL DEFAULT 0,
+    runs_conceded INT          NOT NULL DEFAULT 0,
+    wickets       INT          NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    INDEX idx_scorecard_entries_match (match_id, innings),
+    INDEX idx_scorecard_entries_player (player_id),
+    CONSTRAINT fk_scorecard_entries_match FOREIGN KEY (match_id) REFERENCES matches (id) ON DELETE CASCADE,
+    CONSTRAINT fk_scorecard_entries_player FOREIGN KEY (player_id) REFERENCES players (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,13 @@
+-- Transactional outbox behind /api/changes. Rows are written in the same
+-- transaction as the entity change; the id is the consumers' cursor.
+
+CREATE TABLE change_outbox (
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    entity_type VARCHAR(20) NOT NULL,
+    change_type VARCHAR(20) NOT NULL,
+    entity_id   BIGINT      NOT NULL,
+    payload     TEXT,
+    created_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_change_outbox_created (created_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,10 @@
+-- Time-decayed view scores behind /api/news/trending. score is the decayed
+-- value as of scored_at; nodes merge their buffered views into it.
+
+CREATE TABLE news_trending (
+    article_id BIGINT      NOT NULL,
+    score      DOUBLE      NOT NULL,
+    scored_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (article_id),
+    CONSTRAINT fk_news_trending_article FOREIGN KEY (article_id) REFERENCES news_articles (id) ON DELETE CASCADE
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
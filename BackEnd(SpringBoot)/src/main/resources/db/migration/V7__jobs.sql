@@ -0,0 +1,21 @@
+-- Background job state behind /api/jobs. updated_at is refreshed by the
+-- owning node while a job is queued or running, so jobs left behind by a node
+-- that died can be found and re-queued or failed.
+
+CREATE TABLE jobs (
+    id               BIGINT        NOT NULL AUTO_INCREMENT,
+    type             VARCHAR(50)   NOT NULL,
+    priority         VARCHAR(10)   NOT NULL,
+    status           VARCHAR(20)   NOT NULL,
+    params           TEXT,
+    progress         INT           NOT NULL DEFAULT 0,
+    message          VARCHAR(1000),
+    cancel_requested BOOLEAN       NOT NULL DEFAULT FALSE,
+    node             VARCHAR(36),
+    created_at       DATETIME(6),
+    started_at       DATETIME(6),
+    finished_at      DATETIME(6),
+    updated_at       DATETIME(6),
+    PRIMARY KEY (id),
+    INDEX idx_jobs_status_updated (status, updated_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,146 @@
+package com.cricinfo.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Creates the tables and indexes of the legacy BackEnd(SQL)/SQL-CrickInfo.txt
+ * script in H2 (MySQL mode), migrates it the way a production start does and
+ * checks it ends up with the same columns as a database built from V1.
+ */
+class LegacySchemaMigrationTest {
+
+    private static final Path LEGACY_SCRIPT = Path.of("..", "BackEnd(SQL)", "SQL-CrickInfo.txt");
+
+    private final List<JdbcTemplate> databases = new ArrayList<>();
+
+    private JdbcTemplate database(String name) {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", ""));
+        databases.add(jdbc);
+        return jdbc;
+    }
+
+    @AfterEach
+    void dropDatabases() {
+        databases.forEach(jdbc -> jdbc.execute("DROP ALL OBJECTS"));
+    }
+
+    private static void migrate(JdbcTemplate jdbc) {
+        Flyway.configure()
+                .dataSource(jdbc.getDataSource())
+                .locations("classpath:db/migration")
+                .javaMigrations(new LegacySchemaMigration())
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    private static void createLegacySchema(JdbcTemplate jdbc) throws IOException {
+        String script = Files.readString(LEGACY_SCRIPT, StandardCharsets.UTF_8).replaceAll("(?m)^--.*$", "");
+        Arrays.stream(script.split(";"))
+                .map(String::trim)
+                .filter(sql -> sql.startsWith("CREATE TABLE") || sql.startsWith("CREATE INDEX"))
+                .forEach(jdbc::execute);
+    }
+
+    private static Map<String, Map<String, Object>> columns(JdbcTemplate jdbc) {
+        Map<String, Map<String, Object>> columns = new HashMap<>();
+        jdbc.queryForList("SELECT table_name, column_name, data_type, character_maximum_length, is_nullable, "
+                        + "column_default FROM information_schema.columns WHERE table_schema = 'public'")
+                .forEach(row -> columns.put(row.get("table_name") + "." + row.get("column_name"), row));
+        return columns;
+    }
+
+    @Test
+    void legacyDatabaseEndsUpWithTheV1Columns() throws IOException {
+        JdbcTemplate fresh = database("fresh");
+        migrate(fresh);
+        JdbcTemplate legacy = database("legacy");
+        createLegacySchema(legacy);
+
+        migrate(legacy);
+
+        Map<String, Map<String, Object>> expected = columns(fresh);
+        Map<String, Map<String, Object>> actual = columns(legacy);
+        expected.forEach((column, definition) -> {
+            assertThat(actual).as(column).containsKey(column);
+            assertThat(actual.get(column).get("data_type")).as(column).isEqualTo(definition.get("data_type"));
+            assertThat(actual.get(column).get("character_maximum_length")).as(column)
+                    .isEqualTo(definition.get("character_maximum_length"));
+            assertThat(actual.get(column).get("is_nullable")).as(column).isEqualTo(definition.get("is_nullable"));
+        });
+        // Legacy-only columns stay, but must not stop the application inserting rows.
+        actual.forEach((column, definition) -> {
+            if (!expected.containsKey(column)) {
+                assertThat("YES".equals(definition.get("is_nullable")) || definition.get("column_default") != null)
+                        .as(column).isTrue();
+            }
+        });
+        assertThat(legacy.queryForObject("SELECT MAX(version) FROM flyway_schema_history", String.class))
+                .isEqualTo(fresh.queryForObject("SELECT MAX(version) FROM flyway_schema_history", String.class));
+    }
+
+    @Test
+    void legacyRowsAreCarriedIntoTheV1Columns() throws IOException {
+        JdbcTemplate legacy = database("legacy-rows");
+        createLegacySchema(legacy);
+        legacy.update("INSERT INTO teams (name, flag, test_ranking, odi_ranking, test_points) "
+                + "VALUES ('India', 'IN', 1, 2, 116)");
+        legacy.update("INSERT INTO players (name, country, image, role, total_runs, batting_average, centuries) "
+                + "VALUES ('Virat Kohli', 'India', '/vk.svg', 'Batsman', 12344, 58.07, 43)");
+        legacy.update("INSERT INTO matches (team1_name, team1_flag, team2_name, team2_flag, status, venue, format, "
+                + "series, match_date_time) VALUES ('India', 'IN', 'Australia', 'AU', 'LIVE', 'MCG', 'ODI', "
+                + "'Tour', TIMESTAMP '2024-01-01 10:00:00')");
+        legacy.update("INSERT INTO match_current_batsmen (match_id, batsman) VALUES (1, 'Virat Kohli 89*'), "
+                + "(NULL, 'orphan')");
+        legacy.update("INSERT INTO news_articles (title, image, category, author, published_at) "
+                + "VALUES ('Report', '/r.svg', 'Match Report', 'Staff', TIMESTAMP '2024-01-01 12:00:00')");
+        legacy.update("INSERT INTO tournaments (name, status, start_date, location, teams) "
+                + "VALUES ('Asia Cup', 'Completed', DATE '2024-08-30', 'Sri Lanka', 6)");
+
+        migrate(legacy);
+
+        assertThat(legacy.queryForMap("SELECT ranking, points, format FROM teams"))
+                .containsEntry("ranking", 1).containsEntry("points", 116).containsEntry("format", "Test");
+        assertThat(legacy.queryForMap("SELECT runs, average, centuries, position, image_url, active FROM players"))
+                .containsEntry("runs", "12344").containsEntry("average", "58.07").containsEntry("centuries", "43")
+                .containsEntry("position", "Batsman").containsEntry("image_url", "/vk.svg")
+                .containsEntry("active", true);
+        assertThat(legacy.queryForObject("SELECT CAST(start_time AS VARCHAR) FROM matches", String.class))
+                .startsWith("2024-01-01 10:00:00");
+        assertThat(legacy.queryForObject("SELECT COUNT(*) FROM match_participants", Integer.class)).isEqualTo(2);
+        assertThat(legacy.queryForList("SELECT batsman FROM match_current_batsmen", String.class))
+                .containsExactly("Virat Kohli 89*");
+        assertThat(legacy.queryForMap("SELECT summary, content, image_url FROM news_articles"))
+                .containsEntry("summary", "").containsEntry("content", "").containsEntry("image_url", "/r.svg");
+    }
+
+    @Test
+    void freshDatabaseIsLeftAsV1CreatedIt() {
+        JdbcTemplate fresh = database("fresh-only");
+        migrate(fresh);
+
+        assertThat(fresh.queryForObject("SELECT COUNT(*) FROM information_schema.columns "
+                + "WHERE table_schema = 'public' AND column_name IN ('image', 'match_status', 'total_runs')",
+                Integer.class)).isZero();
+        assertThat(fresh.queryForObject("SELECT success FROM flyway_schema_history WHERE version = '1.1'",
+                Boolean.class)).isTrue();
+    }
+}
@@ -0,0 +1,47 @@
+package com.cricinfo.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrecompressedResponseFilterTest {
+
+    private static final List<String> GZIP_ONLY = List.of("gzip");
+    private static final List<String> ALL = List.of("br", "zstd", "gzip");
+
+    @Test
+    void acceptsGzipWhenListed() {
+        assertThat(PrecompressedResponseFilter.negotiate("gzip", GZIP_ONLY)).isEqualTo("gzip");
+        assertThat(PrecompressedResponseFilter.negotiate("deflate, GZIP;q=0.5, br", GZIP_ONLY)).isEqualTo("gzip");
+        assertThat(PrecompressedResponseFilter.negotiate("*", GZIP_ONLY)).isEqualTo("gzip");
+    }
+
+    @Test
+    void refusesGzipWhenAbsentOrExcluded() {
+        assertThat(PrecompressedResponseFilter.negotiate(null, GZIP_ONLY)).isNull();
+        assertThat(PrecompressedResponseFilter.negotiate("", GZIP_ONLY)).isNull();
+        assertThat(PrecompressedResponseFilter.negotiate("br, deflate", GZIP_ONLY)).isNull();
+        assertThat(PrecompressedResponseFilter.negotiate("gzip;q=0", GZIP_ONLY)).isNull();
+        assertThat(PrecompressedResponseFilter.negotiate("br, *;q=0.0", GZIP_ONLY)).isNull();
+        assertThat(PrecompressedResponseFilter.negotiate("x-gzip2", GZIP_ONLY)).isNull();
+    }
+
+    @Test
+    void picksTheHighestWeightThenTheServerPreference() {
+        assertThat(PrecompressedResponseFilter.negotiate("gzip, deflate, br, zstd", ALL)).isEqualTo("br");
+        assertThat(PrecompressedResponseFilter.negotiate("gzip, zstd", ALL)).isEqualTo("zstd");
+        assertThat(PrecompressedResponseFilter.negotiate("br;q=0.5, gzip;q=0.8", ALL)).isEqualTo("gzip");
+        assertThat(PrecompressedResponseFilter.negotiate("br;q=0, *", ALL)).isEqualTo("zstd");
+        assertThat(PrecompressedResponseFilter.negotiate("br, zstd", GZIP_ONLY)).isNull();
+    }
+
+    @Test
+    void ignoresEntriesWithUnreadableWeights() {
+        assertThat(PrecompressedResponseFilter.negotiate("gzip;q=abc", GZIP_ONLY)).isNull();
+        assertThat(PrecompressedResponseFilter.negotiate("br;q=abc, gzip", ALL)).isEqualTo("gzip");
+        assertThat(PrecompressedResponseFilter.negotiate("br;q=2, zstd;q=, gzip;q=0.1", ALL)).isEqualTo("gzip");
+        assertThat(PrecompressedResponseFilter.negotiate("gzip;q=NaN, zstd;q=0.3", ALL)).isEqualTo("zstd");
+    }
+}
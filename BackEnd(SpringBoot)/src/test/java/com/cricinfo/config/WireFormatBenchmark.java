@@ -0,0 +1,64 @@
+package com.cricinfo.config;
+
+import com.cricinfo.entity.Match;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode time and bytes per response for each negotiated encoding, over a
+ * single match (the {@code /api/matches/{id}} shape) and a list of matches.
+ * Each trial prints the encoded size once before measuring.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String encoding;
+
+    @Param({"1", "50"})
+    public int matches;
+
+    private ObjectMapper mapper;
+    private Object payload;
+
+    @Setup
+    public void setUp() {
+        WireFormatConfig config = new WireFormatConfig();
+        mapper = switch (encoding) {
+            case "cbor" -> config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+            case "smile" -> config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        List<Match> sample = WireFormatConfigTest.matches(matches);
+        payload = matches == 1 ? sample.get(0) : sample;
+        try {
+            System.out.printf("%n%s, %d match(es): %,d bytes%n", encoding, matches, mapper.writeValueAsBytes(payload).length);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return mapper.writeValueAsBytes(payload);
+    }
+}
@@ -0,0 +1,90 @@
+package com.cricinfo.config;
+
+import com.cricinfo.entity.Match;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WireFormatConfigTest {
+
+    private static final String[][] TEAMS = {
+            {"India", "IND"}, {"Australia", "AUS"}, {"England", "ENG"}, {"South Africa", "SA"},
+            {"New Zealand", "NZ"}, {"Pakistan", "PAK"}, {"Sri Lanka", "SL"}, {"West Indies", "WI"}};
+    private static final String[] VENUES = {
+            "Melbourne Cricket Ground", "Lord's", "Eden Gardens", "Newlands", "Eden Park"};
+
+    private final WireFormatConfig config = new WireFormatConfig();
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cbor =
+            config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+    private final ObjectMapper smile =
+            config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+
+    static List<Match> matches(int count) {
+        List<Match> matches = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        for (int i = 0; i < count; i++) {
+            String[] team1 = TEAMS[i % TEAMS.length];
+            String[] team2 = TEAMS[(i + 3) % TEAMS.length];
+            Match match = new Match();
+            match.setId((long) i + 1);
+            match.setTeam1(team1[0]);
+            match.setTeam2(team2[0]);
+            match.setTeam1Flag("https://flags.example/" + team1[1] + ".png");
+            match.setTeam2Flag("https://flags.example/" + team2[1] + ".png");
+            match.setTeam1Score((200 + i % 120) + "/" + (i % 10));
+            match.setTeam2Score((150 + i % 90) + "/" + (i % 8));
+            match.setTeam1Overs("50.0");
+            match.setTeam2Overs((30 + i % 20) + "." + (i % 6));
+            match.setStatus(i % 3 == 0 ? "LIVE" : "COMPLETED");
+            match.setVenue(VENUES[i % VENUES.length]);
+            match.setFormat("ODI");
+            match.setSeries("ICC Cricket World Cup 2024");
+            match.setRunRate("5.12");
+            match.setRequiredRate("6.40");
+            match.setCurrentBatsmen(List.of("Batter " + (i % 11), "Batter " + ((i + 1) % 11)));
+            match.setCurrentBowler("Bowler " + (i % 5));
+            match.setMatchType("International");
+            match.setMatchDateTime(start.plusDays(i));
+            match.setStartTime(start.plusDays(i));
+            match.setCreatedAt(start);
+            match.setUpdatedAt(start.plusDays(i).plusHours(8));
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    @Test
+    void binaryEncodingsAreSmallerThanJsonAndRoundTrip() throws Exception {
+        List<Match> matches = matches(500);
+
+        byte[] jsonBytes = json.writeValueAsBytes(matches);
+        byte[] cborBytes = cbor.writeValueAsBytes(matches);
+        byte[] smileBytes = smile.writeValueAsBytes(matches);
+
+        assertThat(cborBytes.length).isLessThan(jsonBytes.length);
+        // Shared string values back-reference repeated teams, venues and flags.
+        assertThat(smileBytes.length).isLessThan(cborBytes.length / 2);
+        Match[] decoded = smile.readValue(smileBytes, Match[].class);
+        assertThat(decoded).hasSize(matches.size());
+        assertThat(decoded[7]).isEqualTo(matches.get(7));
+        assertThat(cbor.readValue(cborBytes, Match[].class)[7]).isEqualTo(matches.get(7));
+    }
+
+    @Test
+    void datesKeepTheirJsonFormat() throws Exception {
+        Match match = matches(1).get(0);
+
+        Match decoded = cbor.readValue(cbor.writeValueAsBytes(match), Match.class);
+
+        assertThat(decoded.getStartTime()).isEqualTo(match.getStartTime());
+        assertThat(cbor.readTree(cbor.writeValueAsBytes(match)).get("startTime").asText())
+                .isEqualTo("2024-01-01 10:00:00");
+    }
+}
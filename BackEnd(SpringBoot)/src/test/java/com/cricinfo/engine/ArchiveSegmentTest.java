@@ -0,0 +1,96 @@
+package com.cricinfo.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArchiveSegmentTest {
+
+    @TempDir
+    Path dir;
+
+    private static ArchiveSegment.Record record(long id) {
+        return new ArchiveSegment.Record(id, ("{\"id\":" + id + ",\"title\":\"Article " + id + "\"}")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void roundTripsEveryRecord() throws IOException {
+        List<ArchiveSegment.Record> records = new ArrayList<>();
+        for (long id = 10; id < 1000; id += 3) {
+            records.add(record(id));
+        }
+        Path file = dir.resolve("segment-1.arc");
+
+        ArchiveSegment.write(file, records, 16);
+        ArchiveSegment segment = ArchiveSegment.open(file);
+
+        assertThat(segment.getRecords()).isEqualTo(records.size());
+        assertThat(segment.getBlocks()).isEqualTo((records.size() + 15) / 16);
+        assertThat(segment.getMinId()).isEqualTo(10);
+        assertThat(segment.getMaxId()).isEqualTo(997);
+        for (ArchiveSegment.Record record : records) {
+            assertThat(segment.find(record.getId())).isEqualTo(record.getData());
+        }
+    }
+
+    @Test
+    void forEachVisitsEveryRecordInIdOrder() throws IOException {
+        List<ArchiveSegment.Record> records = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            records.add(record(id * 2));
+        }
+        Path file = dir.resolve("segment-4.arc");
+        ArchiveSegment.write(file, records, 8);
+        List<ArchiveSegment.Record> visited = new ArrayList<>();
+
+        ArchiveSegment.open(file).forEach(visited::add);
+
+        assertThat(visited).extracting(ArchiveSegment.Record::getId)
+                .containsExactlyElementsOf(records.stream().map(ArchiveSegment.Record::getId).toList());
+        assertThat(visited.get(49).getData()).isEqualTo(records.get(49).getData());
+    }
+
+    @Test
+    void findReturnsNullForIdsItDoesNotHold() throws IOException {
+        Path file = dir.resolve("segment-2.arc");
+        ArchiveSegment.write(file, List.of(record(5), record(7), record(9)), 2);
+        ArchiveSegment segment = ArchiveSegment.open(file);
+
+        assertThat(segment.find(4)).isNull();
+        assertThat(segment.find(6)).isNull();
+        assertThat(segment.find(8)).isNull();
+        assertThat(segment.find(10)).isNull();
+    }
+
+    @Test
+    void rejectsEmptyOrUnsortedInputAndLeavesNoFile() {
+        Path file = dir.resolve("segment-3.arc");
+
+        assertThatThrownBy(() -> ArchiveSegment.write(file, List.of(), 4))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ArchiveSegment.write(file, List.of(record(2), record(1)), 4))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ArchiveSegment.write(file, List.of(record(1), record(1)), 4))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(file).doesNotExist();
+        assertThat(dir).isEmptyDirectory();
+    }
+
+    @Test
+    void refusesFilesThatAreNotSegments() throws IOException {
+        Path file = dir.resolve("notes.arc");
+        Files.write(file, new byte[64]);
+
+        assertThatThrownBy(() -> ArchiveSegment.open(file)).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,157 @@
+package com.cricinfo.engine;
+
+import com.cricinfo.entity.ScorecardEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CareerStatsStoreTest {
+
+    private static final long KOHLI = 1;
+    private static final long CUMMINS = 2;
+
+    private static CareerStatsStore.MatchContext context(long matchId, String format, String venue, int year) {
+        return new CareerStatsStore.MatchContext(matchId, "India", "Australia", venue, format, year);
+    }
+
+    private static ScorecardEntry batting(long matchId, long playerId, String team, int runs, int balls, boolean notOut) {
+        ScorecardEntry entry = new ScorecardEntry();
+        entry.setMatchId(matchId);
+        entry.setPlayerId(playerId);
+        entry.setTeam(team);
+        entry.setRuns(runs);
+        entry.setBallsFaced(balls);
+        entry.setNotOut(notOut);
+        return entry;
+    }
+
+    private static ScorecardEntry bowling(long matchId, long playerId, String team, int balls, int runs, int wickets) {
+        ScorecardEntry entry = new ScorecardEntry();
+        entry.setMatchId(matchId);
+        entry.setPlayerId(playerId);
+        entry.setTeam(team);
+        entry.setBatted(false);
+        entry.setBallsBowled(balls);
+        entry.setRunsConceded(runs);
+        entry.setWickets(wickets);
+        return entry;
+    }
+
+    private static CareerStatsStore built() {
+        List<ScorecardEntry> entries = List.of(
+                batting(10, KOHLI, "India", 120, 110, false),
+                bowling(10, CUMMINS, "Australia", 60, 55, 5),
+                batting(11, KOHLI, "India", 45, 30, true),
+                bowling(11, CUMMINS, "Australia", 24, 30, 1),
+                batting(12, KOHLI, "India", 70, 60, false));
+        CareerStatsStore.MatchContext[] contexts = {
+                context(10, "ODI", "MCG", 2023), context(10, "ODI", "MCG", 2023),
+                context(11, "T20I", "SCG", 2024), context(11, "T20I", "SCG", 2024),
+                context(12, "ODI", "SCG", 2024)};
+        return CareerStatsStore.build(entries.toArray(new ScorecardEntry[0]), contexts, ForkJoinPool.commonPool());
+    }
+
+    private static CareerTotals only(List<CareerTotals> totals) {
+        assertThat(totals).hasSize(1);
+        return totals.get(0);
+    }
+
+    @Test
+    void aggregatesBattingPerFormat() {
+        CareerStatsStore store = built();
+
+        List<CareerTotals> totals = store.aggregate(KOHLI, null, null, null, null);
+
+        assertThat(totals).extracting(CareerTotals::getFormat).containsExactlyInAnyOrder("ODI", "T20I");
+        CareerTotals odi = only(store.aggregate(KOHLI, "odi", null, null, null));
+        assertThat(odi.getMatches()).isEqualTo(2);
+        assertThat(odi.getInnings()).isEqualTo(2);
+        assertThat(odi.getRuns()).isEqualTo(190);
+        assertThat(odi.getHighScore()).isEqualTo(120);
+        assertThat(odi.getHundreds()).isEqualTo(1);
+        assertThat(odi.getFifties()).isEqualTo(1);
+    }
+
+    @Test
+    void aggregatesBowlingAndSplits() {
+        CareerStatsStore store = built();
+
+        CareerTotals odi = only(store.aggregate(CUMMINS, "ODI", "india", null, null));
+        assertThat(odi.getInnings()).isZero();
+        assertThat(odi.getWickets()).isEqualTo(5);
+        assertThat(odi.getFiveWicketHauls()).isEqualTo(1);
+        assertThat(odi.getBestWickets()).isEqualTo(5);
+
+        assertThat(store.aggregate(KOHLI, null, null, "scg", 2024)).hasSize(2);
+        assertThat(store.aggregate(KOHLI, null, null, null, 2023)).hasSize(1);
+        assertThat(store.aggregate(KOHLI, null, "England", null, null)).isEmpty();
+        assertThat(store.aggregate(99, null, null, null, null)).isEmpty();
+    }
+
+    @Test
+    void putMatchReplacesTheMatchInPlace() {
+        CareerStatsStore store = built();
+        int rows = store.getRowCount();
+
+        boolean changed = store.putMatch(context(12, "ODI", "SCG", 2024),
+                List.of(batting(12, KOHLI, "India", 82, 70, false)));
+
+        assertThat(changed).isTrue();
+        assertThat(store.getRowCount()).isEqualTo(rows);
+        assertThat(only(store.aggregate(KOHLI, "ODI", null, null, null)).getRuns()).isEqualTo(202);
+    }
+
+    @Test
+    void putMatchWithAnUnchangedScorecardWritesNothing() {
+        CareerStatsStore store = built();
+
+        boolean changed = store.putMatch(context(12, "ODI", "SCG", 2024),
+                List.of(batting(12, KOHLI, "India", 70, 60, false)));
+
+        assertThat(changed).isFalse();
+    }
+
+    @Test
+    void putMatchWithOtherPlayersAppendsAndRemoveDropsIt() {
+        CareerStatsStore store = built();
+
+        store.putMatch(context(12, "ODI", "SCG", 2024), List.of(
+                batting(12, KOHLI, "India", 10, 12, false),
+                bowling(12, CUMMINS, "Australia", 54, 40, 2)));
+        assertThat(only(store.aggregate(KOHLI, "ODI", null, null, null)).getRuns()).isEqualTo(130);
+        assertThat(only(store.aggregate(CUMMINS, "ODI", null, null, null)).getWickets()).isEqualTo(7);
+
+        store.removeMatch(12);
+        assertThat(only(store.aggregate(KOHLI, "ODI", null, null, null)).getRuns()).isEqualTo(120);
+        assertThat(store.getMatchCount()).isEqualTo(2);
+    }
+
+    @Test
+    void deadRowsAreCompactedAway() {
+        CareerStatsStore store = CareerStatsStore.empty();
+        for (long match = 1; match <= 100; match++) {
+            store.putMatch(context(match, "Test", "MCG", 2024), List.of(batting(match, KOHLI, "India", 1, 1, false)));
+        }
+        // Alternating players never fit the old rows, so every replacement leaves dead rows behind.
+        for (int round = 0; round < 30; round++) {
+            long player = round % 2 == 0 ? CUMMINS : KOHLI;
+            for (long match = 1; match <= 100; match++) {
+                List<ScorecardEntry> entries = new ArrayList<>();
+                entries.add(batting(match, player, "India", 1, 1, false));
+                store.putMatch(context(match, "Test", "MCG", 2024), entries);
+            }
+        }
+
+        assertThat(store.getRowCount()).isLessThan(2_000);
+        assertThat(store.getMatchCount()).isEqualTo(100);
+        // The last round gave every match to KOHLI.
+        CareerTotals totals = only(store.aggregate(KOHLI, null, null, null, null));
+        assertThat(totals.getMatches()).isEqualTo(100);
+        assertThat(totals.getRuns()).isEqualTo(100);
+        assertThat(store.aggregate(CUMMINS, null, null, null, null)).isEmpty();
+    }
+}
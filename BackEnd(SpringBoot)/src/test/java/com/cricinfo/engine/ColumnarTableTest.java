@@ -0,0 +1,115 @@
+package com.cricinfo.engine;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColumnarTableTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    static void shutdown() {
+        POOL.shutdown();
+    }
+
+    private static String[] row(String venue, String format, String stage) {
+        String[] values = new String[MatchDimension.values().length];
+        values[MatchDimension.VENUE.ordinal()] = venue;
+        values[MatchDimension.FORMAT.ordinal()] = format;
+        values[MatchDimension.STAGE.ordinal()] = stage;
+        return values;
+    }
+
+    private static ColumnarTable<MatchDimension> sample() {
+        ColumnarTable<MatchDimension> table = new ColumnarTable<>(MatchDimension.class, 2, 0);
+        table.upsert(1, row("MCG", "ODI", "COMPLETED"), new long[]{300, 9});
+        table.upsert(2, row("MCG", "T20", "COMPLETED"), new long[]{180, 6});
+        table.upsert(3, row("Lord's", "ODI", "LIVE"), new long[]{250, 4});
+        table.upsert(4, row(null, "ODI", "COMPLETED"), new long[]{200, 10});
+        return table;
+    }
+
+    @Test
+    void sumsMetricsPerGroupWithARowCount() {
+        List<ColumnarTable.Group<MatchDimension>> groups =
+                sample().aggregate(List.of(MatchDimension.FORMAT), Map.of(), POOL);
+
+        assertThat(groups).hasSize(2);
+        ColumnarTable.Group<MatchDimension> odi = groups.stream()
+                .filter(group -> "ODI".equals(group.getKeys().get(MatchDimension.FORMAT))).findFirst().orElseThrow();
+        assertThat(odi.metric(0)).isEqualTo(750);
+        assertThat(odi.metric(1)).isEqualTo(23);
+        assertThat(odi.metric(2)).as("row count").isEqualTo(3);
+    }
+
+    @Test
+    void missingValuesGetTheirOwnGroup() {
+        List<ColumnarTable.Group<MatchDimension>> groups =
+                sample().aggregate(List.of(MatchDimension.VENUE), Map.of(MatchDimension.FORMAT, "odi"), POOL);
+
+        assertThat(groups).extracting(group -> group.getKeys().get(MatchDimension.VENUE))
+                .containsExactlyInAnyOrder(null, "MCG", "Lord's");
+    }
+
+    @Test
+    void filtersAreCaseInsensitiveAndUnknownValuesMatchNothing() {
+        ColumnarTable<MatchDimension> table = sample();
+
+        List<ColumnarTable.Group<MatchDimension>> completed =
+                table.aggregate(List.of(), Map.of(MatchDimension.STAGE, "completed"), POOL);
+        assertThat(completed).hasSize(1);
+        assertThat(completed.get(0).metric(0)).isEqualTo(680);
+
+        assertThat(table.aggregate(List.of(), Map.of(MatchDimension.VENUE, "Eden Gardens"), POOL)).isEmpty();
+    }
+
+    @Test
+    void upsertOverwritesAndRemoveHidesTheRow() {
+        ColumnarTable<MatchDimension> table = sample();
+        table.upsert(2, row("MCG", "ODI", "COMPLETED"), new long[]{100, 1});
+        table.remove(3);
+
+        List<ColumnarTable.Group<MatchDimension>> groups =
+                table.aggregate(List.of(MatchDimension.FORMAT), Map.of(), POOL);
+
+        assertThat(table.getRowCount()).isEqualTo(3);
+        assertThat(groups).hasSize(1);
+        assertThat(groups.get(0).metric(0)).isEqualTo(600);
+        assertThat(groups.get(0).metric(2)).isEqualTo(3);
+    }
+
+    @Test
+    void largeScansAreSplitAndMerged() {
+        ColumnarTable<MatchDimension> table = new ColumnarTable<>(MatchDimension.class, 1, 0);
+        int rows = 200_000;
+        for (int id = 0; id < rows; id++) {
+            table.upsert(id, row("V" + (id % 7), id % 2 == 0 ? "ODI" : "T20", "COMPLETED"), new long[]{1});
+        }
+
+        List<ColumnarTable.Group<MatchDimension>> groups =
+                table.aggregate(List.of(MatchDimension.FORMAT), Map.of(), POOL);
+
+        assertThat(groups).extracting(group -> group.metric(0)).containsOnly((long) rows / 2);
+    }
+
+    @Test
+    void rejectsGroupingsWithTooManyGroups() {
+        ColumnarTable<MatchDimension> table = new ColumnarTable<>(MatchDimension.class, 1, 0);
+        for (int id = 0; id < 300; id++) {
+            String[] values = row("V" + id, "F" + id, "S" + id);
+            values[MatchDimension.SERIES.ordinal()] = "S" + id;
+            table.upsert(id, values, new long[]{1});
+        }
+
+        assertThatThrownBy(() -> table.aggregate(
+                List.of(MatchDimension.VENUE, MatchDimension.FORMAT, MatchDimension.SERIES), Map.of(), POOL))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,85 @@
+package com.cricinfo.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelatedIndexTest {
+
+    private static final String ASHES = "Australia retain the Ashes after a rain-hit final day at Old Trafford "
+            + "as England run out of time chasing a series-levelling win in Manchester";
+    private static final String ASHES_AGAIN = "Australia retain the Ashes after a rain-hit final day at Old Trafford "
+            + "with England left to rue the weather in Manchester";
+    private static final String IPL = "Mumbai Indians win the IPL final against Chennai Super Kings in Ahmedabad "
+            + "after a last-ball thriller under the lights";
+
+    private static List<Long> ids(List<RelatedIndex.Related> related) {
+        return related.stream().map(RelatedIndex.Related::getId).toList();
+    }
+
+    @Test
+    void similarTextRanksAboveUnrelatedText() {
+        RelatedIndex index = new RelatedIndex();
+        index.put(1, RelatedIndex.sketch(ASHES, Map.of()));
+        index.put(2, RelatedIndex.sketch(ASHES_AGAIN, Map.of()));
+        index.put(3, RelatedIndex.sketch(IPL, Map.of()));
+
+        List<RelatedIndex.Related> related = index.related(1, 5);
+
+        assertThat(ids(related)).startsWith(2L).doesNotContain(1L);
+        assertThat(related.get(0).getScore()).isBetween(0.2, 1.0);
+    }
+
+    @Test
+    void sharedMentionsFindArticlesWithDifferentWording() {
+        RelatedIndex index = new RelatedIndex();
+        index.put(1, RelatedIndex.sketch(ASHES, Map.of("PLAYER:7", 2)));
+        index.put(2, RelatedIndex.sketch(IPL, Map.of("PLAYER:7", 1)));
+        index.put(3, RelatedIndex.sketch("Groundsman prepares a green pitch", Map.of("PLAYER:8", 1)));
+
+        List<RelatedIndex.Related> related = index.related(1, 5);
+
+        assertThat(ids(related)).contains(2L).doesNotContain(3L);
+        assertThat(index.mentions(1)).containsEntry("PLAYER:7", 2);
+    }
+
+    @Test
+    void removeAndReplaceUpdateTheCandidates() {
+        RelatedIndex index = new RelatedIndex();
+        index.put(1, RelatedIndex.sketch(ASHES, Map.of()));
+        index.put(2, RelatedIndex.sketch(ASHES_AGAIN, Map.of()));
+
+        index.put(2, RelatedIndex.sketch(IPL, Map.of()));
+        assertThat(ids(index.related(1, 5))).doesNotContain(2L);
+
+        index.put(2, RelatedIndex.sketch(ASHES_AGAIN, Map.of()));
+        index.remove(2);
+        assertThat(index.related(1, 5)).isEmpty();
+        assertThat(index.contains(2)).isFalse();
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.related(2, 5)).isEmpty();
+        assertThat(index.mentions(2)).isEmpty();
+    }
+
+    @Test
+    void textOfOnlyStopWordsMatchesNothing() {
+        RelatedIndex index = new RelatedIndex();
+        index.put(1, RelatedIndex.sketch("the and of", Map.of()));
+        index.put(2, RelatedIndex.sketch("it was the", Map.of()));
+
+        assertThat(index.related(1, 5)).isEmpty();
+    }
+
+    @Test
+    void equalScoresGoToTheNewerArticle() {
+        RelatedIndex index = new RelatedIndex();
+        index.put(1, RelatedIndex.sketch(ASHES, Map.of()));
+        index.put(5, RelatedIndex.sketch(ASHES_AGAIN, Map.of()));
+        index.put(9, RelatedIndex.sketch(ASHES_AGAIN, Map.of()));
+
+        assertThat(ids(index.related(1, 1))).containsExactly(9L);
+    }
+}
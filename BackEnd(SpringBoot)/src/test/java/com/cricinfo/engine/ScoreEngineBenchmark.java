@@ -0,0 +1,67 @@
+package com.cricinfo.engine;
+
+import com.cricinfo.entity.Match;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-update cost of the score engine. {@code compute} should report zero
+ * bytes per operation under {@code -prof gc}; {@code applyDerivedRates} pays
+ * for the two rate strings it writes back.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoreEngineBenchmark {
+
+    private final ScoreEngine engine = new ScoreEngine();
+    private final ScoreState state = new ScoreState();
+    private Match chase;
+
+    @Setup
+    public void setUp() {
+        chase = new Match();
+        chase.setFormat("ODI");
+        chase.setTeam1Score("287/4");
+        chase.setTeam1Overs("50");
+        chase.setTeam2Score("156/8");
+        chase.setTeam2Overs("32.1");
+    }
+
+    @Benchmark
+    public ScoreState limitedOversChase() {
+        engine.compute("ODI", "287/4", "50", "156/8", "32.1", state);
+        return state;
+    }
+
+    @Benchmark
+    public ScoreState testFourthInnings() {
+        engine.compute("Test", "350 & 180", "110.2", "300 & 96/3", "31.4", state);
+        return state;
+    }
+
+    @Benchmark
+    public ScoreState firstInnings() {
+        engine.compute("T20I", "88/2", "10.0", null, null, state);
+        return state;
+    }
+
+    @Benchmark
+    public Match applyDerivedRates() {
+        engine.applyDerivedRates(chase);
+        return chase;
+    }
+}
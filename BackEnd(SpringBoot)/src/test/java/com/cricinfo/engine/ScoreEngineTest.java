@@ -0,0 +1,156 @@
+package com.cricinfo.engine;
+
+import com.cricinfo.entity.Match;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ScoreEngineTest {
+
+    private final ScoreEngine engine = new ScoreEngine();
+
+    @Test
+    void parsesRunsWicketsAndOvers() {
+        assertThat(ScoreEngine.parseRuns("287/4")).isEqualTo(287);
+        assertThat(ScoreEngine.parseWickets("287/4")).isEqualTo(4);
+        assertThat(ScoreEngine.parseWickets("287-4")).isEqualTo(4);
+        assertThat(ScoreEngine.parseWickets("287")).isZero();
+        assertThat(ScoreEngine.parseRuns("310 & 156/3")).isEqualTo(156);
+        assertThat(ScoreEngine.parseWickets("310 & 156/3")).isEqualTo(3);
+        assertThat(ScoreEngine.parseRuns(null)).isZero();
+        assertThat(ScoreEngine.parseBalls("45.2")).isEqualTo(272);
+        assertThat(ScoreEngine.parseBalls("20")).isEqualTo(120);
+        assertThat(ScoreEngine.parseBalls("12.9")).isEqualTo(77);
+    }
+
+    @Test
+    void readsEveryInnings() {
+        assertThat(ScoreEngine.totalRuns("310 & 156/3")).isEqualTo(466);
+        assertThat(ScoreEngine.inningsCount("310 & 156/3")).isEqualTo(2);
+        assertThat(ScoreEngine.inningsCount("310")).isEqualTo(1);
+        assertThat(ScoreEngine.inningsOver("420/7d", 7, 0, 0)).isTrue();
+        assertThat(ScoreEngine.inningsOver("310 & 156/3", 3, 0, 0)).isFalse();
+        assertThat(ScoreEngine.inningsOver("180/6", 6, 120, 120)).isTrue();
+    }
+
+    @Test
+    void formatsRatesWithTwoDecimals() {
+        assertThat(ScoreEngine.formatRate(4.8456)).isEqualTo("4.85");
+        assertThat(ScoreEngine.formatRate(7.4)).isEqualTo("7.40");
+        assertThat(ScoreEngine.formatRate(6.05)).isEqualTo("6.05");
+        assertThat(ScoreEngine.formatRate(-1)).isEqualTo("0.00");
+    }
+
+    @Test
+    void team2ChasesWhenTeam1IsAllOut() {
+        ScoreState state = new ScoreState();
+        engine.compute("ODI", "250", "48.3", "120/2", "20.0", state);
+
+        assertThat(state.getBattingSide()).isEqualTo(2);
+        assertThat(state.getTarget()).isEqualTo(251);
+        assertThat(state.getBallsRemaining()).isEqualTo(180);
+        assertThat(state.getCurrentRunRate()).isCloseTo(6.0, within(1e-9));
+        assertThat(state.getRequiredRunRate()).isCloseTo(131 * 6.0 / 180, within(1e-9));
+        assertThat(state.isChasing()).isTrue();
+    }
+
+    @Test
+    void team1ChasesWhenTeam2BattedFirst() {
+        ScoreState state = new ScoreState();
+        engine.compute("T20I", "60/1", "8.0", "180/6", "20.0", state);
+
+        assertThat(state.getBattingSide()).isEqualTo(1);
+        assertThat(state.getTarget()).isEqualTo(181);
+        assertThat(state.getBallsRemaining()).isEqualTo(72);
+        assertThat(state.isChasing()).isTrue();
+        // Needing 121 off 72 balls with nine wickets left is a long shot for team1.
+        assertThat(state.getWinProbability()).isLessThan(0.5);
+    }
+
+    @Test
+    void firstInningsHasNoTarget() {
+        ScoreState state = new ScoreState();
+        engine.compute("T20", "96/2", "10.0", null, null, state);
+
+        assertThat(state.getBattingSide()).isEqualTo(1);
+        assertThat(state.isChasing()).isFalse();
+        assertThat(state.getRequiredRunRate()).isNaN();
+        assertThat(state.getProjectedScore()).isGreaterThan(96);
+    }
+
+    @Test
+    void testMatchOnlyChasesInTheFourthInnings() {
+        ScoreState state = new ScoreState();
+        engine.compute("Test", "310 & 156/3", "40.0", "280", "90.0", state);
+        assertThat(state.getBattingSide()).isEqualTo(1);
+        assertThat(state.isChasing()).isFalse();
+        assertThat(state.isLimitedOvers()).isFalse();
+
+        engine.compute("Test", "310 & 200", "60.0", "280 & 100/2", "30.0", state);
+        assertThat(state.getBattingSide()).isEqualTo(2);
+        // 510 to beat, less the 280 already made in the first innings.
+        assertThat(state.getTarget()).isEqualTo(231);
+        assertThat(state.getWinProbability()).isNaN();
+    }
+
+    @Test
+    void testMatchFirstInningsLeadIsNotATarget() {
+        ScoreState state = new ScoreState();
+        engine.compute("Test", "420/7d", "120.0", "80/1", "25.0", state);
+
+        assertThat(state.getBattingSide()).isEqualTo(2);
+        assertThat(state.isChasing()).isFalse();
+    }
+
+    @Test
+    void notStartedHasNoBattingSide() {
+        ScoreState state = new ScoreState();
+        engine.compute("ODI", null, null, "0/0", "0.0", state);
+
+        assertThat(state.getBattingSide()).isZero();
+    }
+
+    @Test
+    void applyDerivedRatesOverwritesStoredRates() {
+        Match match = new Match();
+        match.setFormat("ODI");
+        match.setTeam1Score("287/4");
+        match.setTeam1Overs("50");
+        match.setTeam2Score("156/8");
+        match.setTeam2Overs("32.1");
+        match.setRunRate("6.32");
+        match.setRequiredRate("8.45");
+
+        engine.applyDerivedRates(match);
+
+        assertThat(match.getRunRate()).isEqualTo("4.85");
+        assertThat(match.getRequiredRate()).isEqualTo("7.40");
+    }
+
+    @Test
+    void applyDerivedRatesClearsTheRequiredRateOutsideAChase() {
+        Match match = new Match();
+        match.setFormat("T20I");
+        match.setTeam1Score("88/2");
+        match.setTeam1Overs("10.0");
+        match.setRequiredRate("9.50");
+
+        engine.applyDerivedRates(match);
+
+        assertThat(match.getRunRate()).isEqualTo("8.80");
+        assertThat(match.getRequiredRate()).isNull();
+    }
+
+    @Test
+    void applyDerivedRatesLeavesUnstartedMatchesAlone() {
+        Match match = new Match();
+        match.setFormat("T20");
+        match.setRunRate("0.00");
+
+        engine.applyDerivedRates(match);
+
+        assertThat(match.getRunRate()).isEqualTo("0.00");
+        assertThat(match.getRequiredRate()).isNull();
+    }
+}
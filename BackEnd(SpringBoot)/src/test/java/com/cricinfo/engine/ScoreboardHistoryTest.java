@@ -0,0 +1,87 @@
+package com.cricinfo.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoreboardHistoryTest {
+
+    private static Map<String, Object> board(String score, String overs) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("team1Score", score);
+        snapshot.put("team1Overs", overs);
+        snapshot.put("status", "LIVE");
+        return snapshot;
+    }
+
+    @Test
+    void emptyHistoryHasVersionZero() {
+        ScoreboardHistory history = new ScoreboardHistory(4);
+
+        assertThat(history.latestVersion()).isZero();
+        assertThat(history.latestSnapshot()).isNull();
+        assertThat(history.changesSince(0)).isNull();
+    }
+
+    @Test
+    void changesSinceHoldsOnlyChangedFields() {
+        ScoreboardHistory history = new ScoreboardHistory(4);
+        history.record(100, board("120/2", "20.0"));
+        history.record(200, board("126/2", "21.0"));
+
+        assertThat(history.latestVersion()).isEqualTo(200);
+        assertThat(history.changesSince(100)).containsExactly(
+                Map.entry("team1Score", "126/2"), Map.entry("team1Overs", "21.0"));
+        assertThat(history.changesSince(200)).isEmpty();
+    }
+
+    @Test
+    void recordingAHeldVersionAgainIsIgnored() {
+        ScoreboardHistory history = new ScoreboardHistory(4);
+        history.record(100, board("120/2", "20.0"));
+
+        long latest = history.record(100, board("999/9", "49.0"));
+
+        assertThat(latest).isEqualTo(100);
+        assertThat(history.latestSnapshot()).containsEntry("team1Score", "120/2");
+    }
+
+    @Test
+    void anOlderVersionArrivingLateIsDropped() {
+        ScoreboardHistory history = new ScoreboardHistory(4);
+        history.record(100, board("120/2", "20.0"));
+        history.record(300, board("131/2", "22.0"));
+
+        long latest = history.record(200, board("126/2", "21.0"));
+
+        assertThat(latest).isEqualTo(300);
+        assertThat(history.latestSnapshot()).containsEntry("team1Score", "131/2");
+        assertThat(history.changesSince(200)).isNull();
+        assertThat(history.changesSince(100)).containsEntry("team1Score", "131/2");
+    }
+
+    @Test
+    void oldVersionsFallOutOfTheRing() {
+        ScoreboardHistory history = new ScoreboardHistory(2);
+        history.record(1, board("1/0", "0.1"));
+        history.record(2, board("2/0", "0.2"));
+        history.record(3, board("3/0", "0.3"));
+
+        assertThat(history.changesSince(1)).isNull();
+        assertThat(history.changesSince(2)).containsEntry("team1Score", "3/0");
+        assertThat(history.changesSince(99)).isNull();
+    }
+
+    @Test
+    void snapshotsAreCopied() {
+        ScoreboardHistory history = new ScoreboardHistory(2);
+        Map<String, Object> snapshot = board("1/0", "0.1");
+        history.record(1, snapshot);
+        snapshot.put("team1Score", "changed");
+
+        assertThat(history.latestSnapshot()).containsEntry("team1Score", "1/0");
+    }
+}
@@ -0,0 +1,51 @@
+package com.cricinfo.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void grantsTheBurstThenAsksToWait() {
+        TokenBucket bucket = new TokenBucket(1, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire()).as("token %d", i).isZero();
+        }
+        long wait = bucket.tryAcquire();
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(bucket.isIdle()).isFalse();
+    }
+
+    @Test
+    void refusalsDoNotConsumeTokens() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+
+        assertThat(bucket.tryAcquire()).isZero();
+        long first = bucket.tryAcquire();
+        long second = bucket.tryAcquire();
+        // A refused request leaves the arrival time alone, so the wait only shrinks with time.
+        assertThat(second).isLessThanOrEqualTo(first);
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(4, 1);
+
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+        Thread.sleep(300);
+        assertThat(bucket.tryAcquire()).isZero();
+    }
+
+    @Test
+    void freshBucketIsIdle() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 10);
+        Thread.sleep(1);
+
+        assertThat(bucket.isIdle()).isTrue();
+    }
+}
@@ -0,0 +1,131 @@
+package com.cricinfo.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrendingIndexTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    private static List<Long> ids(List<TrendingIndex.Ranked> ranked) {
+        return ranked.stream().map(TrendingIndex.Ranked::getId).toList();
+    }
+
+    @Test
+    void viewsHalveEveryHalfLife() {
+        TrendingIndex index = new TrendingIndex(HOUR, 10, 0);
+        index.put(1, "news");
+        index.view(1, 0);
+
+        assertThat(index.top(null, 1, 0).get(0).getScore()).isCloseTo(1.0, within(1e-9));
+        assertThat(index.top(null, 1, HOUR).get(0).getScore()).isCloseTo(0.5, within(1e-9));
+        assertThat(index.decay(8, 0, 3 * HOUR)).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void recentViewsOutrankOlderOnes() {
+        TrendingIndex index = new TrendingIndex(HOUR, 10, 0);
+        index.put(1, "news");
+        index.put(2, "news");
+        for (int i = 0; i < 3; i++) {
+            index.view(1, 0);
+        }
+        index.view(2, 2 * HOUR);
+        index.view(2, 2 * HOUR);
+
+        // Three views two half-lives ago are worth 0.75 now; two fresh ones are worth 2.
+        assertThat(ids(index.top("news", 10, 2 * HOUR))).containsExactly(2L, 1L);
+        assertThat(index.view(99, 0)).isFalse();
+    }
+
+    @Test
+    void keepsATopPerCategoryAndOverall() {
+        TrendingIndex index = new TrendingIndex(HOUR, 2, 0);
+        index.put(1, "news");
+        index.put(2, "news");
+        index.put(3, "news");
+        index.put(4, "feature");
+        for (long id = 1; id <= 4; id++) {
+            for (int i = 0; i < id; i++) {
+                index.view(id, 0);
+            }
+        }
+
+        assertThat(ids(index.top("news", 10, 0))).containsExactly(3L, 2L);
+        assertThat(ids(index.top("feature", 10, 0))).containsExactly(4L);
+        assertThat(ids(index.top(null, 10, 0))).containsExactly(4L, 3L);
+        assertThat(index.top("opinion", 10, 0)).isEmpty();
+    }
+
+    @Test
+    void movingOrRemovingAnArticleRefillsTheTop() {
+        TrendingIndex index = new TrendingIndex(HOUR, 2, 0);
+        index.put(1, "news");
+        index.put(2, "news");
+        index.put(3, "news");
+        index.view(1, 0);
+        index.view(2, 0);
+        index.view(2, 0);
+
+        index.put(2, "feature");
+        assertThat(ids(index.top("news", 10, 0))).containsExactly(1L, 3L);
+        assertThat(ids(index.top("feature", 10, 0))).containsExactly(2L);
+
+        index.remove(2);
+        assertThat(ids(index.top(null, 10, 0))).containsExactly(1L, 3L);
+        assertThat(index.contains(2)).isFalse();
+    }
+
+    @Test
+    void drainMovesPendingViewsIntoTheBase() {
+        TrendingIndex index = new TrendingIndex(HOUR, 10, 0);
+        index.put(1, "news");
+        index.view(1, 0);
+        index.view(1, 0);
+
+        Map<Long, TrendingIndex.Drained> drained = index.drain(HOUR);
+
+        assertThat(drained).containsOnlyKeys(1L);
+        assertThat(drained.get(1L).getViews()).isEqualTo(2);
+        assertThat(drained.get(1L).getValue()).isCloseTo(1.0, within(1e-9));
+        assertThat(index.pendingViews(1)).isZero();
+        assertThat(index.baseValue(1, HOUR)).isCloseTo(1.0, within(1e-9));
+        assertThat(index.drain(HOUR)).isEmpty();
+    }
+
+    @Test
+    void setBaseCanLowerAScoreAfterARebuild() {
+        TrendingIndex index = new TrendingIndex(HOUR, 1, 0);
+        index.put(1, "news");
+        index.put(2, "news");
+        index.setBase(1, 10, 0);
+        index.setBase(2, 5, 0);
+        index.rebuildTops();
+        assertThat(ids(index.top("news", 10, 0))).containsExactly(1L);
+
+        index.setBase(1, 1, 0);
+        index.rebuildTops();
+
+        assertThat(ids(index.top("news", 10, 0))).containsExactly(2L);
+        assertThat(index.baseValue(99, 0)).isZero();
+    }
+
+    @Test
+    void survivesAMovedLandmark() {
+        TrendingIndex index = new TrendingIndex(1, 10, 0);
+        index.put(1, "news");
+        index.put(2, "news");
+        index.view(1, 0);
+        index.view(2, 100);
+        index.view(2, 100);
+
+        // 100 half-lives is past the landmark limit, so the weights get rescaled here.
+        assertThat(ids(index.top(null, 10, 100))).containsExactly(2L, 1L);
+        assertThat(index.top(null, 1, 100).get(0).getScore()).isCloseTo(2.0, within(1e-9));
+    }
+}
@@ -0,0 +1,85 @@
+package com.cricinfo.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TypeaheadIndexTest {
+
+    private static List<String> texts(List<TypeaheadIndex.Match> matches) {
+        return matches.stream().map(match -> match.getEntry().getText()).toList();
+    }
+
+    @Test
+    void normalizeFoldsAccentsApostrophesAndPunctuation() {
+        assertThat(TypeaheadIndex.normalize("  Lord's Cricket-Ground ")).isEqualTo("lords cricket ground");
+        assertThat(TypeaheadIndex.normalize("Ravindra Jadéja")).isEqualTo("ravindra jadeja");
+        assertThat(TypeaheadIndex.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void findsByPrefixOfAnyWord() {
+        TypeaheadIndex index = new TypeaheadIndex(8);
+        index.put("PLAYER:1", List.<String[]>of(new String[]{"PLAYER", "Virat Kohli"}));
+        index.put("VENUE:1", List.<String[]>of(new String[]{"VENUE", "Melbourne Cricket Ground"}));
+
+        assertThat(texts(index.suggest("koh", 5))).containsExactly("Virat Kohli");
+        assertThat(texts(index.suggest("virat k", 5))).containsExactly("Virat Kohli");
+        assertThat(texts(index.suggest("cricket gr", 5))).containsExactly("Melbourne Cricket Ground");
+        assertThat(index.suggest("koh", 5).get(0).isFuzzy()).isFalse();
+    }
+
+    @Test
+    void ranksByNumberOfSourcesMentioningAnEntry() {
+        TypeaheadIndex index = new TypeaheadIndex(8);
+        index.put("MATCH:1", List.<String[]>of(new String[]{"VENUE", "Eden Gardens"}));
+        index.put("MATCH:2", List.<String[]>of(new String[]{"VENUE", "Edgbaston"}));
+        index.put("MATCH:3", List.<String[]>of(new String[]{"VENUE", "Edgbaston"}));
+
+        assertThat(texts(index.suggest("ed", 5))).containsExactly("Edgbaston", "Eden Gardens");
+
+        index.put("MATCH:2", List.of());
+        index.put("MATCH:3", List.of());
+        assertThat(texts(index.suggest("ed", 5))).containsExactly("Eden Gardens");
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackToEditDistanceForLongerQueries() {
+        TypeaheadIndex index = new TypeaheadIndex(8);
+        index.put("PLAYER:1", List.<String[]>of(new String[]{"PLAYER", "Virat Kohli"}));
+        index.put("PLAYER:2", List.<String[]>of(new String[]{"PLAYER", "Steve Smith"}));
+
+        List<TypeaheadIndex.Match> oneTypo = index.suggest("kolh", 5);
+        assertThat(texts(oneTypo)).containsExactly("Virat Kohli");
+        assertThat(oneTypo.get(0).isFuzzy()).isTrue();
+
+        assertThat(texts(index.suggest("viart kohli", 5))).containsExactly("Virat Kohli");
+        // Three characters never match fuzzily.
+        assertThat(index.suggest("smt", 5)).isEmpty();
+    }
+
+    @Test
+    void exactMatchesComeBeforeFuzzyOnes() {
+        TypeaheadIndex index = new TypeaheadIndex(8);
+        index.put("TEAM:1", List.<String[]>of(new String[]{"TEAM", "India"}));
+        index.put("TEAM:2", List.<String[]>of(new String[]{"TEAM", "Indja Legends"}));
+
+        List<TypeaheadIndex.Match> matches = index.suggest("india", 5);
+        assertThat(texts(matches)).containsExactly("India", "Indja Legends");
+        assertThat(matches.get(0).isFuzzy()).isFalse();
+        assertThat(matches.get(1).isFuzzy()).isTrue();
+    }
+
+    @Test
+    void clearEmptiesTheIndex() {
+        TypeaheadIndex index = new TypeaheadIndex(8);
+        index.put("TEAM:1", List.<String[]>of(new String[]{"TEAM", "India"}));
+        index.clear();
+
+        assertThat(index.size()).isZero();
+        assertThat(index.suggest("ind", 5)).isEmpty();
+    }
+}
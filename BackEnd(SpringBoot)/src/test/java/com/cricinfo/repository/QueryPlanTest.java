@@ -0,0 +1,277 @@
+package com.cricinfo.repository;
+
+import com.cricinfo.CricInfoApplication;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls every query method declared on the repositories against the Flyway
+ * schema in H2 (MySQL mode), captures the SQL Hibernate sends and checks that
+ * each statement is answered from an index rather than a full table scan.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "logging.level.org.hibernate.SQL=info",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=info",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.cricinfo.repository.QueryPlanTest$Recorder"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = CricInfoApplication.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(ChangeRecordRepository.class,
+            JobRecordRepository.class, MatchParticipantRepository.class, MatchRepository.class,
+            NewsArticleRepository.class, NewsTrendingScoreRepository.class, PlayerRepository.class,
+            ScorecardEntryRepository.class, TeamRepository.class, TournamentRepository.class);
+
+    /**
+     * Queries allowed to read a whole table: full loads by design, and filters
+     * no index can answer. The rest must not contain a tableScan.
+     */
+    private static final Map<String, String> FULL_READS = Map.ofEntries(
+            Map.entry("MatchRepository.findAll", "returns every match"),
+            Map.entry("MatchRepository.streamAll", "returns every match"),
+            Map.entry("MatchRepository.findAnalyticsColumns", "loads the analytics store"),
+            Map.entry("MatchRepository.searchMatches", "LIKE '%q%' on several columns"),
+            Map.entry("MatchParticipantRepository.findMatchesWithoutParticipants", "backfill over every match"),
+            Map.entry("NewsArticleRepository.findTrendingColumns", "loads the trending list"),
+            Map.entry("NewsArticleRepository.searchNews", "LIKE '%q%' on several columns"),
+            Map.entry("NewsArticleRepository.searchNewsHeadlines", "LIKE '%q%' on several columns"),
+            Map.entry("PlayerRepository.streamAll", "returns every player"),
+            Map.entry("PlayerRepository.findAnalyticsColumns", "loads the analytics store"),
+            Map.entry("PlayerRepository.findTopPlayersByRuns", "orders by CAST(runs), which no index holds"),
+            Map.entry("PlayerRepository.findTopPlayersByAverage", "orders by CAST(average), which no index holds"),
+            Map.entry("PlayerRepository.findTopPlayersByCenturies", "orders by CAST(centuries), which no index holds"),
+            Map.entry("PlayerRepository.findSpotlightPlayers", "orders by CAST(runs), which no index holds"),
+            Map.entry("PlayerRepository.searchPlayersByName", "LIKE '%q%'"),
+            Map.entry("ScorecardEntryRepository.findCompletedEntriesWithMatch", "loads the career stats store"),
+            Map.entry("TeamRepository.searchTeamsByName", "LIKE '%q%'"),
+            Map.entry("TournamentRepository.findTournamentsByLocation", "LIKE '%q%'"),
+            Map.entry("TournamentRepository.searchTournaments", "LIKE '%q%' on several columns"));
+
+    /** Collects the SQL Hibernate prepares; registered through hibernate.session_factory.statement_inspector. */
+    public static class Recorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    private static final String[] STATUSES = {"LIVE", "Upcoming", "Completed", "Abandoned"};
+    private static final String[] TEAMS = {"India", "Australia", "England", "South Africa", "New Zealand",
+            "Pakistan", "Sri Lanka", "West Indies", "Bangladesh", "Afghanistan"};
+    private static final String[] FORMATS = {"Test", "ODI", "T20I"};
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @BeforeAll
+    void seed() {
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 10, 0);
+        List<Object[]> matches = new ArrayList<>();
+        List<Object[]> participants = new ArrayList<>();
+        List<Object[]> batsmen = new ArrayList<>();
+        for (int i = 1; i <= 20_000; i++) {
+            String team1 = TEAMS[i % TEAMS.length];
+            String team2 = TEAMS[(i * 7 + 3) % TEAMS.length];
+            Timestamp time = Timestamp.valueOf(start.plusHours(i));
+            matches.add(new Object[]{i, team1, team2, STATUSES[i % STATUSES.length], "Venue " + i % 50,
+                    FORMATS[i % FORMATS.length], "Series " + i % 400, time, time});
+            participants.add(new Object[]{i, 1, team1, team2, time});
+            participants.add(new Object[]{i, 2, team2, team1, time});
+            batsmen.add(new Object[]{i, "Batter " + i});
+        }
+        jdbc.batchUpdate("INSERT INTO matches (id, team1_name, team2_name, status, venue, format, series, "
+                + "match_date_time, start_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", matches);
+        jdbc.batchUpdate("INSERT INTO match_participants (match_id, slot, team_name, opponent_name, start_time) "
+                + "VALUES (?, ?, ?, ?, ?)", participants);
+        jdbc.batchUpdate("INSERT INTO match_current_batsmen (match_id, batsman) VALUES (?, ?)", batsmen);
+
+        List<Object[]> news = new ArrayList<>();
+        List<Object[]> trending = new ArrayList<>();
+        for (int i = 1; i <= 20_000; i++) {
+            Timestamp published = Timestamp.valueOf(start.plusMinutes(i));
+            news.add(new Object[]{i, "Title " + i, "Summary", "Content", "Category " + i % 20, "Author " + i % 200,
+                    published, i % 50 == 0});
+            trending.add(new Object[]{i, i / 100.0, published});
+        }
+        jdbc.batchUpdate("INSERT INTO news_articles (id, title, summary, content, category, author, published_at, "
+                + "featured) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", news);
+        jdbc.batchUpdate("INSERT INTO news_trending (article_id, score, scored_at) VALUES (?, ?, ?)", trending);
+
+        List<Object[]> players = new ArrayList<>();
+        List<Object[]> teams = new ArrayList<>();
+        List<Object[]> tournaments = new ArrayList<>();
+        for (int i = 1; i <= 5_000; i++) {
+            players.add(new Object[]{i, "Player " + i, TEAMS[i % TEAMS.length], String.valueOf(i), "40.0", "1",
+                    i % 4 == 0 ? "Bowler" : "Batsman", i % 10 != 0});
+            teams.add(new Object[]{"Team " + i, "flag", i / FORMATS.length, 5_000 - i, FORMATS[i % FORMATS.length]});
+            Timestamp from = Timestamp.valueOf(start.plusDays(i));
+            tournaments.add(new Object[]{"Tournament " + i, i % 3 == 0 ? "Live" : STATUSES[i % STATUSES.length],
+                    from, from, "Ground", 8});
+        }
+        jdbc.batchUpdate("INSERT INTO players (id, name, country, runs, average, centuries, position, active) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", players);
+        jdbc.batchUpdate("INSERT INTO teams (name, flag, ranking, points, format) VALUES (?, ?, ?, ?, ?)", teams);
+        jdbc.batchUpdate("INSERT INTO tournaments (name, status, start_date, end_date, location, teams) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", tournaments);
+
+        List<Object[]> entries = new ArrayList<>();
+        List<Object[]> changes = new ArrayList<>();
+        List<Object[]> jobs = new ArrayList<>();
+        for (int i = 1; i <= 20_000; i++) {
+            entries.add(new Object[]{i, i % 5_000 + 1, TEAMS[i % TEAMS.length], i % 2 + 1});
+            Timestamp at = Timestamp.valueOf(start.plusSeconds(i));
+            changes.add(new Object[]{"MATCH", "UPDATED", i, at});
+            jobs.add(new Object[]{"job-" + i % 20, "NORMAL", i % 100 == 0 ? "RUNNING" : "SUCCEEDED", at, at, at});
+        }
+        jdbc.batchUpdate("INSERT INTO scorecard_entries (match_id, player_id, team_name, innings) "
+                + "VALUES (?, ?, ?, ?)", entries);
+        jdbc.batchUpdate("INSERT INTO change_outbox (entity_type, change_type, entity_id, created_at) "
+                + "VALUES (?, ?, ?, ?)", changes);
+        jdbc.batchUpdate("INSERT INTO jobs (type, priority, status, created_at, finished_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", jobs);
+        jdbc.execute("ANALYZE");
+    }
+
+    @AfterAll
+    void dropDatabase() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    static Stream<Arguments> queryMethods() {
+        return REPOSITORIES.stream()
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                        .filter(method -> !method.isDefault() && !method.isSynthetic()
+                                && !Modifier.isStatic(method.getModifiers()))
+                        .sorted(Comparator.comparing(Method::getName))
+                        .map(method -> Arguments.of(repository.getSimpleName() + "." + method.getName(),
+                                repository, method)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queryMethods")
+    void repositoryQueriesUseAnIndex(String name, Class<?> repository, Method method) throws Exception {
+        List<String> statements = captureSql(context.getBean(repository), method);
+
+        assertThat(statements).as(name).isNotEmpty();
+        for (String sql : statements) {
+            String plan = explain(sql);
+            if (!FULL_READS.containsKey(name)) {
+                assertThat(plan).as(name + "\n" + sql).doesNotContainIgnoringCase("tableScan");
+            }
+        }
+    }
+
+    @Test
+    void everyFullReadNamesARepositoryMethod() {
+        assertThat(queryMethods().map(arguments -> (String) arguments.get()[0]).toList())
+                .containsAll(FULL_READS.keySet());
+    }
+
+    private static List<String> captureSql(Object repository, Method method) throws Exception {
+        synchronized (Recorder.STATEMENTS) {
+            Recorder.STATEMENTS.clear();
+        }
+        Object result = method.invoke(repository, Arrays.stream(method.getParameterTypes())
+                .map(QueryPlanTest::argument).toArray());
+        if (result instanceof Stream<?> stream) {
+            try (stream) {
+                stream.findFirst();
+            }
+        }
+        synchronized (Recorder.STATEMENTS) {
+            return new ArrayList<>(Recorder.STATEMENTS);
+        }
+    }
+
+    private static Object argument(Class<?> type) {
+        if (type == String.class) {
+            return "India";
+        }
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 10;
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.of(2021, 1, 1, 0, 0);
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 20);
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of(1L, 2L);
+        }
+        throw new IllegalArgumentException("No test value for " + type);
+    }
+
+    // Parameters are bound to NULL; H2 plans the prepared statement, so the values do not matter.
+    private String explain(String sql) {
+        return jdbc.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            } catch (SQLException e) {
+                throw new IllegalStateException("EXPLAIN failed for " + sql, e);
+            }
+        });
+    }
+}
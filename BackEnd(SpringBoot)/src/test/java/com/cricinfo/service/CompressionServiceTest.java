@@ -0,0 +1,23 @@
+package com.cricinfo.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressionServiceTest {
+
+    private static final byte[] BODY = "{\"title\":\"Australia retain the Ashes\",\"category\":\"Match Report\"},"
+            .repeat(200).getBytes(StandardCharsets.UTF_8);
+
+    @ParameterizedTest
+    @ValueSource(strings = {CompressionService.BROTLI, CompressionService.ZSTD, CompressionService.GZIP})
+    void eachEncodingRoundTrips(String encoding) {
+        byte[] compressed = CompressionService.compress(encoding, BODY, 3);
+
+        assertThat(compressed.length).isLessThan(BODY.length / 10);
+        assertThat(CompressionService.decompress(encoding, compressed)).isEqualTo(BODY);
+    }
+}
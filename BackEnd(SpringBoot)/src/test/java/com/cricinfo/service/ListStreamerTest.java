@@ -0,0 +1,41 @@
+package com.cricinfo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListStreamerTest {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ListStreamer streamer = new ListStreamer();
+
+    @Test
+    void defaultsToJson() {
+        assertThat(streamer.negotiate(null)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(streamer.negotiate(" ")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(streamer.negotiate("*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(streamer.negotiate("application/*")).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void picksTheBinaryEncodingsWhenAsked() {
+        assertThat(streamer.negotiate("application/cbor")).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(streamer.negotiate("application/x-jackson-smile")).isEqualTo(SMILE);
+    }
+
+    @Test
+    void honoursQualityValues() {
+        assertThat(streamer.negotiate("application/json;q=0.5, application/cbor")).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(streamer.negotiate("application/cbor;q=0.1, application/x-jackson-smile;q=0.9")).isEqualTo(SMILE);
+        assertThat(streamer.negotiate("application/json;q=0, text/html")).isNull();
+    }
+
+    @Test
+    void returnsNullWhenNothingOfferedIsAcceptable() {
+        assertThat(streamer.negotiate("text/html")).isNull();
+        assertThat(streamer.negotiate("application/xml, text/csv")).isNull();
+        assertThat(streamer.negotiate("not a media type")).isNull();
+    }
+}